@@ -0,0 +1,123 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all benchmarks with the GC profiler and writes their results as CSV files for the R scripts in {@code plots}. The
+ * build benchmark runs with a single benchmark thread, as the builds are parallel themselves, and the query benchmark
+ * runs with one thread, half of the processors, and all processors. Command line arguments are passed to JMH, e.g.
+ * {@code -p implementation=SortedArray,ParallelPrefixTree -p size=100000 -f 1} for a quicker run. Without an
+ * implementation parameter, all implementations of the {@link Dictionaries} are run. The output directory
+ * is {@code ../plots/input/jmh} by default, which can be changed with the system property {@value #OUTPUT_PROPERTY}.
+ */
+public final class BenchmarkRunner {
+
+    private static final String OUTPUT_PROPERTY = "benchmark.output";
+    private static final String IMPLEMENTATION_PARAMETER = "implementation";
+    private static final Path DEFAULT_OUTPUT = Path.of("..", "plots", "input", "jmh");
+    private static final String ALLOCATION_RESULT = "gc.alloc.rate.norm"; // bytes per operation, prefixed with a dot in older versions
+    private static final String CSV_HEADER = "name;benchmark;mode;size;prefixLength;threads;score;error;unit;allocation";
+
+    private BenchmarkRunner() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args are JMH command line options.
+     * @throws RunnerException if a benchmark fails.
+     * @throws CommandLineOptionException if the options are invalid.
+     * @throws IOException if the results cannot be written.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        List<RunResult> results = new ArrayList<>(run(commandLine, BuildBenchmark.class, 1));
+        for (int threads : threadCounts()) {
+            results.addAll(run(commandLine, QueryBenchmark.class, threads));
+        }
+        writeCsvFiles(results, Path.of(System.getProperty(OUTPUT_PROPERTY, DEFAULT_OUTPUT.toString())));
+    }
+
+    private static Collection<RunResult> run(CommandLineOptions commandLine, Class<?> benchmark, int threads) throws RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine).include(benchmark.getSimpleName()).threads(threads)
+                .addProfiler(GCProfiler.class);
+        if (!commandLine.getParameter(IMPLEMENTATION_PARAMETER).hasValue()) {
+            options.param(IMPLEMENTATION_PARAMETER, Dictionaries.names().toArray(String[]::new)); // the registry is complete by definition
+        }
+        return new Runner(options.build()).run();
+    }
+
+    private static int[] threadCounts() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return IntStream.of(1, processors / 2, processors).filter(it -> it > 0).distinct().toArray();
+    }
+
+    /**
+     * Writes one file per benchmark method, with one line per implementation, parameter combination, mode, and number of
+     * threads.
+     */
+    private static void writeCsvFiles(List<RunResult> results, Path directory) throws IOException {
+        Map<String, List<String>> files = new LinkedHashMap<>();
+        for (RunResult result : results) {
+            BenchmarkParams params = result.getParams();
+            String benchmark = simpleName(params.getBenchmark());
+            Result<?> primary = result.getPrimaryResult();
+            String line = String.join(";", param(params, IMPLEMENTATION_PARAMETER), benchmark, params.getMode().shortLabel(), param(params, "size"),
+                    param(params, "prefixLength"), String.valueOf(params.getThreads()), format(primary.getScore()), format(primary.getScoreError()),
+                    primary.getScoreUnit(), format(allocation(result)));
+            files.computeIfAbsent(benchmark, it -> new ArrayList<>(List.of(CSV_HEADER))).add(line);
+        }
+        Files.createDirectories(directory);
+        for (Map.Entry<String, List<String>> file : files.entrySet()) {
+            Files.write(directory.resolve(file.getKey() + ".csv"), file.getValue());
+        }
+    }
+
+    /**
+     * Returns the name of a benchmark method with its class, but without the package.
+     */
+    private static String simpleName(String benchmark) {
+        int methodStart = benchmark.lastIndexOf('.');
+        return benchmark.substring(benchmark.lastIndexOf('.', methodStart - 1) + 1);
+    }
+
+    /**
+     * Returns the value of a benchmark parameter, or NA for R if the benchmark does not have the parameter.
+     */
+    private static String param(BenchmarkParams params, String name) {
+        String value = params.getParam(name);
+        return value == null ? "NA" : value;
+    }
+
+    /**
+     * Returns the normalized allocation rate in bytes per operation, or NaN if the GC profiler did not report it.
+     */
+    private static double allocation(RunResult result) {
+        return result.getSecondaryResults().entrySet().stream().filter(it -> it.getKey().endsWith(ALLOCATION_RESULT))
+                .mapToDouble(it -> it.getValue().getScore()).findFirst().orElse(Double.NaN);
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Measures the time to build a dictionary from a list of words. The dictionary is returned, so it is not optimized away.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BuildBenchmark extends DictionaryBenchmark {
+
+    private List<String> words;
+
+    /**
+     * Creates the words once per trial, which is not measured.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        words = createWords();
+    }
+
+    /**
+     * Builds the dictionary.
+     * @return the dictionary.
+     */
+    @Benchmark
+    public SearchableDictionary build() {
+        return Dictionaries.create(implementation, words);
+    }
+}
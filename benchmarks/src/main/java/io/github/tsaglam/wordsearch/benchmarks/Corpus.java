@@ -0,0 +1,55 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic benchmark inputs. Words consist of upper-case letters like the JUnit test data, but vary in length, and
+ * any number of them can be created. Prefixes are taken from the words, so every prefix matches at least one word.
+ */
+public final class Corpus {
+
+    private static final long SEED = 42;
+    private static final int MINIMUM_LENGTH = 4;
+    private static final int MAXIMUM_LENGTH = 12;
+
+    private Corpus() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Creates the words of a dictionary, which are the same for the same size.
+     * @param size is the number of words.
+     * @return the words in random order.
+     */
+    public static List<String> createWords(int size) {
+        Random random = new Random(SEED);
+        List<String> words = new ArrayList<>(size);
+        char[] word = new char[MAXIMUM_LENGTH];
+        for (int index = 0; index < size; index++) {
+            int length = MINIMUM_LENGTH + random.nextInt(MAXIMUM_LENGTH - MINIMUM_LENGTH + 1);
+            for (int position = 0; position < length; position++) {
+                word[position] = (char) ('A' + random.nextInt(26));
+            }
+            words.add(new String(word, 0, length));
+        }
+        return words;
+    }
+
+    /**
+     * Creates search prefixes by truncating randomly chosen words.
+     * @param words are the words of the dictionary.
+     * @param length is the length of the prefixes, at most the minimum word length.
+     * @param count is the number of prefixes.
+     * @return the prefixes, which may contain duplicates.
+     */
+    public static String[] createPrefixes(List<String> words, int length, int count) {
+        Random random = new Random(SEED + length);
+        String[] prefixes = new String[count];
+        for (int index = 0; index < count; index++) {
+            prefixes[index] = words.get(random.nextInt(words.size())).substring(0, Math.min(length, MINIMUM_LENGTH));
+        }
+        return prefixes;
+    }
+}
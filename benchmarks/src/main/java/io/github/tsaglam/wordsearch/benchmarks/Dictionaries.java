@@ -0,0 +1,104 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.cache.CachingDictionary;
+import io.github.tsaglam.wordsearch.impl.AdaptiveDictionary;
+import io.github.tsaglam.wordsearch.impl.MultiTreeSetWordSearch;
+import io.github.tsaglam.wordsearch.impl.ParallelHashingTreeSearch;
+import io.github.tsaglam.wordsearch.impl.ParallelRangeHashingSearch;
+import io.github.tsaglam.wordsearch.impl.ParallelStreamWordSearch;
+import io.github.tsaglam.wordsearch.impl.SortedArrayWordSearch;
+import io.github.tsaglam.wordsearch.impl.SuffixArrayWordSearch;
+import io.github.tsaglam.wordsearch.impl.TreeSetWordSearch;
+import io.github.tsaglam.wordsearch.mapped.DictionaryFile;
+import io.github.tsaglam.wordsearch.mapped.MappedWordSearch;
+import io.github.tsaglam.wordsearch.mapped.OffHeapWordSearch;
+import io.github.tsaglam.wordsearch.metrics.InstrumentedDictionary;
+import io.github.tsaglam.wordsearch.tree.CompactPrefixTree;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixForest;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixTree;
+import io.github.tsaglam.wordsearch.tree.ParallelRadixTree;
+import io.github.tsaglam.wordsearch.tree.PersistentPrefixTree;
+
+/**
+ * Registry of all benchmarked search implementations by name, which are the values of the {@code implementation}
+ * parameter of {@link DictionaryBenchmark}. The names are the same as in the JUnit tests, so the results of both can be
+ * plotted together. The naive implementation is excluded, like in the JUnit benchmark. The {@link BenchmarkRunner} runs
+ * all registered implementations unless others are specified.
+ */
+public final class Dictionaries {
+
+    private static final int CACHED_SHARE = 10; // caches up to a tenth of the words
+    private static final Map<String, Function<List<String>, SearchableDictionary>> CONSTRUCTORS = new LinkedHashMap<>();
+
+    static {
+        CONSTRUCTORS.put("ParallelStream", ParallelStreamWordSearch::new);
+        CONSTRUCTORS.put("TreeSet", TreeSetWordSearch::new);
+        CONSTRUCTORS.put("SortedArray", SortedArrayWordSearch::new);
+        CONSTRUCTORS.put("SuffixArray", SuffixArrayWordSearch::new);
+        CONSTRUCTORS.put("Adaptive", AdaptiveDictionary::new);
+        CONSTRUCTORS.put("MultiTreeSet", MultiTreeSetWordSearch::new);
+        CONSTRUCTORS.put("PrefixHashing", ParallelHashingTreeSearch::new);
+        CONSTRUCTORS.put("PrefixRangeHashing", ParallelRangeHashingSearch::new);
+        CONSTRUCTORS.put("ParallelPrefixTree", ParallelPrefixTree::new);
+        CONSTRUCTORS.put("ParallelRadixTree", ParallelRadixTree::new);
+        CONSTRUCTORS.put("ParallelPrefixForest", ParallelPrefixForest::new);
+        CONSTRUCTORS.put("PersistentPrefixTree", PersistentPrefixTree::new);
+        CONSTRUCTORS.put("CompactPrefixTree", CompactPrefixTree::new);
+        CONSTRUCTORS.put("MappedFile", Dictionaries::createMappedDictionary);
+        CONSTRUCTORS.put("OffHeapArena", OffHeapWordSearch::new);
+        CONSTRUCTORS.put("Instrumented", words -> InstrumentedDictionary.build("Instrumented", words, ParallelPrefixTree::new));
+        CONSTRUCTORS.put("Caching", words -> new CachingDictionary(new ParallelPrefixTree(words), Math.max(1, words.size() / CACHED_SHARE)));
+    }
+
+    private Dictionaries() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Returns the names of all implementations.
+     * @return the names in the order of registration.
+     */
+    public static Set<String> names() {
+        return Collections.unmodifiableSet(CONSTRUCTORS.keySet());
+    }
+
+    /**
+     * Creates a dictionary.
+     * @param name is the name of the implementation.
+     * @param words specifies the content.
+     * @return the dictionary.
+     * @throws IllegalArgumentException if no implementation has the name.
+     */
+    public static SearchableDictionary create(String name, List<String> words) {
+        Function<List<String>, SearchableDictionary> constructor = CONSTRUCTORS.get(name);
+        if (constructor == null) {
+            throw new IllegalArgumentException("Unknown implementation: " + name);
+        }
+        return constructor.apply(words);
+    }
+
+    /**
+     * Creates a memory-mapped dictionary by writing the words to a temporary file, which is deleted on exit.
+     */
+    private static SearchableDictionary createMappedDictionary(List<String> words) {
+        try {
+            Path file = Files.createTempFile("dictionary", ".pwsd");
+            file.toFile().deleteOnExit();
+            return MappedWordSearch.open(DictionaryFile.write(words, file));
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+}
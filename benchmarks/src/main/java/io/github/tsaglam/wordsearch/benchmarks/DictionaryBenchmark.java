@@ -0,0 +1,44 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Common parameters of all benchmarks, which are run for every implementation and dictionary size. Each benchmark runs in
+ * forked JVMs with warmup iterations, so the JIT compilation of one implementation does not affect the others.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DictionaryBenchmark {
+
+    /**
+     * Name of the implementation, see {@link Dictionaries}. The values are all registered names, but only apply when JMH
+     * is run directly, as the {@link BenchmarkRunner} takes them from the registry.
+     */
+    @Param({"ParallelStream", "TreeSet", "SortedArray", "SuffixArray", "Adaptive", "MultiTreeSet", "PrefixHashing", "PrefixRangeHashing",
+            "ParallelPrefixTree", "ParallelRadixTree", "ParallelPrefixForest", "PersistentPrefixTree", "CompactPrefixTree", "MappedFile",
+            "OffHeapArena", "Instrumented", "Caching"})
+    public String implementation;
+
+    /**
+     * Number of words in the dictionary.
+     */
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * Creates the words of the dictionary.
+     * @return the words for the size parameter.
+     */
+    protected List<String> createWords() {
+        return Corpus.createWords(size);
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Drives concurrent clients that send queries of a {@link Workload} to a dictionary and records their latencies. In the
+ * closed loop model, each client sends its next query as soon as the previous one returned, which measures the maximum
+ * throughput. In the open loop model, the clients send queries at a fixed total rate, like independent users do. The
+ * latency of a query is then measured from the time it was scheduled instead of the time it was sent, so queries that
+ * wait for a slow predecessor count their waiting time, which avoids coordinated omission. Each client records into its
+ * own histogram, which are merged after the run, so the recording does not contend.
+ */
+public final class LoadDriver {
+
+    /**
+     * Load model of a run.
+     */
+    public enum Mode {
+        /**
+         * Each client sends its next query when the previous one returned.
+         */
+        CLOSED,
+        /**
+         * The clients send queries at a fixed total rate.
+         */
+        OPEN
+    }
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final Mode mode;
+    private final int clients;
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+
+    private LoadDriver(Mode mode, int clients, double rate, Duration warmup, Duration duration) {
+        if (clients < 1) {
+            throw new IllegalArgumentException("Number of clients must be positive.");
+        }
+        if (warmup == null || duration == null || warmup.isNegative() || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Warmup cannot be negative and duration must be positive.");
+        }
+        this.mode = mode;
+        this.clients = clients;
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    /**
+     * Creates a driver for the closed loop model.
+     * @param clients is the number of concurrent clients.
+     * @param warmup is the time before the measurement starts.
+     * @param duration is the time of the measurement.
+     * @return the driver.
+     * @throws IllegalArgumentException if the number of clients or the duration is not positive, or the warmup is negative.
+     */
+    public static LoadDriver closedLoop(int clients, Duration warmup, Duration duration) {
+        return new LoadDriver(Mode.CLOSED, clients, Double.NaN, warmup, duration);
+    }
+
+    /**
+     * Creates a driver for the open loop model.
+     * @param clients is the number of concurrent clients, which share the rate.
+     * @param rate is the total number of queries per second.
+     * @param warmup is the time before the measurement starts.
+     * @param duration is the time of the measurement.
+     * @return the driver.
+     * @throws IllegalArgumentException if the number of clients, the rate, or the duration is not positive, or the warmup is
+     * negative.
+     */
+    public static LoadDriver openLoop(int clients, double rate, Duration warmup, Duration duration) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("Rate must be positive.");
+        }
+        return new LoadDriver(Mode.OPEN, clients, rate, warmup, duration);
+    }
+
+    /**
+     * Runs the clients against a dictionary and waits until they are done.
+     * @param name is the name of the implementation for the report.
+     * @param dictionary is the dictionary to query.
+     * @param workload provides the queries.
+     * @param seed determines the queries of the clients.
+     * @return the report of the measured queries.
+     * @throws InterruptedException if the thread is interrupted while waiting for the clients.
+     */
+    public LoadReport run(String name, SearchableDictionary dictionary, Workload workload, long seed) throws InterruptedException {
+        SplittableRandom seeds = new SplittableRandom(seed);
+        CountDownLatch ready = new CountDownLatch(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Client> clientList = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int index = 0; index < clients; index++) {
+            Client client = new Client(dictionary, workload, seeds.split(), index, ready, start);
+            clientList.add(client);
+            threads.add(Thread.ofPlatform().name("load-client-" + index).start(client));
+        }
+        ready.await();
+        long startTime = System.nanoTime();
+        clientList.forEach(it -> it.schedule(startTime));
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Histogram latencies = new Histogram(SIGNIFICANT_DIGITS);
+        long results = 0;
+        for (Client client : clientList) {
+            latencies.add(client.latencies);
+            results += client.results;
+        }
+        long queries = latencies.getTotalCount();
+        return new LoadReport(name, mode, clients, queries, queries * NANOS_PER_SECOND / duration.toNanos(), latencies,
+                queries == 0 ? 0 : results / (double) queries);
+    }
+
+    /**
+     * A client that sends queries in its own thread until the end of the measurement.
+     */
+    private final class Client implements Runnable {
+        private final SearchableDictionary dictionary;
+        private final Workload workload;
+        private final SplittableRandom random;
+        private final long intervalNanos; // between the scheduled queries of this client in the open loop model
+        private final CountDownLatch ready;
+        private final CountDownLatch start;
+        private final Histogram latencies;
+        private long results;
+        private long measurementStart;
+        private long end;
+        private long nextQuery;
+
+        Client(SearchableDictionary dictionary, Workload workload, SplittableRandom random, int index, CountDownLatch ready, CountDownLatch start) {
+            this.dictionary = dictionary;
+            this.workload = workload;
+            this.random = random;
+            this.ready = ready;
+            this.start = start;
+            intervalNanos = mode == Mode.OPEN ? Math.round(clients * NANOS_PER_SECOND / rate) : 0;
+            nextQuery = index * intervalNanos / clients; // spreads the clients over the interval
+            latencies = new Histogram(SIGNIFICANT_DIGITS);
+        }
+
+        /**
+         * Sets the start time of the run, which happens before the client is started.
+         */
+        void schedule(long startTime) {
+            measurementStart = startTime + warmup.toNanos();
+            end = measurementStart + duration.toNanos();
+            nextQuery += startTime;
+        }
+
+        @Override
+        public void run() {
+            ready.countDown();
+            try {
+                start.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (long now = System.nanoTime(); now < end; now = System.nanoTime()) {
+                long scheduled = now;
+                if (mode == Mode.OPEN) {
+                    scheduled = nextQuery;
+                    nextQuery += intervalNanos;
+                    if (!awaitSchedule(scheduled)) {
+                        return;
+                    }
+                }
+                int size = dictionary.findMatchingWords(workload.nextQuery(random)).size();
+                if (scheduled >= measurementStart) {
+                    latencies.recordValue(Math.max(0, System.nanoTime() - scheduled)); // the clock may not be monotonic
+                    results += size;
+                }
+            }
+        }
+
+        /**
+         * Parks until the scheduled time, as parking may return early. Returns false if the thread was interrupted.
+         */
+        private boolean awaitSchedule(long scheduled) {
+            for (long remaining = scheduled - System.nanoTime(); remaining > 0; remaining = scheduled - System.nanoTime()) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.currentThread().isInterrupted()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Runs the {@link LoadDriver} for several implementations and numbers of clients on a synthetic {@link Workload} and
+ * writes the throughput and latency percentiles as CSV file for the R scripts in {@code plots}. Arguments are key-value
+ * pairs, e.g. {@code implementations=SortedArray,ParallelRadixTree clients=1,4,16 mode=OPEN rate=50000}. Supported keys
+ * and their defaults are {@code implementations} (all of {@link Dictionaries}), {@code clients} (1, 4, 16, 64), {@code mode}
+ * (CLOSED), {@code rate} (total queries per second in the open loop model, 10000), {@code warmup} (5 seconds),
+ * {@code duration} (10 seconds), {@code size} (1000000), {@code unicodeShare} (0.1), {@code exponent} (1.0), and
+ * {@code seed} (0). The output file is {@code ../plots/input/load/load.csv} by default, which can be changed with the system
+ * property {@value #OUTPUT_PROPERTY}.
+ */
+public final class LoadGenerator {
+
+    private static final String OUTPUT_PROPERTY = "load.output";
+    private static final Path DEFAULT_OUTPUT = Path.of("..", "plots", "input", "load", "load.csv");
+    private static final Map<String, String> DEFAULTS = Map.of("implementations", String.join(",", Dictionaries.names()), "clients",
+            "1,4,16,64", "mode", "CLOSED", "rate", "10000", "warmup", "5", "duration", "10", "size", "1000000", "unicodeShare", "0.1", "exponent",
+            "1.0", "seed", "0");
+
+    private LoadGenerator() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Runs the load tests.
+     * @param args are key-value pairs of the parameters, separated by an equals sign.
+     * @throws InterruptedException if the thread is interrupted while waiting for the clients.
+     * @throws IOException if the results cannot be written.
+     * @throws IllegalArgumentException if an argument is unknown or invalid.
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        Map<String, String> parameters = parse(args);
+        long seed = Long.parseLong(parameters.get("seed"));
+        Workload workload = Workload.create(Integer.parseInt(parameters.get("size")), Double.parseDouble(parameters.get("unicodeShare")),
+                Double.parseDouble(parameters.get("exponent")), seed);
+        LoadDriver.Mode mode = LoadDriver.Mode.valueOf(parameters.get("mode"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(parameters.get("warmup")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(parameters.get("duration")));
+        List<String> lines = new ArrayList<>(List.of(LoadReport.CSV_HEADER));
+        for (String name : parameters.get("implementations").split(",")) {
+            SearchableDictionary dictionary = Dictionaries.create(name, workload.getWords());
+            for (String clients : parameters.get("clients").split(",")) {
+                int numberOfClients = Integer.parseInt(clients);
+                LoadDriver driver = mode == LoadDriver.Mode.OPEN
+                        ? LoadDriver.openLoop(numberOfClients, Double.parseDouble(parameters.get("rate")), warmup, duration)
+                        : LoadDriver.closedLoop(numberOfClients, warmup, duration);
+                LoadReport report = driver.run(name, dictionary, workload, seed);
+                System.out.println(report);
+                lines.add(report.toCsvLine());
+            }
+        }
+        Path output = Path.of(System.getProperty(OUTPUT_PROPERTY, DEFAULT_OUTPUT.toString()));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.write(output, lines);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> parameters = new HashMap<>(DEFAULTS);
+        for (String argument : args) {
+            String[] pair = argument.split("=", 2);
+            if (pair.length != 2 || !DEFAULTS.containsKey(pair[0])) {
+                throw new IllegalArgumentException("Unknown argument: " + argument + ", expected one of " + DEFAULTS.keySet());
+            }
+            parameters.put(pair[0], pair[1]);
+        }
+        return parameters;
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.util.Locale;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Result of a run of the {@link LoadDriver}.
+ * @param name is the name of the implementation.
+ * @param mode is the load model of the run.
+ * @param clients is the number of concurrent clients.
+ * @param queries is the number of measured queries.
+ * @param throughput is the number of queries per second.
+ * @param latencies are the latencies of the measured queries in nanoseconds.
+ * @param meanResults is the mean number of words per query.
+ */
+public record LoadReport(String name, LoadDriver.Mode mode, int clients, long queries, double throughput, Histogram latencies,
+        double meanResults) {
+
+    /**
+     * Header of the CSV lines, see {@link #toCsvLine()}.
+     */
+    public static final String CSV_HEADER = "name;mode;clients;queries;throughput;p50;p99;p999;max;results";
+
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    /**
+     * Returns the latency at a percentile.
+     * @param percentile is the percentile between 0 and 100, e.g. 99.9.
+     * @return the latency in microseconds.
+     */
+    public double latencyAt(double percentile) {
+        return latencies.getValueAtPercentile(percentile) / NANOS_PER_MICRO;
+    }
+
+    /**
+     * Formats the report as CSV line with the latencies in microseconds.
+     * @return the line without line break.
+     */
+    public String toCsvLine() {
+        return String.format(Locale.ROOT, "%s;%s;%d;%d;%.1f;%.1f;%.1f;%.1f;%.1f;%.1f", name, mode, clients, queries, throughput, latencyAt(50),
+                latencyAt(99), latencyAt(99.9), latencies.getMaxValue() / NANOS_PER_MICRO, meanResults);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%s (%s, %d clients): %.0f queries/s, p50 %.1fus, p99 %.1fus, p999 %.1fus, max %.1fus", name, mode,
+                clients, throughput, latencyAt(50), latencyAt(99), latencyAt(99.9), latencies.getMaxValue() / NANOS_PER_MICRO);
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Measures queries against a dictionary that is built once per trial. Each benchmark thread cycles through its own
+ * sequence of prefixes of the same length, so the results cover short prefixes with many matches and long prefixes with
+ * few matches separately. The sample time mode records the latency distribution of single queries, the throughput mode
+ * the number of queries of all threads per time. Besides prefix queries, the fuzzy, wildcard, infix, and batched queries
+ * are measured with patterns derived from the same prefixes.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryBenchmark extends DictionaryBenchmark {
+
+    private static final int PREFIXES = 1024; // power of two, see Cursor
+    private static final int BATCH_SIZE = 64;
+    private static final int MAXIMUM_EDITS = 1;
+
+    /**
+     * Length of the search prefixes.
+     */
+    @Param({"1", "2", "3", "4"})
+    public int prefixLength;
+
+    private SearchableDictionary dictionary;
+    private String[] prefixes;
+    private String[] wildcardPatterns;
+
+    /**
+     * Builds the dictionary once per trial, which is not measured.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> words = createWords();
+        dictionary = Dictionaries.create(implementation, words);
+        prefixes = Corpus.createPrefixes(words, prefixLength, PREFIXES);
+        wildcardPatterns = new String[PREFIXES];
+        for (int index = 0; index < PREFIXES; index++) {
+            String prefix = prefixes[index]; // e.g. ABCD becomes A?CD*, which keeps a literal prefix
+            wildcardPatterns[index] = prefix.length() == 1 ? prefix + "*" : prefix.charAt(0) + "?" + prefix.substring(2) + "*";
+        }
+    }
+
+    /**
+     * Searches for all words with the next prefix.
+     * @param cursor is the position of the thread in the prefixes.
+     * @return the matching words.
+     */
+    @Benchmark
+    public List<String> findMatchingWords(Cursor cursor) {
+        return dictionary.findMatchingWords(cursor.next(prefixes));
+    }
+
+    /**
+     * Counts the words with the next prefix.
+     * @param cursor is the position of the thread in the prefixes.
+     * @return the number of matching words.
+     */
+    @Benchmark
+    public int countMatchingWords(Cursor cursor) {
+        return dictionary.countMatchingWords(cursor.next(prefixes));
+    }
+
+    /**
+     * Searches for the words that start within one edit of the next prefix.
+     * @param cursor is the position of the thread in the prefixes.
+     * @return the matching words.
+     */
+    @Benchmark
+    public List<String> findFuzzyMatches(Cursor cursor) {
+        return dictionary.findFuzzyMatches(cursor.next(prefixes), MAXIMUM_EDITS);
+    }
+
+    /**
+     * Searches for the words that match the next wildcard pattern, which replaces the second character of a prefix.
+     * @param cursor is the position of the thread in the patterns.
+     * @return the matching words.
+     */
+    @Benchmark
+    public List<String> findWildcardMatches(Cursor cursor) {
+        return dictionary.findWildcardMatches(cursor.next(wildcardPatterns));
+    }
+
+    /**
+     * Searches for the words that contain the next prefix anywhere.
+     * @param cursor is the position of the thread in the prefixes.
+     * @return the matching words.
+     */
+    @Benchmark
+    public List<String> findWordsContaining(Cursor cursor) {
+        return dictionary.findWordsContaining(cursor.next(prefixes));
+    }
+
+    /**
+     * Searches for the words of a batch of the next prefixes at once. The score is per prefix, so it is comparable to
+     * {@link #findMatchingWords(Cursor)}.
+     * @param cursor is the position of the thread in the prefixes.
+     * @return the matching words by prefix.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Map<String, List<String>> findMatchingWordsForAll(Cursor cursor) {
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        for (int index = 0; index < BATCH_SIZE; index++) {
+            batch.add(cursor.next(prefixes));
+        }
+        return dictionary.findMatchingWordsForAll(batch);
+    }
+
+    /**
+     * Position of a benchmark thread in the prefixes. Threads start at different positions, so they do not search for the
+     * same prefix at the same time.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int position;
+
+        /**
+         * Chooses a start position for the thread.
+         */
+        @Setup(Level.Trial)
+        public void setUp() {
+            position = System.identityHashCode(this);
+        }
+
+        String next(String[] prefixes) {
+            return prefixes[position++ & PREFIXES - 1];
+        }
+    }
+}
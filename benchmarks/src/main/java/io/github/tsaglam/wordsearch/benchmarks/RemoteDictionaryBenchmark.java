@@ -0,0 +1,136 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.server.DictionaryClient;
+import io.github.tsaglam.wordsearch.server.DictionaryServer;
+
+/**
+ * Measures the overhead of hosting a dictionary in a {@link DictionaryServer} compared to in-process queries. The server
+ * runs in the benchmark JVM and is queried over the loopback interface, so the results contain the protocol and the
+ * network stack, but no network latency. Blocking queries pay a round trip each, while pipelined queries send a batch
+ * before waiting for the results, which shows how much of the round trip pipelining hides. The benchmark is not part of
+ * the {@link BenchmarkRunner}, run it with
+ * {@code java -cp target/benchmarks.jar org.openjdk.jmh.Main RemoteDictionaryBenchmark}.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RemoteDictionaryBenchmark {
+
+    private static final String NAME = "words";
+    private static final int PREFIXES = 1024; // power of two, see QueryBenchmark.Cursor
+    private static final int BATCH_SIZE = 64;
+
+    /**
+     * Name of the hosted implementation, see {@link Dictionaries}.
+     */
+    @Param({"SortedArray", "ParallelRadixTree"})
+    public String implementation;
+
+    /**
+     * Number of words in the dictionary.
+     */
+    @Param({"100000", "1000000"})
+    public int size;
+
+    /**
+     * Length of the search prefixes.
+     */
+    @Param({"2", "4"})
+    public int prefixLength;
+
+    private SearchableDictionary local;
+    private SearchableDictionary remote;
+    private DictionaryServer server;
+    private DictionaryClient client;
+    private String[] prefixes;
+
+    /**
+     * Builds the dictionary and starts the server once per trial, which is not measured.
+     * @throws IOException if the server cannot be started.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<String> words = Corpus.createWords(size);
+        local = Dictionaries.create(implementation, words);
+        prefixes = Corpus.createPrefixes(words, prefixLength, PREFIXES);
+        server = DictionaryServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), Map.of(NAME, local));
+        client = DictionaryClient.connect(server.getAddress());
+        remote = client.getDictionary(NAME);
+    }
+
+    /**
+     * Disconnects and stops the server.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    /**
+     * Searches the dictionary in-process, which is the baseline.
+     * @param cursor is the position of the thread in the prefixes.
+     * @return the matching words.
+     */
+    @Benchmark
+    public List<String> findMatchingWordsLocally(QueryBenchmark.Cursor cursor) {
+        return local.findMatchingWords(cursor.next(prefixes));
+    }
+
+    /**
+     * Searches the hosted dictionary and waits for each result before sending the next query.
+     * @param cursor is the position of the thread in the prefixes.
+     * @return the matching words.
+     */
+    @Benchmark
+    public List<String> findMatchingWordsRemotely(QueryBenchmark.Cursor cursor) {
+        return remote.findMatchingWords(cursor.next(prefixes));
+    }
+
+    /**
+     * Searches the hosted dictionary with a batch of pipelined queries, which are all sent before the first result is
+     * awaited.
+     * @param cursor is the position of the thread in the prefixes.
+     * @param blackhole consumes the matching words.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void findMatchingWordsPipelined(QueryBenchmark.Cursor cursor, Blackhole blackhole) {
+        @SuppressWarnings({"unchecked", "rawtypes"}) // generic arrays cannot be created
+        CompletableFuture<List<String>>[] results = new CompletableFuture[BATCH_SIZE];
+        for (int index = 0; index < BATCH_SIZE; index++) {
+            results[index] = client.findMatchingWords(NAME, cursor.next(prefixes));
+        }
+        for (CompletableFuture<List<String>> result : results) {
+            blackhole.consume(result.join());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic corpus and query distribution that resemble a production search box. Word lengths follow a log-normal
+ * distribution with a long tail, letters follow the frequency order of English, and a share of the words uses other
+ * scripts: Latin with diacritics, Cyrillic, CJK ideographs, and emoji outside the basic multilingual plane. Queries are
+ * prefixes of one to six characters of random words, whose popularity follows a Zipf distribution, so few prefixes make
+ * up most of the queries. Workloads are deterministic for the same parameters.
+ */
+public final class Workload {
+
+    private static final String LETTERS_BY_FREQUENCY = "etaoinshrdlcumwfgypbvkjxqz";
+    private static final String DIACRITICS = "\u00e4\u00f6\u00fc\u00df\u00e9\u00e8\u00ea\u00e0\u00e7\u00f1\u00f8\u00e5\u0153";
+    private static final double MEDIAN_LENGTH = 7;
+    private static final double LENGTH_SIGMA = 0.5; // of the logarithm of the length
+    private static final int MAXIMUM_LENGTH = 64;
+    private static final int MAXIMUM_PREFIX_LENGTH = 6;
+    private static final int CANDIDATE_PREFIXES = 20_000;
+
+    private final List<String> words;
+    private final String[] prefixes; // ordered by popularity
+    private final ZipfDistribution popularity;
+
+    private Workload(List<String> words, String[] prefixes, double exponent) {
+        this.words = words;
+        this.prefixes = prefixes;
+        popularity = new ZipfDistribution(prefixes.length, exponent);
+    }
+
+    /**
+     * Creates a workload.
+     * @param size is the number of words.
+     * @param unicodeShare is the share of words in other scripts than basic Latin, between zero and one.
+     * @param exponent is the skew of the Zipf distribution of the prefixes, e.g. one.
+     * @param seed determines the random words and prefixes.
+     * @return the workload.
+     * @throws IllegalArgumentException if the size is not positive, the share is not between zero and one, or the exponent
+     * is negative.
+     */
+    public static Workload create(int size, double unicodeShare, double exponent, long seed) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive.");
+        }
+        if (unicodeShare < 0 || unicodeShare > 1) {
+            throw new IllegalArgumentException("Unicode share must be between zero and one.");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        ZipfDistribution letters = new ZipfDistribution(LETTERS_BY_FREQUENCY.length(), 1);
+        List<String> words = new ArrayList<>(size);
+        StringBuilder word = new StringBuilder();
+        for (int index = 0; index < size; index++) {
+            word.setLength(0);
+            int length = Math.clamp(Math.round(MEDIAN_LENGTH * Math.exp(LENGTH_SIGMA * random.nextGaussian())), 1, MAXIMUM_LENGTH);
+            int script = random.nextDouble() < unicodeShare ? 1 + random.nextInt(4) : 0;
+            for (int position = 0; position < length; position++) {
+                appendCharacter(word, script, random, letters);
+            }
+            words.add(word.toString());
+        }
+        Set<String> prefixes = new LinkedHashSet<>();
+        for (int index = 0; index < CANDIDATE_PREFIXES; index++) {
+            prefixes.add(prefixOf(words.get(random.nextInt(size)), 1 + random.nextInt(MAXIMUM_PREFIX_LENGTH)));
+        }
+        List<String> rankedPrefixes = new ArrayList<>(prefixes);
+        Collections.shuffle(rankedPrefixes, random);
+        return new Workload(words, rankedPrefixes.toArray(String[]::new), exponent);
+    }
+
+    /**
+     * Returns the words of the corpus.
+     * @return the words in random order.
+     */
+    public List<String> getWords() {
+        return words;
+    }
+
+    /**
+     * Draws the next query.
+     * @param random is the source of randomness of the client, which is not shared between threads.
+     * @return the search prefix.
+     */
+    public String nextQuery(SplittableRandom random) {
+        return prefixes[popularity.sample(random)];
+    }
+
+    /**
+     * Returns the number of distinct queries.
+     * @return the number of prefixes.
+     */
+    public int getNumberOfQueries() {
+        return prefixes.length;
+    }
+
+    private static void appendCharacter(StringBuilder word, int script, SplittableRandom random, ZipfDistribution letters) {
+        switch (script) {
+            case 1 -> word.append(random.nextInt(4) == 0 ? DIACRITICS.charAt(random.nextInt(DIACRITICS.length()))
+                    : LETTERS_BY_FREQUENCY.charAt(letters.sample(random)));
+            case 2 -> word.append((char) ('\u0430' + random.nextInt(32))); // Cyrillic
+            case 3 -> word.append((char) (0x4E00 + random.nextInt(500))); // common CJK ideographs
+            case 4 -> word.appendCodePoint(random.nextInt(3) == 0 ? 0x1F600 + random.nextInt(80) // emoji
+                    : LETTERS_BY_FREQUENCY.charAt(letters.sample(random)));
+            default -> word.append(LETTERS_BY_FREQUENCY.charAt(letters.sample(random)));
+        }
+    }
+
+    /**
+     * Returns the prefix of a word with up to the given number of characters, which does not split a surrogate pair.
+     */
+    private static String prefixOf(String word, int length) {
+        int end = Math.min(length, word.length());
+        if (end < word.length() && Character.isHighSurrogate(word.charAt(end - 1))) {
+            end++;
+        }
+        return word.substring(0, end);
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.tsaglam.wordsearch.benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Zipf distribution over the ranks {@code 0} to {@code size - 1}, where the probability of a rank is proportional to
+ * {@code 1 / (rank + 1)^exponent}. An exponent of zero is the uniform distribution, and an exponent of about one matches
+ * the popularity of search queries and words in natural language. Samples are drawn with a binary search over the
+ * precomputed cumulative weights, so sampling is logarithmic in the size and does not allocate.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulativeWeights;
+
+    /**
+     * Creates the distribution.
+     * @param size is the number of ranks.
+     * @param exponent is the skew of the distribution.
+     * @throws IllegalArgumentException if the size is not positive or the exponent is negative.
+     */
+    public ZipfDistribution(int size, double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Size must be positive.");
+        }
+        if (exponent < 0) {
+            throw new IllegalArgumentException("Exponent cannot be negative.");
+        }
+        cumulativeWeights = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulativeWeights[rank] = sum;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     * @param random is the source of randomness, which is not shared between threads.
+     * @return the rank, where low ranks are more likely.
+     */
+    public int sample(SplittableRandom random) {
+        double value = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int index = Arrays.binarySearch(cumulativeWeights, value);
+        return Math.min(index < 0 ? -index - 1 : index, cumulativeWeights.length - 1);
+    }
+
+    /**
+     * Returns the number of ranks.
+     * @return the size of the distribution.
+     */
+    public int size() {
+        return cumulativeWeights.length;
+    }
+}
@@ -0,0 +1,301 @@
+package io.github.tsaglam.wordsearch.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.server.Protocol.Operation;
+import io.github.tsaglam.wordsearch.server.Protocol.Status;
+
+/**
+ * Connection of a client to the {@link DictionaryServer}. The requests are read by the virtual thread of the connection
+ * and answered by one virtual thread each, so pipelined requests are answered concurrently, and a slow query does not
+ * delay the following ones. Responses are written frame by frame under a lock, and the stream is only flushed by the
+ * last of the waiting writers, which batches the responses of pipelined requests into few packets. Writes block while
+ * the client does not read, which only parks the virtual thread of the request, so slow clients are throttled by TCP
+ * flow control without holding platform threads. <b>Thread safety:</b> This class supports concurrent use.
+ */
+/* package-private */ class Connection implements Runnable, AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Socket socket;
+    private final Map<String, SearchableDictionary> dictionaries;
+    private final Consumer<Connection> closeListener;
+    private final DataInputStream input;
+    private final OutputStream output;
+    private final ReentrantLock writeLock;
+    private final Map<Integer, StreamCredits> streams;
+    private final AtomicInteger pendingRequests;
+    private final AtomicBoolean closed;
+
+    /**
+     * Creates the connection.
+     * @param socket is the accepted socket.
+     * @param dictionaries are the dictionaries of the server by name.
+     * @param closeListener is notified once the connection is closed.
+     * @throws IOException if the streams of the socket cannot be opened.
+     */
+    /* package-private */ Connection(Socket socket, Map<String, SearchableDictionary> dictionaries, Consumer<Connection> closeListener)
+            throws IOException {
+        this.socket = socket;
+        this.dictionaries = dictionaries;
+        this.closeListener = closeListener;
+        socket.setTcpNoDelay(true); // flushing is batched explicitly
+        input = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+        output = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+        writeLock = new ReentrantLock();
+        streams = new ConcurrentHashMap<>();
+        pendingRequests = new AtomicInteger();
+        closed = new AtomicBoolean();
+    }
+
+    /**
+     * Reads and dispatches requests until the client disconnects or sends a malformed frame.
+     */
+    @Override
+    public void run() {
+        try (this) {
+            FrameReader frame;
+            while ((frame = FrameReader.read(input)) != null) {
+                dispatch(frame);
+            }
+        } catch (IOException | IllegalArgumentException exception) {
+            // the client disconnected or violated the protocol, either way the connection is closed
+        }
+    }
+
+    /**
+     * Closes the socket and stops all streamed results of the connection.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            try {
+                socket.close();
+            } catch (IOException exception) {
+                // the socket is unusable anyway
+            }
+            streams.values().forEach(StreamCredits::cancel);
+            closeListener.accept(this);
+        }
+    }
+
+    /**
+     * Returns the number of requests that are being answered.
+     * @return the number of pending requests.
+     */
+    /* package-private */ int getPendingRequests() {
+        return pendingRequests.get();
+    }
+
+    private void dispatch(FrameReader frame) throws IOException {
+        int id = frame.readInt();
+        Operation operation = Operation.of(frame.readByte());
+        switch (operation) {
+            case CREDIT -> {
+                int chunks = frame.readInt();
+                if (chunks < 1 || chunks > Protocol.MAXIMUM_CREDITS) {
+                    throw new IllegalArgumentException("Invalid credits: " + chunks);
+                }
+                StreamCredits credits = streams.get(id);
+                if (credits != null) {
+                    credits.grant(chunks);
+                }
+            }
+            case CANCEL -> {
+                StreamCredits credits = streams.remove(id);
+                if (credits != null) { // otherwise, the stream is complete
+                    pendingRequests.decrementAndGet();
+                    credits.cancel();
+                }
+            }
+            default -> {
+                Request request = Request.decode(id, operation, frame);
+                if (pendingRequests.incrementAndGet() > Protocol.MAXIMUM_PENDING_REQUESTS) {
+                    pendingRequests.decrementAndGet();
+                    send(error(id, Status.FAILED, "Too many pending requests."));
+                    return;
+                }
+                StreamCredits credits = operation == Operation.STREAM ? new StreamCredits() : null;
+                if (credits != null && streams.putIfAbsent(id, credits) != null) { // before answering, as credits may arrive early
+                    pendingRequests.decrementAndGet();
+                    send(error(id, Status.INVALID, "Duplicate stream ID: " + id)); // replacing the stream would orphan it
+                    return;
+                }
+                Thread.ofVirtual().name("wordsearch-request-", id).start(() -> answer(request, credits));
+            }
+        }
+    }
+
+    /**
+     * Answers a request. Invalid requests and failed queries are reported to the client, while a failed connection stops
+     * all of its requests. The request stops being pending before its final response is sent, as the client may send the
+     * next request once it received the response. For streams, only the thread that removes the stream completes it, as
+     * the client may cancel it concurrently.
+     */
+    private void answer(Request request, StreamCredits credits) {
+        FrameWriter response = null;
+        try {
+            response = respond(request, credits);
+        } catch (IllegalArgumentException exception) {
+            response = error(request.id(), Status.INVALID, Objects.toString(exception.getMessage(), exception.toString()));
+        } catch (RuntimeException exception) {
+            response = error(request.id(), Status.FAILED, exception.toString());
+        } catch (IOException exception) {
+            close();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (credits == null || streams.remove(request.id(), credits)) {
+                pendingRequests.decrementAndGet();
+            } else {
+                response = null; // cancelled by the client
+            }
+        }
+        if (response != null) {
+            try {
+                send(response);
+            } catch (IOException exception) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Computes the result of a request and sends all but its final response.
+     * @return the final response, or null if the stream was cancelled.
+     */
+    private FrameWriter respond(Request request, StreamCredits credits) throws IOException, InterruptedException {
+        if (request.operation() == Operation.DICTIONARIES) {
+            return sendWords(request.id(), dictionaries.keySet().stream().sorted().iterator(), null);
+        }
+        SearchableDictionary dictionary = dictionaries.get(request.dictionary());
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Unknown dictionary: " + request.dictionary());
+        }
+        String pattern = request.pattern();
+        return switch (request.operation()) {
+            case COUNT -> {
+                int count = dictionary.countMatchingWords(pattern);
+                yield new FrameWriter().writeInt(request.id()).writeByte(Status.COUNT.ordinal()).writeInt(count);
+            }
+            case STREAM -> {
+                try (Stream<String> words = dictionary.streamMatchingWords(pattern)) {
+                    yield sendWords(request.id(), words.iterator(), credits);
+                }
+            }
+            case FIND -> sendWords(request.id(), dictionary.findMatchingWords(pattern).iterator(), null);
+            case FIND_AFTER -> {
+                List<String> words = dictionary.findMatchingWordsAfter(pattern, request.cursor(), request.number());
+                yield sendWords(request.id(), words.iterator(), null);
+            }
+            case FUZZY -> sendWords(request.id(), dictionary.findFuzzyMatches(pattern, request.number()).iterator(), null);
+            case WILDCARD -> sendWords(request.id(), dictionary.findWildcardMatches(pattern).iterator(), null);
+            case CONTAINING -> sendWords(request.id(), dictionary.findWordsContaining(pattern).iterator(), null);
+            default -> throw new IllegalStateException("Unexpected operation: " + request.operation());
+        };
+    }
+
+    /**
+     * Sends words as chunks, except for the last chunk, which is returned. For streamed results, each chunk waits for a
+     * credit, and the words are only computed for the chunks that are sent, so the speed of the client limits the
+     * traversal of the dictionary.
+     * @return the last chunk, or null if the stream was cancelled.
+     */
+    private FrameWriter sendWords(int id, Iterator<String> words, StreamCredits credits) throws IOException, InterruptedException {
+        while (true) {
+            if (credits != null && !credits.acquire()) {
+                return null; // cancelled by the client
+            }
+            FrameWriter chunk = new FrameWriter().writeInt(id).writeByte(Status.CHUNK.ordinal());
+            while (chunk.bodySize() < Protocol.MAXIMUM_CHUNK_SIZE && words.hasNext()) {
+                chunk.writeString(words.next());
+            }
+            if (!words.hasNext()) {
+                chunk.setByte(Integer.BYTES, Status.LAST_CHUNK.ordinal());
+                return chunk;
+            }
+            send(chunk);
+        }
+    }
+
+    private void send(FrameWriter frame) throws IOException {
+        writeLock.lock();
+        try {
+            frame.writeTo(output);
+            if (!writeLock.hasQueuedThreads()) {
+                output.flush(); // otherwise, the next writer flushes
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static FrameWriter error(int id, Status status, String message) {
+        return new FrameWriter().writeInt(id).writeByte(status.ordinal()).writeString(message);
+    }
+
+    /**
+     * Decoded parameters of a request, where unused parameters are null or zero.
+     */
+    private record Request(int id, Operation operation, String dictionary, String pattern, String cursor, int number) {
+
+        static Request decode(int id, Operation operation, FrameReader frame) {
+            if (operation == Operation.DICTIONARIES) {
+                return new Request(id, operation, null, null, null, 0);
+            }
+            String dictionary = frame.readString();
+            String pattern = frame.readString();
+            return switch (operation) {
+                case FIND_AFTER -> new Request(id, operation, dictionary, pattern, frame.readString(), frame.readInt());
+                case FUZZY -> new Request(id, operation, dictionary, pattern, null, frame.readInt());
+                default -> new Request(id, operation, dictionary, pattern, null, 0);
+            };
+        }
+    }
+
+    /**
+     * Credits of a streamed result, i.e., the number of chunks the server may send before the client consumed them.
+     */
+    private static final class StreamCredits {
+        private final Semaphore credits = new Semaphore(Protocol.INITIAL_CREDITS);
+        private volatile boolean cancelled;
+
+        void grant(int chunks) {
+            int granted = Math.min(chunks, Protocol.MAXIMUM_CREDITS - credits.availablePermits()); // bounds the credits
+            if (granted > 0) {
+                credits.release(granted);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            credits.release(); // wakes up a waiting sender
+        }
+
+        /**
+         * Waits for a credit and consumes it.
+         * @return false if the stream was cancelled.
+         */
+        boolean acquire() throws InterruptedException {
+            credits.acquire();
+            return !cancelled;
+        }
+    }
+}
@@ -0,0 +1,466 @@
+package io.github.tsaglam.wordsearch.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.server.Protocol.Operation;
+import io.github.tsaglam.wordsearch.server.Protocol.Status;
+
+/**
+ * Client of a {@link DictionaryServer} over a single TCP connection. All queries are asynchronous and pipelined, i.e.,
+ * they are sent without waiting for the previous ones, and their futures complete in the order the server answers them.
+ * At most {@value Protocol#MAXIMUM_PENDING_REQUESTS} requests are pending at a time, further queries block until
+ * previous ones are answered. Queries that the server rejects complete with an {@link IllegalArgumentException}, e.g.
+ * for unknown dictionaries, and queries that fail on the server or are pending when the connection fails complete with
+ * an {@link IllegalStateException} or an {@link UncheckedIOException}. For code that expects a dictionary,
+ * {@link #getDictionary(String)} provides a blocking view. <b>Thread safety:</b> This class supports concurrent use.
+ */
+public final class DictionaryClient implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Socket socket;
+    private final DataInputStream input;
+    private final OutputStream output;
+    private final ReentrantLock writeLock;
+    private final Map<Integer, PendingRequest> pendingRequests;
+    private final Semaphore pipeline; // permits for pending requests, which bounds them to the limit of the server
+    private final AtomicInteger nextId;
+    private volatile RuntimeException failure; // set once the connection failed
+
+    private DictionaryClient(Socket socket) throws IOException {
+        this.socket = socket;
+        socket.setTcpNoDelay(true); // flushing is batched explicitly
+        input = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+        output = new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE);
+        writeLock = new ReentrantLock();
+        pendingRequests = new ConcurrentHashMap<>();
+        pipeline = new Semaphore(Protocol.MAXIMUM_PENDING_REQUESTS);
+        nextId = new AtomicInteger();
+    }
+
+    /**
+     * Connects to a server.
+     * @param address is the address of the server.
+     * @return the connected client.
+     * @throws IllegalArgumentException if the address is null.
+     * @throws IOException if the connection cannot be established.
+     */
+    public static DictionaryClient connect(InetSocketAddress address) throws IOException {
+        if (address == null) {
+            throw new IllegalArgumentException("Address cannot be null.");
+        }
+        DictionaryClient client = new DictionaryClient(new Socket(address.getAddress(), address.getPort()));
+        Thread.ofVirtual().name("wordsearch-client-" + client.socket.getLocalPort()).start(client::receiveResponses);
+        return client;
+    }
+
+    /**
+     * Returns a blocking view of a dictionary of the server, which implements the queries with this client.
+     * @param name is the name of the dictionary.
+     * @return the view, which fails its queries with an {@link IllegalArgumentException} if the dictionary is unknown.
+     * @throws IllegalArgumentException if the name is null.
+     */
+    public SearchableDictionary getDictionary(String name) {
+        checkNotNull(name, "Dictionary");
+        return new RemoteDictionary(this, name);
+    }
+
+    /**
+     * Lists the names of the dictionaries of the server.
+     * @return the future of the names in lexicographic order.
+     */
+    public CompletableFuture<List<String>> listDictionaries() {
+        return send(new WordsRequest(), Operation.DICTIONARIES, frame -> {
+            // no parameters
+        }).result;
+    }
+
+    /**
+     * Searches a dictionary for all words that have the pattern as prefix.
+     * @param dictionary is the name of the dictionary.
+     * @param pattern specifies the search pattern.
+     * @return the future of the matching words.
+     * @throws IllegalArgumentException if the dictionary or the pattern is null.
+     * @see SearchableDictionary#findMatchingWords(String)
+     */
+    public CompletableFuture<List<String>> findMatchingWords(String dictionary, String pattern) {
+        return findWords(Operation.FIND, dictionary, pattern);
+    }
+
+    /**
+     * Counts the words in a dictionary that have the pattern as prefix, without transferring them.
+     * @param dictionary is the name of the dictionary.
+     * @param pattern specifies the search pattern.
+     * @return the future of the number of matching words.
+     * @throws IllegalArgumentException if the dictionary or the pattern is null.
+     * @see SearchableDictionary#countMatchingWords(String)
+     */
+    public CompletableFuture<Integer> countMatchingWords(String dictionary, String pattern) {
+        checkQuery(dictionary, pattern);
+        return send(new CountRequest(), Operation.COUNT, frame -> frame.writeString(dictionary).writeString(pattern)).result;
+    }
+
+    /**
+     * Searches a dictionary for the next page of words that have the pattern as prefix and are greater than a cursor.
+     * @param dictionary is the name of the dictionary.
+     * @param pattern specifies the search pattern.
+     * @param cursor specifies the exclusive lower bound of the words to return.
+     * @param limit specifies the maximum number of words to return.
+     * @return the future of the matching words in lexicographic order.
+     * @throws IllegalArgumentException if the dictionary, the pattern, or the cursor is null.
+     * @see SearchableDictionary#findMatchingWordsAfter(String, String, int)
+     */
+    public CompletableFuture<List<String>> findMatchingWordsAfter(String dictionary, String pattern, String cursor, int limit) {
+        checkQuery(dictionary, pattern);
+        checkNotNull(cursor, "Cursor");
+        return send(new WordsRequest(), Operation.FIND_AFTER,
+                frame -> frame.writeString(dictionary).writeString(pattern).writeString(cursor).writeInt(limit)).result;
+    }
+
+    /**
+     * Searches a dictionary for all words that start with a prefix within a maximum edit distance of the pattern.
+     * @param dictionary is the name of the dictionary.
+     * @param pattern specifies the search pattern.
+     * @param maxEdits specifies the maximum edit distance.
+     * @return the future of the matching words.
+     * @throws IllegalArgumentException if the dictionary or the pattern is null.
+     * @see SearchableDictionary#findFuzzyMatches(String, int)
+     */
+    public CompletableFuture<List<String>> findFuzzyMatches(String dictionary, String pattern, int maxEdits) {
+        checkQuery(dictionary, pattern);
+        return send(new WordsRequest(), Operation.FUZZY, frame -> frame.writeString(dictionary).writeString(pattern).writeInt(maxEdits)).result;
+    }
+
+    /**
+     * Searches a dictionary for all words that match a wildcard pattern as a whole.
+     * @param dictionary is the name of the dictionary.
+     * @param pattern specifies the wildcard pattern.
+     * @return the future of the matching words.
+     * @throws IllegalArgumentException if the dictionary or the pattern is null.
+     * @see SearchableDictionary#findWildcardMatches(String)
+     */
+    public CompletableFuture<List<String>> findWildcardMatches(String dictionary, String pattern) {
+        return findWords(Operation.WILDCARD, dictionary, pattern);
+    }
+
+    /**
+     * Searches a dictionary for all words that contain a fragment.
+     * @param dictionary is the name of the dictionary.
+     * @param fragment specifies the fragment to search for.
+     * @return the future of the matching words.
+     * @throws IllegalArgumentException if the dictionary or the fragment is null.
+     * @see SearchableDictionary#findWordsContaining(String)
+     */
+    public CompletableFuture<List<String>> findWordsContaining(String dictionary, String fragment) {
+        return findWords(Operation.CONTAINING, dictionary, fragment);
+    }
+
+    /**
+     * Lazily streams all words in a dictionary that have the pattern as prefix, in the order of
+     * {@link SearchableDictionary#streamMatchingWords(String)}. The server only sends a few chunks ahead of the consumer,
+     * so arbitrarily large results can be consumed with bounded memory, and the server stops searching when the stream
+     * is closed early. The stream must be closed, e.g. with a try-with-resources statement, unless it is fully consumed.
+     * @param dictionary is the name of the dictionary.
+     * @param pattern specifies the search pattern.
+     * @return the blocking stream of the matching words.
+     * @throws IllegalArgumentException if the dictionary or the pattern is null.
+     */
+    public Stream<String> streamMatchingWords(String dictionary, String pattern) {
+        checkQuery(dictionary, pattern);
+        WordStream words = send(new WordStream(), Operation.STREAM, frame -> frame.writeString(dictionary).writeString(pattern));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(words, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(words::cancel);
+    }
+
+    /**
+     * Closes the connection, which fails all pending queries.
+     */
+    @Override
+    public void close() {
+        try {
+            socket.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
+    private CompletableFuture<List<String>> findWords(Operation operation, String dictionary, String pattern) {
+        checkQuery(dictionary, pattern);
+        return send(new WordsRequest(), operation, frame -> frame.writeString(dictionary).writeString(pattern)).result;
+    }
+
+    /**
+     * Sends a request once the pipeline has room for it. If the request cannot be sent, it fails instead.
+     */
+    private <T extends PendingRequest> T send(T request, Operation operation, Consumer<FrameWriter> parameters) {
+        pipeline.acquireUninterruptibly();
+        request.id = nextId.getAndIncrement();
+        pendingRequests.put(request.id, request);
+        if (failure != null) { // the responses are no longer received
+            complete(request, failure);
+            return request;
+        }
+        FrameWriter frame = new FrameWriter().writeInt(request.id).writeByte(operation.ordinal());
+        parameters.accept(frame);
+        try {
+            write(frame);
+        } catch (IOException exception) {
+            complete(request, new UncheckedIOException(exception));
+        }
+        return request;
+    }
+
+    private void write(FrameWriter frame) throws IOException {
+        writeLock.lock();
+        try {
+            frame.writeTo(output);
+            if (!writeLock.hasQueuedThreads()) {
+                output.flush(); // otherwise, the next writer flushes
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a pending request and fails it if a failure is given. Only the caller that actually removes the request
+     * releases its permit, as a response may arrive while the request is cancelled.
+     */
+    private void complete(PendingRequest request, RuntimeException failure) {
+        if (pendingRequests.remove(request.id, request)) {
+            if (failure != null) {
+                request.fail(failure);
+            }
+            pipeline.release();
+        }
+    }
+
+    /**
+     * Receives the responses until the connection is closed, and then fails the requests that are still pending.
+     */
+    private void receiveResponses() {
+        RuntimeException cause;
+        try (socket) {
+            FrameReader frame;
+            while ((frame = FrameReader.read(input)) != null) {
+                PendingRequest request = pendingRequests.get(frame.readInt());
+                Status status = Status.of(frame.readByte());
+                if (request != null) { // otherwise, the stream was cancelled
+                    receive(request, status, frame);
+                }
+            }
+            cause = new UncheckedIOException(new IOException("Connection closed by the server."));
+        } catch (IOException exception) {
+            cause = new UncheckedIOException(exception);
+        } catch (IllegalArgumentException exception) {
+            cause = new IllegalStateException("Invalid response from the server.", exception);
+        }
+        failure = cause; // before failing the pending requests, so that later requests fail on their own
+        for (PendingRequest request : pendingRequests.values()) {
+            complete(request, cause);
+        }
+    }
+
+    private void receive(PendingRequest request, Status status, FrameReader frame) {
+        switch (status) {
+            case INVALID -> complete(request, new IllegalArgumentException(frame.readString()));
+            case FAILED -> complete(request, new IllegalStateException(frame.readString()));
+            default -> {
+                if (request.receive(status, frame)) {
+                    complete(request, null);
+                }
+            }
+        }
+    }
+
+    private static void checkQuery(String dictionary, String pattern) {
+        checkNotNull(dictionary, "Dictionary");
+        checkNotNull(pattern, "Pattern");
+    }
+
+    private static void checkNotNull(String argument, String name) {
+        if (argument == null) {
+            throw new IllegalArgumentException(name + " cannot be null.");
+        }
+    }
+
+    private static List<String> readWords(FrameReader frame) {
+        List<String> words = new ArrayList<>();
+        while (frame.hasRemaining()) {
+            words.add(frame.readString());
+        }
+        return words;
+    }
+
+    /**
+     * Request that waits for its response.
+     */
+    private abstract static class PendingRequest {
+        int id;
+
+        /**
+         * Processes a response.
+         * @return true if the request is complete.
+         */
+        abstract boolean receive(Status status, FrameReader frame);
+
+        abstract void fail(RuntimeException failure);
+    }
+
+    /**
+     * Request whose result is a list of words, which are collected from all chunks.
+     */
+    private static final class WordsRequest extends PendingRequest {
+        final CompletableFuture<List<String>> result = new CompletableFuture<>();
+        private List<String> words = List.of();
+
+        @Override
+        boolean receive(Status status, FrameReader frame) {
+            List<String> chunk = readWords(frame);
+            if (words.isEmpty()) {
+                words = chunk; // most results fit into a single chunk
+            } else {
+                words.addAll(chunk);
+            }
+            if (status == Status.LAST_CHUNK) {
+                result.complete(words);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        void fail(RuntimeException failure) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Request whose result is a number.
+     */
+    private static final class CountRequest extends PendingRequest {
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        @Override
+        boolean receive(Status status, FrameReader frame) {
+            result.complete(frame.readInt());
+            return true;
+        }
+
+        @Override
+        void fail(RuntimeException failure) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    /**
+     * Streamed request, whose chunks are queued until the consumer takes them. Taking a chunk grants the server a credit
+     * for the next one, so at most {@value Protocol#INITIAL_CREDITS} chunks are queued.
+     */
+    private final class WordStream extends PendingRequest implements Iterator<String> {
+        private final BlockingQueue<Chunk> chunks = new LinkedBlockingQueue<>();
+        private Iterator<String> current = Collections.emptyIterator();
+        private boolean last;
+
+        @Override
+        boolean receive(Status status, FrameReader frame) {
+            chunks.add(new Chunk(readWords(frame), status == Status.LAST_CHUNK, null));
+            return status == Status.LAST_CHUNK;
+        }
+
+        @Override
+        void fail(RuntimeException failure) {
+            chunks.add(new Chunk(List.of(), true, failure));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && !last) {
+                Chunk chunk = take();
+                if (chunk.failure() != null) {
+                    last = true;
+                    throw chunk.failure();
+                }
+                current = chunk.words().iterator();
+                last = chunk.last();
+                if (!last) {
+                    grantCredit();
+                }
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+
+        /**
+         * Stops the stream if it is not complete yet.
+         */
+        void cancel() {
+            if (!last && pendingRequests.containsKey(id)) {
+                last = true;
+                complete(this, null);
+                try {
+                    write(new FrameWriter().writeInt(id).writeByte(Operation.CANCEL.ordinal()));
+                } catch (IOException exception) {
+                    // the connection failed, which stops the stream on the server as well
+                }
+            }
+        }
+
+        private Chunk take() {
+            try {
+                return chunks.take();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new IllegalStateException("Interrupted while waiting for words.", exception);
+            }
+        }
+
+        private void grantCredit() {
+            try {
+                write(new FrameWriter().writeInt(id).writeByte(Operation.CREDIT.ordinal()).writeInt(1));
+            } catch (IOException exception) {
+                complete(this, new UncheckedIOException(exception));
+            }
+        }
+    }
+
+    /**
+     * Received chunk of a stream, or its failure.
+     */
+    private record Chunk(List<String> words, boolean last, RuntimeException failure) {
+    }
+}
@@ -0,0 +1,200 @@
+package io.github.tsaglam.wordsearch.server;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.System.Logger;
+import java.lang.System.Logger.Level;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.mapped.MappedWordSearch;
+import io.github.tsaglam.wordsearch.tree.ParallelRadixTree;
+
+/**
+ * Server that hosts named dictionaries for multiple clients, so that services share a single copy of each dictionary
+ * instead of paying its memory and build time each. Clients connect with the {@link DictionaryClient} and send requests
+ * in the binary {@link Protocol} over TCP. Each connection is served by a virtual thread, and each request by another
+ * one, so the server handles many connections and pipelined requests with blocking code, while the queries themselves
+ * run on the common fork-join pool like in-process calls. Large results are streamed in chunks, see
+ * {@link DictionaryClient#streamMatchingWords(String, String)}. <b>Thread safety:</b> This class supports concurrent use,
+ * the hosted dictionaries must support concurrent queries.
+ */
+public final class DictionaryServer implements AutoCloseable {
+
+    private static final String DICTIONARY_FILE_EXTENSION = ".pwsd";
+    private static final String PORT_ARGUMENT = "port";
+    private static final int DEFAULT_PORT = 7070;
+    private static final long MINIMUM_BACKOFF_MILLIS = 10;
+    private static final long MAXIMUM_BACKOFF_MILLIS = 1000;
+    private static final Logger LOGGER = System.getLogger(DictionaryServer.class.getName());
+
+    private final ServerSocket serverSocket;
+    private final Map<String, SearchableDictionary> dictionaries;
+    private final Set<Connection> connections;
+
+    private DictionaryServer(ServerSocket serverSocket, Map<String, SearchableDictionary> dictionaries) {
+        this.serverSocket = serverSocket;
+        this.dictionaries = dictionaries;
+        connections = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Starts a server that accepts connections in the background until it is closed. The background thread keeps the JVM
+     * alive while the server is running.
+     * @param address is the local address to listen on, where port zero chooses a free port.
+     * @param dictionaries are the dictionaries to host by name.
+     * @return the running server.
+     * @throws IllegalArgumentException if the address, the dictionaries, or any of their names or values are null.
+     * @throws IOException if the server cannot listen on the address.
+     */
+    public static DictionaryServer start(InetSocketAddress address, Map<String, ? extends SearchableDictionary> dictionaries) throws IOException {
+        if (address == null || dictionaries == null
+                || dictionaries.entrySet().stream().anyMatch(it -> it.getKey() == null || it.getValue() == null)) {
+            throw new IllegalArgumentException("Address and dictionaries cannot be null.");
+        }
+        ServerSocket serverSocket = new ServerSocket();
+        serverSocket.bind(address);
+        DictionaryServer server = new DictionaryServer(serverSocket, Map.copyOf(dictionaries));
+        Thread.ofPlatform().name("wordsearch-server-" + server.getAddress().getPort()).start(server::acceptConnections); // keeps the JVM alive
+        return server;
+    }
+
+    /**
+     * Returns the address the server listens on.
+     * @return the address, including the chosen port.
+     */
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+    }
+
+    /**
+     * Returns the names of the hosted dictionaries.
+     * @return the unmodifiable set of names.
+     */
+    public Set<String> getDictionaryNames() {
+        return dictionaries.keySet();
+    }
+
+    /**
+     * Returns the number of open connections.
+     * @return the number of connected clients.
+     */
+    public int getConnections() {
+        return connections.size();
+    }
+
+    /**
+     * Returns the number of requests that are being answered over all connections, including stalled streams.
+     * @return the number of pending requests.
+     */
+    public int getPendingRequests() {
+        return connections.stream().mapToInt(Connection::getPendingRequests).sum();
+    }
+
+    /**
+     * Stops accepting connections and closes all open connections, which fails their pending requests.
+     */
+    @Override
+    public void close() {
+        try {
+            serverSocket.close();
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        } finally {
+            connections.forEach(Connection::close);
+        }
+    }
+
+    /**
+     * Accepts connections until the server is closed. Failures to accept, e.g. when the process runs out of file
+     * descriptors, are logged and retried with an exponential backoff, which gives the open connections time to finish.
+     */
+    private void acceptConnections() {
+        long backoffMillis = 0;
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+                backoffMillis = 0;
+            } catch (IOException exception) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                backoffMillis = Math.clamp(2 * backoffMillis, MINIMUM_BACKOFF_MILLIS, MAXIMUM_BACKOFF_MILLIS);
+                LOGGER.log(Level.WARNING, "Cannot accept connections, retrying in " + backoffMillis + " ms", exception);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            serve(socket);
+        }
+    }
+
+    /**
+     * Serves an accepted socket on its own virtual thread, or closes it if the connection cannot be established.
+     */
+    private void serve(Socket socket) {
+        try {
+            Connection connection = new Connection(socket, dictionaries, connections::remove);
+            connections.add(connection);
+            if (serverSocket.isClosed()) {
+                connection.close(); // the server was closed concurrently and may have missed the connection
+                return;
+            }
+            Thread.ofVirtual().name("wordsearch-connection-" + socket.getPort()).start(connection);
+        } catch (IOException exception) {
+            LOGGER.log(Level.DEBUG, "Connection failed before it was established", exception);
+            try {
+                socket.close();
+            } catch (IOException closeException) {
+                exception.addSuppressed(closeException);
+            }
+        }
+    }
+
+    /**
+     * Starts a server from the command line. The arguments are pairs of a name and a file, e.g.
+     * {@code cities=cities.txt names=names.pwsd port=7070}. Dictionary files with the extension
+     * {@value #DICTIONARY_FILE_EXTENSION} are mapped into memory, which starts instantly and shares the pages between
+     * processes, and other files are read with one word per line into a {@link ParallelRadixTree}. The port is
+     * {@value #DEFAULT_PORT} by default.
+     * @param args are the dictionaries and the optional port.
+     * @throws IOException if a file cannot be read or the server cannot listen on the port.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        Map<String, SearchableDictionary> dictionaries = new LinkedHashMap<>();
+        for (String argument : args) {
+            String[] keyValue = argument.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Arguments must be key=value pairs: " + argument);
+            }
+            if (keyValue[0].equals(PORT_ARGUMENT)) {
+                port = Integer.parseInt(keyValue[1]);
+            } else {
+                dictionaries.put(keyValue[0], load(Path.of(keyValue[1])));
+            }
+        }
+        DictionaryServer server = start(new InetSocketAddress(port), dictionaries);
+        System.out.println("Serving " + String.join(", ", dictionaries.keySet()) + " on " + server.getAddress());
+    }
+
+    private static SearchableDictionary load(Path file) throws IOException {
+        if (file.toString().endsWith(DICTIONARY_FILE_EXTENSION)) {
+            return MappedWordSearch.open(file);
+        }
+        return new ParallelRadixTree(Files.readAllLines(file));
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.tsaglam.wordsearch.server;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decoder of a single received frame of the {@link Protocol}. <b>Thread safety:</b> This class is not thread-safe, each
+ * frame is decoded by a single thread.
+ * @see FrameWriter
+ */
+/* package-private */ class FrameReader {
+
+    private static final int VARIABLE_LENGTH_BITS = 7;
+    private static final int VARIABLE_LENGTH_MASK = (1 << VARIABLE_LENGTH_BITS) - 1;
+    private static final int MAXIMUM_VARIABLE_LENGTH_SHIFT = 28;
+
+    private final byte[] bytes;
+    private int position;
+
+    private FrameReader(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /**
+     * Receives the next frame.
+     * @param input is the stream of the connection.
+     * @return the frame, or null if the stream ended before the frame.
+     * @throws IOException if the frame cannot be read, is truncated, or exceeds the maximum frame size.
+     */
+    /* package-private */ static FrameReader read(DataInputStream input) throws IOException {
+        int length;
+        try {
+            length = input.readInt();
+        } catch (EOFException exception) {
+            return null; // end of the stream between two frames
+        }
+        if (length < 0 || length > Protocol.MAXIMUM_FRAME_SIZE) {
+            throw new IOException("Invalid frame size: " + length);
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new FrameReader(bytes);
+    }
+
+    /* package-private */ boolean hasRemaining() {
+        return position < bytes.length;
+    }
+
+    /* package-private */ byte readByte() {
+        require(1);
+        return bytes[position++];
+    }
+
+    /* package-private */ int readInt() {
+        require(Integer.BYTES);
+        int value = (bytes[position] & 0xFF) << 24 | (bytes[position + 1] & 0xFF) << 16 | (bytes[position + 2] & 0xFF) << 8
+                | bytes[position + 3] & 0xFF;
+        position += Integer.BYTES;
+        return value;
+    }
+
+    /**
+     * Reads a non-negative integer that was written by {@link FrameWriter#writeVariableLength(int)}.
+     */
+    /* package-private */ int readVariableLength() {
+        int value = 0;
+        for (int shift = 0; shift <= MAXIMUM_VARIABLE_LENGTH_SHIFT; shift += VARIABLE_LENGTH_BITS) {
+            byte next = readByte();
+            value |= (next & VARIABLE_LENGTH_MASK) << shift;
+            if (next >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed frame: invalid length.");
+    }
+
+    /* package-private */ String readString() {
+        int length = readVariableLength();
+        require(length);
+        String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private void require(int length) {
+        if (length > bytes.length - position) {
+            throw new IllegalArgumentException("Malformed frame: truncated.");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.tsaglam.wordsearch.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encoder of a single frame of the {@link Protocol}, which grows as needed. The length of the frame is written when the
+ * frame is sent, so the body can be encoded without knowing its size in advance. <b>Thread safety:</b> This class is not
+ * thread-safe, each frame is encoded by a single thread.
+ */
+/* package-private */ class FrameWriter {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int VARIABLE_LENGTH_BITS = 7;
+    private static final int VARIABLE_LENGTH_MASK = (1 << VARIABLE_LENGTH_BITS) - 1;
+
+    private byte[] bytes;
+    private int size;
+
+    /**
+     * Creates an empty frame.
+     */
+    /* package-private */ FrameWriter() {
+        bytes = new byte[INITIAL_CAPACITY];
+        size = Integer.BYTES; // the length, which is written when the frame is sent
+    }
+
+    /**
+     * Returns the size of the body.
+     * @return the size in bytes.
+     */
+    /* package-private */ int bodySize() {
+        return size - Integer.BYTES;
+    }
+
+    /**
+     * Overwrites a byte of the body that was written before, e.g. a status that is only known after the rest of the body.
+     */
+    /* package-private */ void setByte(int bodyPosition, int value) {
+        bytes[Integer.BYTES + bodyPosition] = (byte) value;
+    }
+
+    /* package-private */ FrameWriter writeByte(int value) {
+        ensureCapacity(1);
+        bytes[size++] = (byte) value;
+        return this;
+    }
+
+    /* package-private */ FrameWriter writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        putInt(size, value);
+        size += Integer.BYTES;
+        return this;
+    }
+
+    /**
+     * Writes a non-negative integer in as few bytes as possible, seven bits per byte, where the highest bit marks that
+     * further bytes follow.
+     */
+    /* package-private */ FrameWriter writeVariableLength(int value) {
+        ensureCapacity(5);
+        int remaining = value;
+        while (remaining > VARIABLE_LENGTH_MASK) {
+            bytes[size++] = (byte) ((remaining & VARIABLE_LENGTH_MASK) | (VARIABLE_LENGTH_MASK + 1));
+            remaining >>>= VARIABLE_LENGTH_BITS;
+        }
+        bytes[size++] = (byte) remaining;
+        return this;
+    }
+
+    /**
+     * Writes a string as UTF-8 with its length. Unpaired surrogates cannot be encoded and are replaced by question marks.
+     */
+    /* package-private */ FrameWriter writeString(String value) {
+        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+        writeVariableLength(encoded.length);
+        ensureCapacity(encoded.length);
+        System.arraycopy(encoded, 0, bytes, size, encoded.length);
+        size += encoded.length;
+        return this;
+    }
+
+    /**
+     * Sends the frame, i.e., its length and its body.
+     * @param output is the stream of the connection, which is not flushed.
+     * @throws IOException if the frame cannot be written.
+     */
+    /* package-private */ void writeTo(OutputStream output) throws IOException {
+        putInt(0, bodySize());
+        output.write(bytes, 0, size);
+    }
+
+    private void putInt(int position, int value) {
+        bytes[position] = (byte) (value >>> 24);
+        bytes[position + 1] = (byte) (value >>> 16);
+        bytes[position + 2] = (byte) (value >>> 8);
+        bytes[position + 3] = (byte) value;
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (size + additionalBytes > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, size + additionalBytes));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.tsaglam.wordsearch.server;
+
+/**
+ * Binary protocol between the {@link DictionaryServer} and the {@link DictionaryClient}. Both directions exchange frames,
+ * which consist of their length as an {@code int} and the body. The body of a request starts with the request ID, which
+ * the client chooses, and the {@link Operation}, followed by its parameters. The body of a response starts with the ID
+ * of its request and the {@link Status}, followed by the result. Requests are pipelined: A client may send further
+ * requests before the previous ones are answered, and the server answers them concurrently and thus in any order.
+ * <p>
+ * Lists of words are sent as a sequence of chunks of about {@value #MAXIMUM_CHUNK_SIZE} bytes, so large results do not
+ * have to be buffered as a whole. Chunks of different requests may interleave. Streamed results additionally use credit
+ * based flow control: The server sends at most {@value #INITIAL_CREDITS} chunks ahead, and the client grants a further
+ * chunk for each chunk that it consumed, so a slow consumer slows down the server instead of filling its memory. All
+ * integers are big-endian, and strings are encoded as UTF-8 with their byte length as a variable-length integer.
+ */
+/* package-private */ final class Protocol {
+
+    /**
+     * Maximum size of a frame body in bytes. Larger requests are rejected, and the connection is closed.
+     */
+    static final int MAXIMUM_FRAME_SIZE = 1 << 20;
+
+    /**
+     * Size of the words of a chunk in bytes, after which the chunk is sent.
+     */
+    static final int MAXIMUM_CHUNK_SIZE = 1 << 15;
+
+    /**
+     * Number of chunks of a streamed result that the server sends before it waits for credits.
+     */
+    static final int INITIAL_CREDITS = 4;
+
+    /**
+     * Maximum number of chunks that a single credit grants, which bounds the credits of a stream.
+     */
+    static final int MAXIMUM_CREDITS = 1 << 16;
+
+    /**
+     * Maximum number of requests of a connection that are answered concurrently. Further requests fail until previous
+     * ones are answered, so clients should limit their pipelining to this depth.
+     */
+    static final int MAXIMUM_PENDING_REQUESTS = 256;
+
+    private Protocol() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Operations of requests, which are encoded by their ordinal.
+     */
+    enum Operation {
+        /**
+         * Lists the names of the dictionaries. Parameters: none. Result: chunks.
+         */
+        DICTIONARIES,
+        /**
+         * {@code findMatchingWords}. Parameters: dictionary, pattern. Result: chunks.
+         */
+        FIND,
+        /**
+         * {@code streamMatchingWords} with flow control. Parameters: dictionary, pattern. Result: chunks.
+         */
+        STREAM,
+        /**
+         * {@code countMatchingWords}. Parameters: dictionary, pattern. Result: count.
+         */
+        COUNT,
+        /**
+         * {@code findMatchingWordsAfter}. Parameters: dictionary, pattern, cursor, limit. Result: chunks.
+         */
+        FIND_AFTER,
+        /**
+         * {@code findFuzzyMatches}. Parameters: dictionary, pattern, maximum edits. Result: chunks.
+         */
+        FUZZY,
+        /**
+         * {@code findWildcardMatches}. Parameters: dictionary, pattern. Result: chunks.
+         */
+        WILDCARD,
+        /**
+         * {@code findWordsContaining}. Parameters: dictionary, fragment. Result: chunks.
+         */
+        CONTAINING,
+        /**
+         * Grants further chunks to a streamed result. Parameters: number of chunks. No response.
+         */
+        CREDIT,
+        /**
+         * Stops a streamed result. Parameters: none. No response.
+         */
+        CANCEL;
+
+        private static final Operation[] VALUES = values();
+
+        static Operation of(byte ordinal) {
+            if (ordinal < 0 || ordinal >= VALUES.length) {
+                throw new IllegalArgumentException("Unknown operation: " + ordinal);
+            }
+            return VALUES[ordinal];
+        }
+    }
+
+    /**
+     * Statuses of responses, which are encoded by their ordinal.
+     */
+    enum Status {
+        /**
+         * A chunk of words that is followed by further chunks. Result: words until the end of the frame.
+         */
+        CHUNK,
+        /**
+         * The last chunk of words. Result: words until the end of the frame.
+         */
+        LAST_CHUNK,
+        /**
+         * A number. Result: the number as {@code int}.
+         */
+        COUNT,
+        /**
+         * The request was invalid, e.g. the dictionary is unknown. Result: message.
+         */
+        INVALID,
+        /**
+         * The request failed on the server. Result: message.
+         */
+        FAILED;
+
+        private static final Status[] VALUES = values();
+
+        static Status of(byte ordinal) {
+            if (ordinal < 0 || ordinal >= VALUES.length) {
+                throw new IllegalArgumentException("Unknown status: " + ordinal);
+            }
+            return VALUES[ordinal];
+        }
+    }
+}
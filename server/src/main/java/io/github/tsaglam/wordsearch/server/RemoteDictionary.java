@@ -0,0 +1,116 @@
+package io.github.tsaglam.wordsearch.server;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Blocking view of a dictionary of a {@link DictionaryServer}, which sends each query with a {@link DictionaryClient}
+ * and waits for its result. Batches of patterns are pipelined, so they only wait for the slowest pattern instead of the
+ * sum of the round trips. Failures of the server or the connection are thrown as unchecked exceptions.
+ * <b>Thread safety:</b> This class supports concurrent use, as the client does.
+ */
+/* package-private */ class RemoteDictionary implements SearchableDictionary {
+
+    private final DictionaryClient client;
+    private final String name;
+
+    /**
+     * Creates the view.
+     * @param client is the client of the server.
+     * @param name is the name of the dictionary on the server.
+     */
+    /* package-private */ RemoteDictionary(DictionaryClient client, String name) {
+        this.client = client;
+        this.name = name;
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        return join(client.findMatchingWords(name, pattern));
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        return join(client.countMatchingWords(name, pattern));
+    }
+
+    /**
+     * {@inheritDoc} The stream is transferred lazily and must be closed unless it is fully consumed.
+     */
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        return client.streamMatchingWords(name, pattern);
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        SearchableDictionary.checkPage(offset, limit);
+        try (Stream<String> words = streamMatchingWords(pattern)) { // stops the server after the page
+            return words.skip(offset).limit(limit).toList();
+        }
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        return join(client.findMatchingWordsAfter(name, pattern, cursor, limit));
+    }
+
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        Map<String, CompletableFuture<List<String>>> futures = new HashMap<>();
+        for (String pattern : SearchableDictionary.sortedPatterns(patterns)) {
+            futures.put(pattern, client.findMatchingWords(name, pattern)); // sent before any result is awaited
+        }
+        Map<String, List<String>> results = new HashMap<>();
+        futures.forEach((pattern, future) -> results.put(pattern, join(future)));
+        return results;
+    }
+
+    @Override
+    public List<String> findFuzzyMatches(String pattern, int maxEdits) {
+        return join(client.findFuzzyMatches(name, pattern, maxEdits));
+    }
+
+    @Override
+    public List<String> findWildcardMatches(String pattern) {
+        return join(client.findWildcardMatches(name, pattern));
+    }
+
+    @Override
+    public List<String> findWordsContaining(String fragment) {
+        if (fragment == null) {
+            throw new IllegalArgumentException("Fragment cannot be null.");
+        }
+        return join(client.findWordsContaining(name, fragment));
+    }
+
+    /**
+     * Returns zero, as the dictionary is held by the server.
+     * @return zero.
+     */
+    @Override
+    public long memoryFootprint() {
+        return 0;
+    }
+
+    /**
+     * Waits for a result and rethrows its failure, so that callers observe the same exceptions as for local dictionaries.
+     */
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException exception) {
+            if (exception.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw exception;
+        }
+    }
+}
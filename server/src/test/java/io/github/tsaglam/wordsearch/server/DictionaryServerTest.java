@@ -0,0 +1,175 @@
+package io.github.tsaglam.wordsearch.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.impl.SortedArrayWordSearch;
+import io.github.tsaglam.wordsearch.server.Protocol.Operation;
+import io.github.tsaglam.wordsearch.server.Protocol.Status;
+
+/**
+ * Tests for the {@link DictionaryServer} and the {@link DictionaryClient} over the loopback interface.
+ */
+class DictionaryServerTest {
+    private static final String NAME = "words";
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+    private List<String> words;
+    private SearchableDictionary local;
+    private DictionaryServer server;
+    private DictionaryClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        words = new ArrayList<>();
+        for (char first : ALPHABET.toCharArray()) {
+            for (char second : ALPHABET.toCharArray()) {
+                for (char third : ALPHABET.toCharArray()) {
+                    words.add("" + first + second + third + "WORD");
+                }
+            }
+        }
+        local = new SortedArrayWordSearch(words);
+        server = DictionaryServer.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), Map.of(NAME, local));
+        client = DictionaryClient.connect(server.getAddress());
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    @DisplayName("Test that remote queries return the same results as local queries.")
+    void testQueries() {
+        SearchableDictionary remote = client.getDictionary(NAME);
+        for (String pattern : List.of("", "A", "AB", "ABC", "ABCWORD", "ABCWORDS", "Z", "-")) {
+            assertIterableEquals(local.findMatchingWords(pattern), remote.findMatchingWords(pattern), pattern);
+            assertEquals(local.countMatchingWords(pattern), remote.countMatchingWords(pattern), pattern);
+            assertIterableEquals(local.findMatchingWordsAfter(pattern, "ABZ", 100), remote.findMatchingWordsAfter(pattern, "ABZ", 100));
+            assertIterableEquals(local.findMatchingWords(pattern, 30, 40), remote.findMatchingWords(pattern, 30, 40));
+            assertIterableEquals(local.findFuzzyMatches(pattern, 1), remote.findFuzzyMatches(pattern, 1), pattern);
+        }
+        assertIterableEquals(local.findWildcardMatches("A?C*"), remote.findWildcardMatches("A?C*"));
+        assertIterableEquals(local.findWordsContaining("ZZW"), remote.findWordsContaining("ZZW"));
+        assertEquals(local.findMatchingWordsForAll(List.of("AB", "B", "AB")), remote.findMatchingWordsForAll(List.of("AB", "B", "AB")));
+        assertEquals(List.of(NAME), client.listDictionaries().join());
+    }
+
+    @Test
+    @DisplayName("Test that invalid queries fail with the same exceptions as local queries and leave the connection usable.")
+    void testInvalidQueries() {
+        SearchableDictionary remote = client.getDictionary(NAME);
+        assertThrows(IllegalArgumentException.class, () -> remote.findMatchingWords(null));
+        assertThrows(IllegalArgumentException.class, () -> remote.findFuzzyMatches("A", -1));
+        assertThrows(IllegalArgumentException.class, () -> remote.findMatchingWordsAfter("A", "B", -1));
+        assertThrows(IllegalArgumentException.class, () -> remote.findMatchingWords("A", -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> client.getDictionary("unknown").findMatchingWords("A"));
+        assertThrows(IllegalArgumentException.class, () -> client.getDictionary("unknown").streamMatchingWords("A").toList());
+        assertEquals(local.countMatchingWords("A"), remote.countMatchingWords("A"));
+    }
+
+    @Test
+    @DisplayName("Test that many pipelined requests are all answered with their own results.")
+    void testPipelining() {
+        List<String> patterns = words.stream().map(it -> it.substring(0, 2)).distinct().toList();
+        List<CompletableFuture<List<String>>> results = patterns.stream().map(it -> client.findMatchingWords(NAME, it)).toList();
+        List<CompletableFuture<Integer>> counts = patterns.stream().map(it -> client.countMatchingWords(NAME, it)).toList();
+        for (int index = 0; index < patterns.size(); index++) {
+            assertIterableEquals(local.findMatchingWords(patterns.get(index)), results.get(index).join());
+            assertEquals(ALPHABET.length(), counts.get(index).join());
+        }
+    }
+
+    @Test
+    @DisplayName("Test that streams are transferred completely and can be closed early without affecting other requests.")
+    void testStreaming() {
+        try (Stream<String> stream = client.streamMatchingWords(NAME, "")) {
+            assertIterableEquals(local.streamMatchingWords("").toList(), stream.toList()); // larger than the credits
+        }
+        for (int iteration = 0; iteration < 2 * Protocol.MAXIMUM_PENDING_REQUESTS; iteration++) { // leaks would block
+            try (Stream<String> stream = client.streamMatchingWords(NAME, "")) {
+                assertEquals(words.get(0), stream.findFirst().orElseThrow());
+            }
+        }
+        assertIterableEquals(local.findMatchingWords("XY"), client.findMatchingWords(NAME, "XY").join());
+    }
+
+    @Test
+    @DisplayName("Test that reusing the ID of an open stream is rejected and does not orphan the open stream.")
+    void testDuplicateStreamId() throws IOException, InterruptedException {
+        int id = 7;
+        try (Socket socket = new Socket(server.getAddress().getAddress(), server.getAddress().getPort())) {
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(10)); // fails instead of waiting for the rejection forever
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            OutputStream output = socket.getOutputStream();
+            FrameWriter stream = new FrameWriter().writeInt(id).writeByte(Operation.STREAM.ordinal()).writeString(NAME).writeString("");
+            stream.writeTo(output); // stalls after the initial credits, as the words exceed them
+            stream.writeTo(output);
+            output.flush();
+            FrameReader frame;
+            do {
+                frame = FrameReader.read(input);
+                assertEquals(id, frame.readInt());
+            } while (Status.of(frame.readByte()) != Status.INVALID);
+            awaitPendingRequests(1);
+            new FrameWriter().writeInt(id).writeByte(Operation.CANCEL.ordinal()).writeTo(output);
+            output.flush();
+            awaitPendingRequests(0);
+        }
+    }
+
+    @Test
+    @DisplayName("Test that multiple clients are served concurrently and that closing the server fails pending requests.")
+    void testConcurrentClients() throws IOException {
+        List<DictionaryClient> clients = new ArrayList<>();
+        for (int index = 0; index < 4; index++) {
+            clients.add(DictionaryClient.connect(server.getAddress()));
+        }
+        IntStream.range(0, 100).parallel().forEach(index -> {
+            String pattern = words.get(index * 100).substring(0, 3);
+            SearchableDictionary remote = clients.get(index % clients.size()).getDictionary(NAME);
+            assertIterableEquals(local.findMatchingWords(pattern), remote.findMatchingWords(pattern));
+        });
+        try (Stream<String> stream = client.streamMatchingWords(NAME, "")) {
+            server.close();
+            CompletionException exception = assertThrows(CompletionException.class, () -> client.findMatchingWords(NAME, "A").join());
+            assertEquals(UncheckedIOException.class, exception.getCause().getClass());
+            assertThrows(UncheckedIOException.class, stream::toList);
+        }
+        clients.forEach(DictionaryClient::close);
+    }
+
+    private void awaitPendingRequests(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.getPendingRequests() != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, server.getPendingRequests());
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.tsaglam.wordsearch;
+
+/**
+ * Utility for the bounded Levenshtein distance between a pattern and the prefixes of words, which is the basis of the
+ * fuzzy search of {@link SearchableDictionary#findFuzzyMatches(String, int)}. The distances are computed as rows of the
+ * dynamic programming matrix, one row per character of the word: Entry {@code i} of a row is the edit distance between
+ * the first {@code i} characters of the pattern and the characters of the word so far. As each row only depends on the
+ * previous row, tree-based dictionaries compute one row per node and share it between all words below that node.
+ */
+public final class EditDistance {
+
+    private EditDistance() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Creates the row for the empty prefix of a word, where each character of the pattern needs to be inserted.
+     * @param pattern is the search pattern.
+     * @return the initial row with one entry per character of the pattern and one for the empty pattern.
+     */
+    public static int[] initialRow(String pattern) {
+        int[] row = new int[pattern.length() + 1];
+        for (int index = 0; index < row.length; index++) {
+            row[index] = index;
+        }
+        return row;
+    }
+
+    /**
+     * Computes the row for a prefix of a word that is extended by a character.
+     * @param pattern is the search pattern.
+     * @param previousRow is the row of the prefix without the character.
+     * @param character is the next character of the word.
+     * @param row is the row to fill, must have the same length as the previous row.
+     * @return the minimum of the row, which is a lower bound of the distance for all longer prefixes.
+     */
+    public static int nextRow(String pattern, int[] previousRow, char character, int[] row) {
+        row[0] = previousRow[0] + 1;
+        int minimum = row[0];
+        for (int index = 1; index < row.length; index++) {
+            int substitution = previousRow[index - 1] + (pattern.charAt(index - 1) == character ? 0 : 1);
+            row[index] = Math.min(substitution, Math.min(previousRow[index], row[index - 1]) + 1);
+            minimum = Math.min(minimum, row[index]);
+        }
+        return minimum;
+    }
+
+    /**
+     * Checks whether any prefix of a word is within a maximum edit distance of a pattern. The computation stops as soon as
+     * a prefix matches or no longer prefix can match.
+     * @param pattern is the search pattern.
+     * @param word is the word to check.
+     * @param maxEdits is the maximum number of insertions, deletions, and substitutions.
+     * @return true if the word starts with a prefix that is within the distance, false otherwise.
+     */
+    public static boolean startsWithin(String pattern, String word, int maxEdits) {
+        int[] row = initialRow(pattern);
+        int[] nextRow = new int[row.length];
+        for (int index = 0; row[pattern.length()] > maxEdits; index++) {
+            if (index == word.length() || nextRow(pattern, row, word.charAt(index), nextRow) > maxEdits) {
+                return false;
+            }
+            int[] swap = row;
+            row = nextRow;
+            nextRow = swap;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,178 @@
+package io.github.tsaglam.wordsearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.RandomAccess;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Partitioning of words into shards by key range, which lets forests of dictionaries route each query to the shards
+ * that can contain its matches. Shard {@code i} holds the words between splitter {@code i - 1} (inclusive) and
+ * splitter {@code i} (exclusive), so all words with a common prefix are in a contiguous run of shards, usually a single
+ * one, and concatenating the shards in order preserves the lexicographic order. The splitters are the quantiles of a
+ * random sample of the words, so the shards are balanced for any distribution of the words, not only for uniform ones.
+ * Splitters are distinct, so there may be fewer shards than requested if many words are equal. <b>Thread safety:</b>
+ * This class is immutable.
+ */
+public final class KeyRangeSharding {
+
+    private static final int SAMPLES_PER_SHARD = 256;
+    private static final long SAMPLING_SEED = 0x5eed;
+
+    private final String[] splitters;
+
+    private KeyRangeSharding(String[] splitters) {
+        this.splitters = splitters;
+    }
+
+    /**
+     * Chooses the splitters of the shards by sampling the words.
+     * @param words specifies the content of the shards.
+     * @param numberOfShards specifies the maximum number of shards.
+     * @return the sharding, which has at least one shard.
+     * @throws IllegalArgumentException if the words are null or the number of shards is not positive.
+     */
+    public static KeyRangeSharding sample(List<String> words, int numberOfShards) {
+        if (words == null) {
+            throw new IllegalArgumentException("Input words cannot be null.");
+        }
+        if (numberOfShards < 1) {
+            throw new IllegalArgumentException("Number of shards must be positive.");
+        }
+        if (numberOfShards == 1 || words.isEmpty()) {
+            return new KeyRangeSharding(new String[0]);
+        }
+        int sampleSize = (int) Math.min(words.size(), (long) SAMPLES_PER_SHARD * numberOfShards);
+        String[] sample = new String[sampleSize];
+        Random random = new Random(SAMPLING_SEED);
+        for (int index = 0; index < sampleSize; index++) {
+            sample[index] = sampleSize == words.size() ? words.get(index) : words.get(random.nextInt(words.size()));
+        }
+        Arrays.sort(sample);
+        List<String> splitters = new ArrayList<>(numberOfShards - 1);
+        for (int shard = 1; shard < numberOfShards; shard++) {
+            String splitter = sample[(int) ((long) shard * sampleSize / numberOfShards)];
+            if (splitters.isEmpty() ? splitter.compareTo(sample[0]) > 0 : splitter.compareTo(splitters.getLast()) > 0) {
+                splitters.add(splitter); // the first shard is not empty, and equal words are in the same shard
+            }
+        }
+        return new KeyRangeSharding(splitters.toArray(String[]::new));
+    }
+
+    /**
+     * Returns the number of shards.
+     * @return the number of splitters plus one.
+     */
+    public int getNumberOfShards() {
+        return splitters.length + 1;
+    }
+
+    /**
+     * Returns the shard of a word.
+     * @param word is the word.
+     * @return the index of the shard.
+     */
+    public int shardOf(String word) {
+        int index = Arrays.binarySearch(splitters, word);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    /**
+     * Partitions words into the shards, which keeps their order within each shard. Sorted words are partitioned by
+     * searching the splitters, and the shards are views of the words. Other words are grouped in parallel.
+     * @param words are the words to partition, which must not be modified while views of them are in use.
+     * @return the list of words per shard, which are empty for shards without words.
+     */
+    public List<List<String>> partition(List<String> words) {
+        if (words instanceof RandomAccess && isSorted(words)) {
+            List<List<String>> shards = new ArrayList<>(getNumberOfShards());
+            int start = 0;
+            for (String splitter : splitters) {
+                int end = lowerBound(words, splitter, start);
+                shards.add(words.subList(start, end));
+                start = end;
+            }
+            shards.add(words.subList(start, words.size()));
+            return shards;
+        }
+        Map<Integer, List<String>> shards = words.parallelStream().collect(Collectors.groupingBy(this::shardOf)); // ordered
+        return IntStream.range(0, getNumberOfShards()).mapToObj(shard -> shards.getOrDefault(shard, List.of())).toList();
+    }
+
+    /**
+     * Selects the shards that may contain words with a prefix, which are the shard of the prefix itself and all following
+     * shards whose splitters start with the prefix.
+     * @param <T> is the type of the shards.
+     * @param shards are the shards in the order of this sharding.
+     * @param prefix is the prefix of the words.
+     * @return the view of the selected shards in order.
+     */
+    public <T> List<T> route(List<T> shards, String prefix) {
+        int first = shardOf(prefix);
+        int end = first + 1;
+        while (end <= splitters.length && splitters[end - 1].startsWith(prefix)) {
+            end++;
+        }
+        return shards.subList(first, end);
+    }
+
+    /**
+     * Selects the shards that may contain words with a prefix that are greater than a cursor, which skips the shards
+     * before the cursor.
+     * @param <T> is the type of the shards.
+     * @param shards are the shards in the order of this sharding.
+     * @param prefix is the prefix of the words.
+     * @param cursor is the exclusive lower bound of the words.
+     * @return the view of the selected shards in order.
+     */
+    public <T> List<T> routeAfter(List<T> shards, String prefix, String cursor) {
+        List<T> routed = route(shards, prefix);
+        int skipped = Math.max(0, shardOf(cursor) - shardOf(prefix));
+        return routed.subList(Math.min(skipped, routed.size()), routed.size());
+    }
+
+    /**
+     * Streams the shards that may contain words with a prefix. The stream is only parallel if multiple shards are
+     * selected, so queries that are routed to a single shard run on the calling thread without scheduling overhead.
+     * @param <T> is the type of the shards.
+     * @param shards are the shards in the order of this sharding.
+     * @param prefix is the prefix of the words.
+     * @return the ordered stream of the selected shards.
+     * @see #route(List, String)
+     */
+    public <T> Stream<T> fanOut(List<T> shards, String prefix) {
+        List<T> routed = route(shards, prefix);
+        return routed.size() == 1 ? routed.stream() : routed.parallelStream();
+    }
+
+    private static boolean isSorted(List<String> words) {
+        for (int index = 1; index < words.size(); index++) {
+            if (words.get(index - 1).compareTo(words.get(index)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Searches the index of the first word that is not less than a key in sorted words.
+     */
+    private static int lowerBound(List<String> words, String key, int fromIndex) {
+        int low = fromIndex;
+        int high = words.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (words.get(middle).compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
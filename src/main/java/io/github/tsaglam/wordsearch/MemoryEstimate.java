@@ -0,0 +1,93 @@
+package io.github.tsaglam.wordsearch;
+
+import java.util.Collection;
+
+/**
+ * Utility for the estimated memory footprint of {@link SearchableDictionary#memoryFootprint()}, which assumes the object
+ * layout of a 64-bit HotSpot JVM with compressed class pointers and compressed references: Objects have a 12 byte
+ * header, arrays a 16 byte header, references take 4 bytes, and every object is padded to a multiple of 8 bytes. Strings
+ * are compact, i.e., their characters take a single byte each if all of them are Latin-1. The estimates do not know
+ * which objects are shared with other owners, such as the input words, so they count everything an index references.
+ */
+public final class MemoryEstimate {
+
+    /**
+     * Size of an object header in bytes.
+     */
+    public static final int OBJECT_HEADER = 12;
+
+    /**
+     * Size of a reference in bytes.
+     */
+    public static final int REFERENCE = 4;
+
+    private static final int ARRAY_HEADER = 16;
+    private static final int ALIGNMENT = 8;
+    private static final int STRING_SIZE = 24; // header, value reference, hash, coder, and hash flag
+    private static final int TREE_MAP_ENTRY_SIZE = 40; // header, key, value, left, right, parent, and color
+
+    private MemoryEstimate() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Estimates the size of an object without the objects it references.
+     * @param fieldBytes is the total size of its fields, e.g. {@link #REFERENCE} for each reference field.
+     * @return the size in bytes, including header and padding.
+     */
+    public static long ofObject(int fieldBytes) {
+        return align(OBJECT_HEADER + (long) fieldBytes);
+    }
+
+    /**
+     * Estimates the size of an array without the objects it references.
+     * @param length is the number of elements.
+     * @param elementBytes is the size of each element, e.g. {@link Character#BYTES} or {@link #REFERENCE}.
+     * @return the size in bytes, including header and padding.
+     */
+    public static long ofArray(int length, int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    /**
+     * Estimates the size of a string and its character array.
+     * @param string is the string.
+     * @return the size in bytes.
+     */
+    public static long ofString(String string) {
+        boolean latin1 = string.chars().allMatch(it -> it <= 0xFF);
+        return STRING_SIZE + ofArray(string.length(), latin1 ? Byte.BYTES : Character.BYTES);
+    }
+
+    /**
+     * Estimates the size of multiple strings and their character arrays, without the collection that holds them.
+     * @param strings are the strings.
+     * @return the total size in bytes.
+     */
+    public static long ofStrings(Collection<String> strings) {
+        return strings.parallelStream().mapToLong(MemoryEstimate::ofString).sum();
+    }
+
+    /**
+     * Estimates the size of a list of strings, which is an array of references to the strings.
+     * @param strings are the strings of the list.
+     * @return the total size in bytes, including the strings.
+     */
+    public static long ofList(Collection<String> strings) {
+        return ofObject(2 * Integer.BYTES + REFERENCE) + ofArray(strings.size(), REFERENCE) + ofStrings(strings);
+    }
+
+    /**
+     * Estimates the size of a tree set of strings, which is a red-black tree with one entry per string.
+     * @param strings are the strings of the set.
+     * @return the total size in bytes, including the strings.
+     */
+    public static long ofTreeSet(Collection<String> strings) {
+        return ofObject(REFERENCE) + ofObject(3 * REFERENCE + 2 * Integer.BYTES) + (long) strings.size() * TREE_MAP_ENTRY_SIZE
+                + ofStrings(strings);
+    }
+
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
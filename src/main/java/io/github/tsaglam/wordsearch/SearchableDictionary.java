@@ -1,6 +1,10 @@
 package io.github.tsaglam.wordsearch;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Dictionary of strings that can be searched efficiently for strings that start with a pattern.
@@ -14,4 +18,205 @@ public interface SearchableDictionary {
      * @throws IllegalArgumentException if the pattern is null.
      */
     List<String> findMatchingWords(String pattern);
+
+    /**
+     * Counts all words in the dictionary that have the pattern as prefix, without necessarily materializing them.
+     * @param pattern specifies the search pattern.
+     * @return the number of matching words.
+     * @throws IllegalArgumentException if the pattern is null.
+     */
+    default int countMatchingWords(String pattern) {
+        return findMatchingWords(pattern).size();
+    }
+
+    /**
+     * Lazily searches for all words in the dictionary that have the pattern as prefix. Implementations only do the work
+     * for the words that are actually consumed, so short-circuiting operations like {@link Stream#limit(long)} stop the
+     * search early. The encounter order is stable as long as the dictionary is not modified. The stream is sequential, so
+     * the operations of the caller run on the calling thread, unless the caller makes the stream parallel.
+     * @param pattern specifies the search pattern.
+     * @return the sequential stream of matching words, which is empty if none match.
+     * @throws IllegalArgumentException if the pattern is null.
+     */
+    default Stream<String> streamMatchingWords(String pattern) {
+        return findMatchingWords(pattern).stream();
+    }
+
+    /**
+     * Searches for the first words in the dictionary that have the pattern as prefix, in the order of
+     * {@link #streamMatchingWords(String)}.
+     * @param pattern specifies the search pattern.
+     * @param limit specifies the maximum number of words to return.
+     * @return the matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the pattern is null or the limit is negative.
+     */
+    default List<String> findMatchingWords(String pattern, int limit) {
+        return findMatchingWords(pattern, 0, limit);
+    }
+
+    /**
+     * Searches for one page of words in the dictionary that have the pattern as prefix, in the order of
+     * {@link #streamMatchingWords(String)}. Pages are consistent as long as the dictionary is not modified.
+     * @param pattern specifies the search pattern.
+     * @param offset specifies how many matching words are skipped.
+     * @param limit specifies the maximum number of words to return.
+     * @return the matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the pattern is null or the offset or limit is negative.
+     */
+    default List<String> findMatchingWords(String pattern, int offset, int limit) {
+        checkPage(offset, limit);
+        return streamMatchingWords(pattern).skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * Searches for the next page of words in the dictionary that have the pattern as prefix and are lexicographically
+     * greater than a cursor, which usually is the last word of the previous page. The words are returned in
+     * lexicographic order. In contrast to offsets, cursors do not require skipping the previous pages.
+     * @param pattern specifies the search pattern.
+     * @param cursor specifies the exclusive lower bound of the words to return.
+     * @param limit specifies the maximum number of words to return.
+     * @return the matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the pattern or the cursor is null, or the limit is negative.
+     */
+    default List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        checkCursor(cursor, limit);
+        return streamMatchingWords(pattern).filter(it -> it.compareTo(cursor) > 0).sorted().limit(limit).toList();
+    }
+
+    /**
+     * Searches for the matching words of multiple patterns at once, which is faster than searching for each pattern
+     * separately. Implementations share the work between the patterns of a batch, for example by sorting them and sharing
+     * the descents for common prefixes, by merging them against sorted data in a single pass, or by scheduling one task
+     * per batch instead of one task per pattern.
+     * @param patterns specifies the search patterns. Duplicates are searched once.
+     * @return the map from each pattern to its matching words, in the order of {@link #findMatchingWords(String)}.
+     * @throws IllegalArgumentException if the patterns or any of them are null.
+     */
+    default Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        checkPatterns(patterns);
+        Map<String, List<String>> results = new HashMap<>();
+        for (String pattern : patterns) {
+            results.computeIfAbsent(pattern, this::findMatchingWords);
+        }
+        return results;
+    }
+
+    /**
+     * Searches for all words in the dictionary that start with a prefix within a maximum edit distance of the pattern, so
+     * that the pattern may contain typos. The edit distance is the Levenshtein distance, i.e., the number of inserted,
+     * deleted, and substituted characters. With a distance of zero, this is the prefix search. By default, all words are
+     * scanned in parallel, while tree-based implementations share the distance computation between words with common
+     * prefixes and skip subtrees as soon as the distance is exceeded.
+     * @param pattern specifies the search pattern.
+     * @param maxEdits specifies the maximum edit distance.
+     * @return the matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the pattern is null or the maximum edit distance is negative.
+     * @see EditDistance
+     */
+    default List<String> findFuzzyMatches(String pattern, int maxEdits) {
+        checkFuzzyQuery(pattern, maxEdits);
+        return findMatchingWords("").parallelStream().filter(it -> EditDistance.startsWithin(pattern, it, maxEdits)).toList();
+    }
+
+    /**
+     * Searches for all words in the dictionary that match a wildcard pattern as a whole, where {@code ?} matches exactly
+     * one character and {@code *} matches any sequence of characters. For example, {@code TE?T} matches {@code TEST} and
+     * {@code T*ST} matches {@code TOAST}. By default, the words starting with the literal prefix of the pattern are
+     * searched and then matched in parallel, while tree-based implementations match the pattern during the traversal.
+     * @param pattern specifies the wildcard pattern.
+     * @return the matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the pattern is null.
+     * @see WildcardPattern
+     */
+    default List<String> findWildcardMatches(String pattern) {
+        WildcardPattern wildcardPattern = WildcardPattern.compile(pattern);
+        return findMatchingWords(wildcardPattern.getLiteralPrefix()).parallelStream().filter(wildcardPattern::matches).toList();
+    }
+
+    /**
+     * Searches for all words in the dictionary that contain a fragment anywhere, not only as prefix. By default, all words
+     * are scanned in parallel, while infix indexes find the words without touching the others.
+     * @param fragment specifies the fragment to search for.
+     * @return the matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the fragment is null.
+     */
+    default List<String> findWordsContaining(String fragment) {
+        if (fragment == null) {
+            throw new IllegalArgumentException("Fragment cannot be null.");
+        }
+        return findMatchingWords("").parallelStream().filter(it -> it.contains(fragment)).toList();
+    }
+
+    /**
+     * Estimates the memory held by the dictionary, including the words it references and any off-heap or mapped memory.
+     * The estimate is computed on demand, which may traverse the whole index, so it should not be called per query. By
+     * default, the dictionary is assumed to be a list of the words.
+     * @return the estimated size in bytes.
+     * @see MemoryEstimate
+     */
+    default long memoryFootprint() {
+        return MemoryEstimate.ofList(findMatchingWords(""));
+    }
+
+    /**
+     * Validates the patterns of {@link #findMatchingWordsForAll(Collection)}.
+     * @param patterns specifies the search patterns.
+     * @throws IllegalArgumentException if the patterns or any of them are null.
+     */
+    static void checkPatterns(Collection<String> patterns) {
+        if (patterns == null || patterns.stream().anyMatch(it -> it == null)) {
+            throw new IllegalArgumentException("Patterns cannot be null.");
+        }
+    }
+
+    /**
+     * Validates and sorts the patterns of {@link #findMatchingWordsForAll(Collection)}.
+     * @param patterns specifies the search patterns.
+     * @return the distinct patterns in lexicographic order.
+     * @throws IllegalArgumentException if the patterns or any of them are null.
+     */
+    static String[] sortedPatterns(Collection<String> patterns) {
+        checkPatterns(patterns);
+        return patterns.stream().distinct().sorted().toArray(String[]::new);
+    }
+
+    /**
+     * Validates the parameters of {@link #findFuzzyMatches(String, int)}.
+     * @param pattern specifies the search pattern.
+     * @param maxEdits specifies the maximum edit distance.
+     * @throws IllegalArgumentException if the pattern is null or the maximum edit distance is negative.
+     */
+    static void checkFuzzyQuery(String pattern, int maxEdits) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        if (maxEdits < 0) {
+            throw new IllegalArgumentException("Maximum edit distance cannot be negative.");
+        }
+    }
+
+    /**
+     * Validates the paging parameters of {@link #findMatchingWords(String, int, int)}.
+     * @param offset specifies how many matching words are skipped.
+     * @param limit specifies the maximum number of words to return.
+     * @throws IllegalArgumentException if the offset or limit is negative.
+     */
+    static void checkPage(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit cannot be negative.");
+        }
+    }
+
+    /**
+     * Validates the paging parameters of {@link #findMatchingWordsAfter(String, String, int)}.
+     * @param cursor specifies the exclusive lower bound of the words to return.
+     * @param limit specifies the maximum number of words to return.
+     * @throws IllegalArgumentException if the cursor is null or the limit is negative.
+     */
+    static void checkCursor(String cursor, int limit) {
+        if (cursor == null) {
+            throw new IllegalArgumentException("Cursor cannot be null.");
+        }
+        checkPage(0, limit);
+    }
 }
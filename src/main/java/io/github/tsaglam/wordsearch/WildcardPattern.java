@@ -0,0 +1,173 @@
+package io.github.tsaglam.wordsearch;
+
+import java.util.BitSet;
+
+/**
+ * Compiled wildcard pattern of {@link SearchableDictionary#findWildcardMatches(String)}, which matches whole words. The
+ * wildcard {@value #ANY_CHARACTER} matches exactly one character and the wildcard {@value #ANY_SEQUENCE} matches any
+ * sequence of characters, including the empty one; all other characters match themselves. Words can either be matched
+ * as a whole, or character by character as a set of states, which allows tree-based dictionaries to share the states of
+ * common prefixes. A state is a position in the pattern, i.e., the number of pattern characters matched so far.
+ */
+public final class WildcardPattern {
+
+    /**
+     * Wildcard for exactly one character.
+     */
+    public static final char ANY_CHARACTER = '?';
+
+    /**
+     * Wildcard for any sequence of characters.
+     */
+    public static final char ANY_SEQUENCE = '*';
+
+    private final String pattern;
+    private final int literalPrefixLength;
+    private final int anySuffixStart; // first position from which only sequence wildcards follow
+
+    private WildcardPattern(String pattern) {
+        this.pattern = pattern;
+        int length = 0;
+        while (length < pattern.length() && !isWildcard(pattern.charAt(length))) {
+            length++;
+        }
+        literalPrefixLength = length;
+        int start = pattern.length();
+        while (start > 0 && pattern.charAt(start - 1) == ANY_SEQUENCE) {
+            start--;
+        }
+        anySuffixStart = start;
+    }
+
+    /**
+     * Compiles a wildcard pattern.
+     * @param pattern is the pattern with wildcards.
+     * @return the compiled pattern.
+     * @throws IllegalArgumentException if the pattern is null.
+     */
+    public static WildcardPattern compile(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return new WildcardPattern(pattern);
+    }
+
+    /**
+     * Returns the longest prefix of the pattern without wildcards, which all matching words start with. Dictionaries use
+     * it to narrow down the words before matching the rest of the pattern.
+     * @return the literal prefix, which is the whole pattern if it contains no wildcards.
+     */
+    public String getLiteralPrefix() {
+        return pattern.substring(0, literalPrefixLength);
+    }
+
+    /**
+     * Checks whether a whole word matches the pattern. The check backtracks to the last sequence wildcard on a mismatch,
+     * which only requires constant space.
+     * @param word is the word to check.
+     * @return true if the word matches, false otherwise.
+     */
+    public boolean matches(String word) {
+        int wordIndex = 0;
+        int patternIndex = 0;
+        int lastSequence = -1; // position of the last sequence wildcard, or -1 if none was passed
+        int lastSequenceMatch = 0; // word index from which the last sequence wildcard is retried
+        while (wordIndex < word.length()) {
+            if (patternIndex < pattern.length() && pattern.charAt(patternIndex) == ANY_SEQUENCE) {
+                lastSequence = patternIndex++;
+                lastSequenceMatch = wordIndex;
+            } else if (patternIndex < pattern.length() && matchesCharacter(pattern.charAt(patternIndex), word.charAt(wordIndex))) {
+                patternIndex++;
+                wordIndex++;
+            } else if (lastSequence >= 0) {
+                patternIndex = lastSequence + 1; // let the sequence wildcard consume one more character
+                wordIndex = ++lastSequenceMatch;
+            } else {
+                return false;
+            }
+        }
+        return patternIndex >= anySuffixStart;
+    }
+
+    /**
+     * Returns the states after matching the literal prefix, which is where tree-based dictionaries start matching.
+     * @return the set of states.
+     */
+    public BitSet getPrefixStates() {
+        BitSet states = new BitSet(pattern.length() + 1);
+        addState(states, literalPrefixLength);
+        return states;
+    }
+
+    /**
+     * Computes the states after matching one more character.
+     * @param states are the current states, which are not modified.
+     * @param character is the next character of the word.
+     * @return the next states, which are empty if no word with this prefix can match.
+     */
+    public BitSet advance(BitSet states, char character) {
+        BitSet nextStates = new BitSet(pattern.length() + 1);
+        advance(states, character, nextStates);
+        return nextStates;
+    }
+
+    /**
+     * Computes the states after matching one more character into an existing set, which allows traversals to reuse one set
+     * per depth instead of allocating one per visited node.
+     * @param states are the current states, which are not modified.
+     * @param character is the next character of the word.
+     * @param nextStates is the set to overwrite with the next states, which are empty if no word with this prefix can match.
+     */
+    public void advance(BitSet states, char character, BitSet nextStates) {
+        nextStates.clear();
+        for (int state = states.nextSetBit(0); state >= 0 && state < pattern.length(); state = states.nextSetBit(state + 1)) {
+            char current = pattern.charAt(state);
+            if (current == ANY_SEQUENCE) {
+                addState(nextStates, state); // the sequence consumes the character
+            } else if (matchesCharacter(current, character)) {
+                addState(nextStates, state + 1);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the word matched so far is a match.
+     * @param states are the current states.
+     * @return true if the word matches the whole pattern.
+     */
+    public boolean isMatch(BitSet states) {
+        return states.get(pattern.length());
+    }
+
+    /**
+     * Checks whether all words starting with the word matched so far are matches, as only sequence wildcards are left.
+     * @param states are the current states.
+     * @return true if any continuation matches.
+     */
+    public boolean matchesAnySuffix(BitSet states) {
+        return anySuffixStart < pattern.length() && states.nextSetBit(anySuffixStart) >= 0; // requires a trailing sequence wildcard
+    }
+
+    /**
+     * Adds a state and, as sequence wildcards can match the empty sequence, all states reachable by skipping them.
+     */
+    private void addState(BitSet states, int state) {
+        states.set(state);
+        while (state < pattern.length() && pattern.charAt(state) == ANY_SEQUENCE) {
+            states.set(++state);
+        }
+    }
+
+    private static boolean matchesCharacter(char patternCharacter, char character) {
+        return patternCharacter == ANY_CHARACTER || patternCharacter == character;
+    }
+
+    private static boolean isWildcard(char character) {
+        return character == ANY_CHARACTER || character == ANY_SEQUENCE;
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
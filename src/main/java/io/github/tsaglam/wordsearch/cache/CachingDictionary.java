@@ -0,0 +1,448 @@
+package io.github.tsaglam.wordsearch.cache;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.MemoryEstimate;
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixTree;
+
+/**
+ * Decorator of a searchable dictionary that caches the results of hot prefixes, which suits skewed workloads where few
+ * short prefixes make up most of the queries. The cache is bounded by the number of cached words rather than by the
+ * number of prefixes, as a single short prefix may match a large share of the dictionary. Entries are evicted with a
+ * segmented LRU policy: New entries start in a probation segment and are promoted to a protected segment, which holds
+ * {@value #PROTECTED_PERCENTAGE}% of the capacity, when they are accessed again. A new entry is only admitted if its
+ * estimated access frequency exceeds that of the entry it would evict (TinyLFU, see {@link FrequencySketch}), so a burst
+ * of one-off prefixes cannot flush the hot ones. Cache hits are lock-free: The entries are looked up in a concurrent map,
+ * and the accesses are recorded in a lossy ring buffer that is applied to the policy by whichever thread acquires the
+ * eviction lock, so readers never wait for each other. Misses are computed outside of the lock.
+ * <p>
+ * When wrapping a mutable {@link ParallelPrefixTree}, words are added and removed through the cache, which invalidates
+ * only the cached prefixes of the word. Results that were computed concurrently with a modification are not cached, as
+ * they may or may not include it. <b>Thread safety:</b> This class supports concurrent use if the decorated dictionary
+ * does. Only {@link #findMatchingWords(String)} and {@link #countMatchingWords(String)} are cached, all other queries are
+ * answered by the decorated dictionary.
+ */
+public class CachingDictionary implements SearchableDictionary {
+
+    private static final int PROTECTED_PERCENTAGE = 80;
+    private static final int READ_BUFFER_SIZE = 128; // power of two
+    private static final int READ_BUFFER_MASK = READ_BUFFER_SIZE - 1;
+    private static final int DRAIN_THRESHOLD = READ_BUFFER_SIZE / 4;
+    private static final int MAXIMUM_SKETCH_ENTRIES = 1 << 18; // bounds the sketch to 1 MB
+    private static final long ENTRY_SIZE = MemoryEstimate.ofObject(5 * MemoryEstimate.REFERENCE + Long.BYTES) // entry
+            + MemoryEstimate.ofObject(3 * MemoryEstimate.REFERENCE + Integer.BYTES); // map node
+
+    private final SearchableDictionary dictionary;
+    private final Consumer<String> addition; // null if the dictionary is immutable
+    private final Predicate<String> removal;
+    private final long capacity;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final AtomicLong modifications; // stamps the computation of misses
+
+    // policy state, guarded by the eviction lock:
+    private final ReentrantLock evictionLock;
+    private final FrequencySketch sketch;
+    private final Segment probation;
+    private final Segment protectedSegment;
+
+    // lossy buffer of hits that were not yet applied to the policy:
+    private final AtomicReferenceArray<Entry> readBuffer;
+    private final AtomicLong readBufferWrites;
+    private volatile long readBufferReads;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Creates the cache for an immutable dictionary.
+     * @param dictionary is the dictionary whose results are cached.
+     * @param capacity is the maximum number of cached words, summed over all cached prefixes.
+     * @throws IllegalArgumentException if the dictionary is null or the capacity is not positive.
+     */
+    public CachingDictionary(SearchableDictionary dictionary, long capacity) {
+        this(dictionary, capacity, null, null);
+    }
+
+    /**
+     * Creates the cache for a mutable prefix tree, whose words are modified through the cache.
+     * @param tree is the tree whose results are cached.
+     * @param capacity is the maximum number of cached words, summed over all cached prefixes.
+     * @throws IllegalArgumentException if the tree is null or the capacity is not positive.
+     * @see #addWord(String)
+     * @see #removeWord(String)
+     */
+    public CachingDictionary(ParallelPrefixTree tree, long capacity) {
+        this(tree, capacity, tree == null ? null : tree::addWord, tree == null ? null : tree::removeWord);
+    }
+
+    private CachingDictionary(SearchableDictionary dictionary, long capacity, Consumer<String> addition, Predicate<String> removal) {
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Dictionary cannot be null.");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive.");
+        }
+        this.dictionary = dictionary;
+        this.addition = addition;
+        this.removal = removal;
+        this.capacity = capacity;
+        entries = new ConcurrentHashMap<>();
+        modifications = new AtomicLong();
+        evictionLock = new ReentrantLock();
+        sketch = new FrequencySketch((int) Math.min(MAXIMUM_SKETCH_ENTRIES, capacity));
+        probation = new Segment();
+        protectedSegment = new Segment();
+        readBuffer = new AtomicReferenceArray<>(READ_BUFFER_SIZE);
+        readBufferWrites = new AtomicLong();
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    /**
+     * Adds a word to the decorated tree and invalidates the cached results of its prefixes, including the word itself.
+     * <b>Thread safety:</b> This method is safe to call concurrently.
+     * @param word is the word to add.
+     * @throws IllegalArgumentException if the word is null.
+     * @throws UnsupportedOperationException if the decorated dictionary is not a mutable tree.
+     */
+    public void addWord(String word) {
+        checkMutable();
+        if (word == null) {
+            throw new IllegalArgumentException("Word cannot be null!");
+        }
+        addition.accept(word);
+        invalidate(word);
+    }
+
+    /**
+     * Removes one occurrence of a word from the decorated tree and invalidates the cached results of its prefixes.
+     * <b>Thread safety:</b> This method is safe to call concurrently.
+     * @param word is the word to remove.
+     * @return true if the word was contained, false otherwise.
+     * @throws IllegalArgumentException if the word is null.
+     * @throws UnsupportedOperationException if the decorated dictionary is not a mutable tree.
+     */
+    public boolean removeWord(String word) {
+        checkMutable();
+        if (word == null) {
+            throw new IllegalArgumentException("Word cannot be null!");
+        }
+        boolean removed = removal.test(word);
+        if (removed) {
+            invalidate(word);
+        }
+        return removed;
+    }
+
+    /**
+     * Returns the number of cached words, which does not exceed the capacity.
+     * @return the sum of the sizes of the cached results.
+     */
+    public long getWeight() {
+        evictionLock.lock();
+        try {
+            return probation.weight + protectedSegment.weight;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of queries that were answered by the cache.
+     * @return the number of cache hits.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of queries that were answered by the decorated dictionary.
+     * @return the number of cache misses.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Checks whether the results of a prefix are cached.
+     * @param pattern is the prefix.
+     * @return true if the next query of the prefix is a cache hit.
+     */
+    public boolean isCached(String pattern) {
+        return entries.containsKey(pattern);
+    }
+
+    /**
+     * Returns the cached words if the pattern is hot, otherwise searches the decorated dictionary and caches the result
+     * if it is admitted. The returned list is unmodifiable, as it is shared with later queries.
+     */
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        Entry entry = entries.get(pattern);
+        if (entry != null) {
+            hits.increment();
+            recordHit(entry);
+            return entry.words;
+        }
+        misses.increment();
+        long stamp = modifications.get();
+        List<String> words = Collections.unmodifiableList(dictionary.findMatchingWords(pattern));
+        admit(new Entry(pattern, words), stamp);
+        return words;
+    }
+
+    /**
+     * Counts the cached words if the pattern is hot, otherwise counts the matching words with the decorated dictionary,
+     * which does not cache them.
+     */
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        Entry entry = entries.get(pattern);
+        if (entry != null) {
+            hits.increment();
+            recordHit(entry);
+            return entry.words.size();
+        }
+        misses.increment();
+        return dictionary.countMatchingWords(pattern);
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        return dictionary.streamMatchingWords(pattern);
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int limit) {
+        return dictionary.findMatchingWords(pattern, limit);
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        return dictionary.findMatchingWords(pattern, offset, limit);
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        return dictionary.findMatchingWordsAfter(pattern, cursor, limit);
+    }
+
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        return dictionary.findMatchingWordsForAll(patterns);
+    }
+
+    @Override
+    public List<String> findFuzzyMatches(String pattern, int maxEdits) {
+        return dictionary.findFuzzyMatches(pattern, maxEdits);
+    }
+
+    @Override
+    public List<String> findWildcardMatches(String pattern) {
+        return dictionary.findWildcardMatches(pattern);
+    }
+
+    @Override
+    public List<String> findWordsContaining(String fragment) {
+        return dictionary.findWordsContaining(fragment);
+    }
+
+    /**
+     * Estimates the memory of the decorated dictionary and the cached results. The cached words are counted as well, as
+     * most dictionaries create new strings for their results.
+     */
+    @Override
+    public long memoryFootprint() {
+        long cached = entries.values().stream().mapToLong(it -> ENTRY_SIZE + MemoryEstimate.ofList(it.words)).sum();
+        return dictionary.memoryFootprint() + cached;
+    }
+
+    private void checkMutable() {
+        if (addition == null) {
+            throw new UnsupportedOperationException("Decorated dictionary is immutable.");
+        }
+    }
+
+    /**
+     * Removes the cached results of all prefixes of a word after the word was modified. The modification counter is
+     * incremented first, so misses that are computed concurrently are not cached afterwards.
+     */
+    private void invalidate(String word) {
+        modifications.incrementAndGet();
+        evictionLock.lock();
+        try {
+            for (int length = 0; length <= word.length(); length++) {
+                Entry entry = entries.remove(word.substring(0, length));
+                if (entry != null) {
+                    entry.segment.unlink(entry);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Records a hit in the read buffer without blocking. If the buffer is full, the hit is dropped, which only affects the
+     * accuracy of the policy. Once enough hits are buffered, they are applied if the eviction lock is free.
+     */
+    private void recordHit(Entry entry) {
+        long writes = readBufferWrites.get();
+        if (writes - readBufferReads < READ_BUFFER_SIZE && readBufferWrites.compareAndSet(writes, writes + 1)) {
+            readBuffer.lazySet((int) (writes & READ_BUFFER_MASK), entry);
+            if (writes + 1 - readBufferReads >= DRAIN_THRESHOLD && evictionLock.tryLock()) {
+                try {
+                    drainReadBuffer();
+                } finally {
+                    evictionLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the buffered hits to the policy, up to the first slot that is claimed but not yet written.
+     */
+    private void drainReadBuffer() {
+        long reads = readBufferReads;
+        long writes = readBufferWrites.get();
+        for (; reads < writes; reads++) {
+            int slot = (int) (reads & READ_BUFFER_MASK);
+            Entry entry = readBuffer.get(slot);
+            if (entry == null) {
+                break;
+            }
+            readBuffer.lazySet(slot, null);
+            sketch.increment(entry.key);
+            if (entry.segment == probation) {
+                probation.unlink(entry);
+                protectedSegment.linkLast(entry);
+                demoteProtected();
+            } else if (entry.segment == protectedSegment) {
+                protectedSegment.moveToLast(entry);
+            } // otherwise, the entry was evicted or invalidated since the hit
+        }
+        readBufferReads = reads;
+    }
+
+    /**
+     * Admits a computed result to the probation segment, and evicts entries until the capacity is met. The least recently
+     * used entry of the probation segment is the victim, unless the new entry is accessed less frequently, in which case
+     * the new entry is rejected instead.
+     */
+    private void admit(Entry entry, long stamp) {
+        if (entry.weight > capacity) {
+            return;
+        }
+        evictionLock.lock();
+        try {
+            drainReadBuffer();
+            sketch.increment(entry.key);
+            if (modifications.get() != stamp || entries.containsKey(entry.key)) {
+                return; // possibly stale, or already cached by a concurrent miss
+            }
+            entries.put(entry.key, entry);
+            probation.linkLast(entry);
+            while (probation.weight + protectedSegment.weight > capacity) {
+                Entry victim = probation.first() != entry ? probation.first() : protectedSegment.first(); // new entry is last
+                Entry evicted = sketch.frequency(entry.key) > sketch.frequency(victim.key) ? victim : entry;
+                entries.remove(evicted.key);
+                evicted.segment.unlink(evicted);
+                if (evicted == entry) {
+                    return;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the least recently used entries of the protected segment back to probation while it exceeds its share.
+     */
+    private void demoteProtected() {
+        while (protectedSegment.weight > capacity * PROTECTED_PERCENTAGE / 100) {
+            Entry demoted = protectedSegment.first();
+            protectedSegment.unlink(demoted);
+            probation.linkLast(demoted);
+        }
+    }
+
+    /**
+     * Cached result of a prefix, which is also a node in the list of its segment.
+     */
+    private static final class Entry {
+        final String key;
+        final List<String> words;
+        final long weight; // one per word, and one for the entry itself
+        Entry previous; // guarded by the eviction lock
+        Entry next;
+        Segment segment; // null if not linked, which marks buffered hits of evicted entries
+
+        Entry(String key, List<String> words) {
+            this.key = key;
+            this.words = words;
+            weight = words.size() + 1L;
+        }
+    }
+
+    /**
+     * Doubly linked list of entries in order of their last access, from least to most recent, with its total weight.
+     * <b>Thread safety:</b> Guarded by the eviction lock.
+     */
+    private static final class Segment {
+        final Entry sentinel;
+        long weight;
+
+        Segment() {
+            sentinel = new Entry(null, List.of());
+            sentinel.previous = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        Entry first() {
+            return sentinel.next;
+        }
+
+        void linkLast(Entry entry) {
+            entry.previous = sentinel.previous;
+            entry.next = sentinel;
+            sentinel.previous.next = entry;
+            sentinel.previous = entry;
+            entry.segment = this;
+            weight += entry.weight;
+        }
+
+        void unlink(Entry entry) {
+            entry.previous.next = entry.next;
+            entry.next.previous = entry.previous;
+            entry.previous = null;
+            entry.next = null;
+            entry.segment = null;
+            weight -= entry.weight;
+        }
+
+        void moveToLast(Entry entry) {
+            unlink(entry);
+            linkLast(entry);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package io.github.tsaglam.wordsearch.cache;
+
+/**
+ * Approximate access frequencies of the keys of a {@link CachingDictionary}, which is the TinyLFU admission filter. The
+ * sketch is a count-min sketch with four rows of 4-bit counters, packed into 16 counters per {@code long}, so it takes
+ * a few bytes per cached entry regardless of how many distinct keys are accessed. The frequency of a key is the minimum
+ * of its four counters, which overestimates only if all of them collide. To favor recent popularity, all counters are
+ * halved once the number of increments reaches ten times the number of counters per row, so keys that were popular in
+ * the past are forgotten over time. <b>Thread safety:</b> This class is not thread-safe, the cache guards it by its
+ * eviction lock.
+ */
+/* package-private */ class FrequencySketch {
+
+    private static final int ROWS = 4;
+    private static final int COUNTERS_PER_LONG = 16;
+    private static final int COUNTER_BITS = 4;
+    private static final int MAXIMUM_COUNT = (1 << COUNTER_BITS) - 1;
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L; // clears the bit that is shifted into the next counter
+    private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L };
+    private static final int SAMPLE_FACTOR = 10;
+
+    private final long[] table;
+    private final int rowMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * Creates a sketch.
+     * @param expectedEntries is the number of entries whose frequencies should be distinguishable, e.g. the maximum
+     * number of cached entries.
+     */
+    /* package-private */ FrequencySketch(int expectedEntries) {
+        int countersPerRow = Integer.highestOneBit(Math.clamp(expectedEntries, COUNTERS_PER_LONG, 1 << 24) * 2 - 1);
+        int longsPerRow = countersPerRow / COUNTERS_PER_LONG;
+        table = new long[ROWS * longsPerRow];
+        rowMask = longsPerRow - 1;
+        sampleSize = SAMPLE_FACTOR * countersPerRow;
+    }
+
+    /**
+     * Returns the estimated frequency of a key.
+     * @param key is the key.
+     * @return the frequency between zero and {@value #MAXIMUM_COUNT}.
+     */
+    /* package-private */ int frequency(String key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAXIMUM_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            long counter = indexHash(hash, row);
+            frequency = Math.min(frequency, (int) (table[index(counter, row)] >>> offset(counter)) & MAXIMUM_COUNT);
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the frequency of a key, and halves all frequencies once enough increments were sampled.
+     * @param key is the key.
+     */
+    /* package-private */ void increment(String key) {
+        int hash = spread(key.hashCode());
+        boolean incremented = false;
+        for (int row = 0; row < ROWS; row++) {
+            long counter = indexHash(hash, row);
+            int index = index(counter, row);
+            int offset = offset(counter);
+            if (((table[index] >>> offset) & MAXIMUM_COUNT) < MAXIMUM_COUNT) {
+                table[index] += 1L << offset;
+                incremented = true;
+            }
+        }
+        if (incremented && ++additions >= sampleSize) {
+            for (int index = 0; index < table.length; index++) {
+                table[index] = (table[index] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+    }
+
+    private int index(long counter, int row) {
+        return row * (rowMask + 1) + (int) ((counter >>> Integer.SIZE) & rowMask);
+    }
+
+    private static int offset(long counter) {
+        return (int) (counter & (COUNTERS_PER_LONG - 1)) * COUNTER_BITS;
+    }
+
+    /**
+     * Derives an independent hash per row, whose upper bits select the {@code long} and whose lowest bits select the
+     * counter within it.
+     */
+    private static long indexHash(int hash, int row) {
+        long value = (hash + SEEDS[row]) * SEEDS[row];
+        return value ^ (value >>> 29);
+    }
+
+    private static int spread(int hash) {
+        int value = hash * 0x9e3779b9;
+        return value ^ (value >>> 16);
+    }
+}
@@ -0,0 +1,251 @@
+package io.github.tsaglam.wordsearch.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Implementation of a searchable dictionary that picks its engine based on the workload. It answers right away with a
+ * parallel scan, see {@link ParallelStreamWordSearch}, which needs no construction, and builds an index in the background
+ * once the scans have cost as much as building the index would, which is the classic ski rental strategy: The total time
+ * of construction and queries is at most twice the time of the better choice in hindsight, whether that is scanning for a
+ * few queries or indexing for many. The cost of a build is estimated as a multiple of the cheapest scan, which scales
+ * with the number of words and the speed of the machine alike. The multiple is learned from the measured builds of
+ * previous dictionaries with the same index name, which suits many dictionaries of similar workloads. The cost of the
+ * scans is their measured latency, so broad queries that return many words count more than narrow ones. Queries that
+ * arrive during the build wait for the index, as concurrent scans would compete with the build for the same processors,
+ * and the wait is bounded by the build cost that the scans already paid. Once built, the index replaces the scan with an
+ * atomic swap and queries are no longer measured. <b>Thread safety:</b> This class supports concurrent use, queries that
+ * run during the swap are answered by either engine.
+ */
+public class AdaptiveDictionary implements SearchableDictionary {
+
+    private static final double INITIAL_BUILD_COST_IN_SCANS = 20; // crossover of the scan and the index in the combined benchmark
+    private static final double LEARNING_RATE = 0.5; // weight of the latest build in the learned build cost
+    private static final Map<String, Double> BUILD_COSTS_IN_SCANS = new ConcurrentHashMap<>(); // per index name
+    private static final String DEFAULT_INDEX_NAME = "SortedArray";
+
+    private final List<String> words;
+    private final String indexName;
+    private final Function<List<String>, SearchableDictionary> indexFactory;
+    private final SearchableDictionary scan;
+    private final AtomicBoolean buildStarted;
+    private final CompletableFuture<SearchableDictionary> index;
+    private final LongAdder queries;
+    private final LongAdder scanNanos;
+    private final AtomicLong cheapestScanNanos;
+    private volatile SearchableDictionary engine;
+    private volatile boolean buildFailed; // queries keep scanning instead of waiting for the failed index
+
+    /**
+     * Creates the dictionary, which upgrades to a {@link SortedArrayWordSearch}.
+     * @param words specifies the content, cannot be null.
+     * @throws IllegalArgumentException if words is null.
+     */
+    public AdaptiveDictionary(List<String> words) {
+        this(words, DEFAULT_INDEX_NAME, SortedArrayWordSearch::new);
+    }
+
+    /**
+     * Creates the dictionary.
+     * @param words specifies the content, cannot be null.
+     * @param indexName identifies the kind of index, under which its build cost is learned. Dictionaries that create the
+     * same kind of index should use the same name, as each lambda or method reference has its own class.
+     * @param indexFactory creates the index that replaces the scan, e.g. a constructor of another dictionary.
+     * @throws IllegalArgumentException if words, the index name, or the index factory is null.
+     */
+    public AdaptiveDictionary(List<String> words, String indexName, Function<List<String>, SearchableDictionary> indexFactory) {
+        if (indexName == null || indexFactory == null) {
+            throw new IllegalArgumentException("Index name and factory cannot be null.");
+        }
+        scan = new ParallelStreamWordSearch(words);
+        engine = scan;
+        this.words = words;
+        this.indexName = indexName;
+        this.indexFactory = indexFactory;
+        buildStarted = new AtomicBoolean();
+        index = new CompletableFuture<>();
+        queries = new LongAdder();
+        scanNanos = new LongAdder();
+        cheapestScanNanos = new AtomicLong(Long.MAX_VALUE);
+    }
+
+    /**
+     * Starts building the index in the background, regardless of the workload, if it was not started yet. Subsequent queries
+     * wait for the index. If the build fails, the scan is kept.
+     * @return the future of the index, which completes after it replaced the scan.
+     */
+    public CompletableFuture<SearchableDictionary> upgrade() {
+        if (buildStarted.compareAndSet(false, true)) {
+            CompletableFuture.supplyAsync(this::buildIndex).whenComplete((built, exception) -> {
+                if (exception == null) {
+                    engine = built;
+                    index.complete(built);
+                } else {
+                    buildFailed = true;
+                    index.completeExceptionally(exception);
+                }
+            });
+        }
+        return index;
+    }
+
+    /**
+     * Returns the index without starting its build, which is either started by the workload or by {@link #upgrade()}.
+     * @return the future of the index, which completes after it replaced the scan.
+     */
+    public CompletableFuture<SearchableDictionary> getIndex() {
+        return index;
+    }
+
+    /**
+     * Checks whether the index replaced the scan.
+     * @return true if queries are answered by the index.
+     */
+    public boolean isIndexed() {
+        return engine != scan;
+    }
+
+    /**
+     * Returns the number of queries that were answered by the scan.
+     * @return the number of measured queries.
+     */
+    public long getScannedQueries() {
+        return queries.sum();
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        return query(dictionary -> dictionary.findMatchingWords(pattern));
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        return query(dictionary -> dictionary.countMatchingWords(pattern));
+    }
+
+    /**
+     * Streams the matching words of the current engine. Streams are lazy and thus not measured.
+     */
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        return engine.streamMatchingWords(pattern);
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int limit) {
+        return query(dictionary -> dictionary.findMatchingWords(pattern, limit));
+    }
+
+    /**
+     * Searches for one page of words in lexicographic order. The scan sorts its matches for this, so pages stay consistent
+     * when the index replaces the scan, as long as the index pages in lexicographic order as well, like the default index.
+     */
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        SearchableDictionary.checkPage(offset, limit);
+        return query(dictionary -> dictionary != scan ? dictionary.findMatchingWords(pattern, offset, limit)
+                : scan.streamMatchingWords(pattern).sorted().skip(offset).limit(limit).toList());
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        return query(dictionary -> dictionary.findMatchingWordsAfter(pattern, cursor, limit));
+    }
+
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        return query(dictionary -> dictionary.findMatchingWordsForAll(patterns));
+    }
+
+    @Override
+    public List<String> findFuzzyMatches(String pattern, int maxEdits) {
+        return query(dictionary -> dictionary.findFuzzyMatches(pattern, maxEdits));
+    }
+
+    @Override
+    public List<String> findWildcardMatches(String pattern) {
+        return query(dictionary -> dictionary.findWildcardMatches(pattern));
+    }
+
+    @Override
+    public List<String> findWordsContaining(String fragment) {
+        return query(dictionary -> dictionary.findWordsContaining(fragment));
+    }
+
+    /**
+     * Estimates the memory of the words and, once it is built, of the index. Words that the index shares with the scan are
+     * counted twice.
+     */
+    @Override
+    public long memoryFootprint() {
+        SearchableDictionary current = engine;
+        return current == scan ? scan.memoryFootprint() : scan.memoryFootprint() + current.memoryFootprint();
+    }
+
+    /**
+     * Answers a query with the current engine, or with the index once it is built if the build is running. Scans are
+     * measured and start the build once their total latency exceeds the estimated cost of the build.
+     */
+    private <T> T query(Function<SearchableDictionary, T> query) {
+        SearchableDictionary current = engine;
+        if (current == scan && buildStarted.get() && !buildFailed) {
+            current = awaitIndex();
+        }
+        if (current != scan) {
+            return query.apply(current);
+        }
+        long start = System.nanoTime();
+        T result = query.apply(current);
+        long duration = System.nanoTime() - start;
+        queries.increment();
+        scanNanos.add(duration);
+        long cheapestScan = cheapestScanNanos.accumulateAndGet(duration, Math::min);
+        if (!buildStarted.get() && scanNanos.sum() >= buildCostInScans() * cheapestScan) {
+            upgrade();
+        }
+        return result;
+    }
+
+    /**
+     * Builds the index and learns its cost relative to the cheapest scan, if any scan was measured. Explicit upgrades
+     * before the first query have no scan to relate to and thus do not affect the learned cost.
+     */
+    private SearchableDictionary buildIndex() {
+        long start = System.nanoTime();
+        SearchableDictionary built = indexFactory.apply(words);
+        long buildNanos = System.nanoTime() - start;
+        long cheapestScan = cheapestScanNanos.get();
+        if (cheapestScan != Long.MAX_VALUE && cheapestScan > 0) {
+            double costInScans = buildNanos / (double) cheapestScan;
+            BUILD_COSTS_IN_SCANS.merge(indexName, costInScans, (old, latest) -> old + LEARNING_RATE * (latest - old));
+        }
+        return built;
+    }
+
+    private double buildCostInScans() {
+        return BUILD_COSTS_IN_SCANS.getOrDefault(indexName, INITIAL_BUILD_COST_IN_SCANS);
+    }
+
+    /**
+     * Waits for the running build of the index.
+     * @return the index, or the scan if the build failed.
+     */
+    private SearchableDictionary awaitIndex() {
+        try {
+            return index.join();
+        } catch (CompletionException exception) {
+            return scan;
+        }
+    }
+}
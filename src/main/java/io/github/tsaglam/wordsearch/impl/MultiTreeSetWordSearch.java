@@ -1,37 +1,40 @@
 package io.github.tsaglam.wordsearch.impl;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import io.github.tsaglam.wordsearch.KeyRangeSharding;
+import io.github.tsaglam.wordsearch.MemoryEstimate;
 import io.github.tsaglam.wordsearch.SearchableDictionary;
 
 /**
- * Parallel implementation of a searchable dictionary based on a forest of tree sets.
+ * Parallel implementation of a searchable dictionary based on a forest of tree sets. The tree sets are shards of disjoint
+ * key ranges (see {@link KeyRangeSharding}), so queries only search the tree sets that overlap the pattern, and the
+ * matching words are returned in lexicographic order.
  */
 public class MultiTreeSetWordSearch implements SearchableDictionary {
 
+    private final KeyRangeSharding sharding;
     private final List<TreeSet<String>> dictionaries;
 
     /**
      * Creates the dictionary.
      * @param words specifies the content, cannot be null.
-     * @param numberOfTrees specifies how many trees are managed in parallel.
-     * @throws IllegalArgumentException if words is null.
+     * @param numberOfTrees specifies the maximum number of trees, which are balanced by sampling the words.
+     * @throws IllegalArgumentException if words is null or the number of trees is not positive.
      */
     public MultiTreeSetWordSearch(List<String> words, int numberOfTrees) {
-        if (words == null) {
-            throw new IllegalArgumentException("Input words cannot be null.");
-        }
-
-        int bucketSize = Math.ceilDivExact(words.size(), numberOfTrees);
-        List<List<String>> sublists = new ArrayList<>();
-        for (int i = 0; i < words.size(); i += bucketSize) {
-            int end = Math.min(i + bucketSize, words.size());
-            sublists.add(words.subList(i, end));
-        }
-
-        dictionaries = sublists.parallelStream().map(TreeSet::new).toList();
+        sharding = KeyRangeSharding.sample(words, numberOfTrees);
+        dictionaries = sharding.partition(words).parallelStream().map(TreeSet::new).toList();
     }
 
     /**
@@ -48,7 +51,65 @@ public class MultiTreeSetWordSearch implements SearchableDictionary {
             throw new IllegalArgumentException("Pattern cannot be null.");
         }
         String nextPrefix = pattern + Character.MAX_VALUE;
-        return dictionaries.stream().parallel().flatMap(it -> it.subSet(pattern, nextPrefix).stream()).toList();
+        return sharding.fanOut(dictionaries, pattern).flatMap(it -> it.subSet(pattern, nextPrefix).stream()).toList();
     }
 
+    /**
+     * Searches for the matching words of multiple patterns at once, with one task per tree set for the patterns that are
+     * routed to it instead of one task per pattern.
+     */
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        String[] sortedPatterns = SearchableDictionary.sortedPatterns(patterns);
+        List<List<String>> treePatterns = IntStream.range(0, dictionaries.size()).<List<String>>mapToObj(it -> new ArrayList<>()).toList();
+        for (String pattern : sortedPatterns) {
+            sharding.route(treePatterns, pattern).forEach(it -> it.add(pattern));
+        }
+        List<Map<String, String[]>> treeResults = IntStream.range(0, dictionaries.size()).parallel() // one task per tree
+                .mapToObj(tree -> treePatterns.get(tree).stream().collect(Collectors.toMap(Function.identity(),
+                        it -> dictionaries.get(tree).subSet(it, it + Character.MAX_VALUE).toArray(String[]::new))))
+                .toList();
+        Map<String, List<String>> results = new HashMap<>();
+        for (String pattern : sortedPatterns) {
+            List<String> words = new ArrayList<>();
+            for (Map<String, String[]> treeResult : sharding.route(treeResults, pattern)) {
+                words.addAll(Arrays.asList(treeResult.get(pattern)));
+            }
+            results.put(pattern, words);
+        }
+        return results;
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        String nextPrefix = pattern + Character.MAX_VALUE;
+        return sharding.fanOut(dictionaries, pattern).mapToInt(it -> it.subSet(pattern, nextPrefix).size()).sum();
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        String nextPrefix = pattern + Character.MAX_VALUE;
+        return sharding.route(dictionaries, pattern).stream().flatMap(it -> it.subSet(pattern, nextPrefix).stream());
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        SearchableDictionary.checkCursor(cursor, limit);
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return sharding.routeAfter(dictionaries, pattern, cursor).stream().flatMap(it -> TreeSetWordSearch.subSetAfter(it, pattern, cursor).stream())
+                .limit(limit).toList(); // lazily in order of the key ranges, until the page is full
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return dictionaries.stream().mapToLong(MemoryEstimate::ofTreeSet).sum();
+    }
 }
@@ -1,6 +1,7 @@
 package io.github.tsaglam.wordsearch.impl;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 import io.github.tsaglam.wordsearch.SearchableDictionary;
 
@@ -31,4 +32,20 @@ public class NaiveWordSearch implements SearchableDictionary {
         return words.stream().filter(it -> it.startsWith(pattern)).toList();
     }
 
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return (int) words.stream().filter(it -> it.startsWith(pattern)).count();
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return words.stream().filter(it -> it.startsWith(pattern));
+    }
+
 }
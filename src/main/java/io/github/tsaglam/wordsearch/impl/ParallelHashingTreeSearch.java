@@ -5,7 +5,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
+import io.github.tsaglam.wordsearch.MemoryEstimate;
 import io.github.tsaglam.wordsearch.SearchableDictionary;
 
 /**
@@ -13,6 +15,10 @@ import io.github.tsaglam.wordsearch.SearchableDictionary;
  */
 public class ParallelHashingTreeSearch implements SearchableDictionary {
 
+    private static final long MAP_ENTRY_SIZE = MemoryEstimate.ofObject(Integer.BYTES + 3 * MemoryEstimate.REFERENCE);
+    private static final long SYNCHRONIZED_LIST_SIZE = MemoryEstimate.ofObject(3 * MemoryEstimate.REFERENCE);
+    private static final long ARRAY_LIST_SIZE = MemoryEstimate.ofObject(2 * Integer.BYTES + MemoryEstimate.REFERENCE);
+
     private final Map<String, List<String>> prefixToWords;
 
     /**
@@ -43,4 +49,30 @@ public class ParallelHashingTreeSearch implements SearchableDictionary {
         return prefixToWords.getOrDefault(pattern, List.of());
     }
 
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        return findMatchingWords(pattern).stream();
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        SearchableDictionary.checkPage(offset, limit);
+        List<String> words = findMatchingWords(pattern);
+        int start = Math.min(offset, words.size());
+        int end = start + Math.min(limit, words.size() - start);
+        return List.copyOf(words.subList(start, end));
+    }
+
+    /**
+     * Estimates the memory of the hash map, where each prefix is a key with a synchronized list of its words. The words
+     * themselves are counted once, as all lists reference the same strings.
+     */
+    @Override
+    public long memoryFootprint() {
+        long wordLists = prefixToWords.entrySet().parallelStream().filter(it -> !it.getKey().isEmpty())
+                .mapToLong(it -> MAP_ENTRY_SIZE + MemoryEstimate.ofString(it.getKey()) + SYNCHRONIZED_LIST_SIZE + ARRAY_LIST_SIZE
+                        + MemoryEstimate.ofArray(it.getValue().size(), MemoryEstimate.REFERENCE))
+                .sum();
+        return MemoryEstimate.ofArray(prefixToWords.size(), MemoryEstimate.REFERENCE) + wordLists + MemoryEstimate.ofList(prefixToWords.get(""));
+    }
 }
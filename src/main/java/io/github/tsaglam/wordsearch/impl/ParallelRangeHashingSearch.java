@@ -0,0 +1,192 @@
+package io.github.tsaglam.wordsearch.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.MemoryEstimate;
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Parallel implementation of a searchable dictionary based on hashing prefixes to ranges. In contrast to
+ * {@link ParallelHashingTreeSearch}, the words are sorted once in parallel, and each distinct prefix is mapped to the
+ * range of words in the sorted array that start with it. The ranges are stored in a flat open-addressing table of
+ * primitive integers, keyed by the hash code of the prefix, so no prefix strings or per-prefix lists are allocated.
+ * Results are zero-copy views of the sorted array.
+ */
+public class ParallelRangeHashingSearch implements SearchableDictionary {
+
+    private static final int SLOT_SIZE = 4; // hash code, prefix length, range start, and exclusive range end
+    private static final int HASH = 0;
+    private static final int LENGTH = 1;
+    private static final int START = 2;
+    private static final int END = 3; // zero for empty slots, as ranges are never empty
+    private static final int MAXIMUM_CAPACITY = 1 << 28;
+
+    private final String[] sortedWords;
+    private final List<String> sortedView;
+    private final int[] table;
+    private final int mask;
+    private final int shift;
+
+    /**
+     * Creates the dictionary.
+     * @param words specifies the content, cannot be null.
+     * @throws IllegalArgumentException if words is null or contain too many distinct prefixes.
+     */
+    public ParallelRangeHashingSearch(List<String> words) {
+        if (words == null) {
+            throw new IllegalArgumentException("Input words cannot be null.");
+        }
+        sortedWords = words.toArray(String[]::new);
+        Arrays.parallelSort(sortedWords);
+        sortedView = Collections.unmodifiableList(Arrays.asList(sortedWords));
+
+        long numberOfPrefixes = IntStream.range(0, sortedWords.length).parallel().mapToLong(this::countNewPrefixes).sum();
+        if (numberOfPrefixes >= MAXIMUM_CAPACITY / 2) {
+            throw new IllegalArgumentException("Input words contain too many distinct prefixes: " + numberOfPrefixes);
+        }
+        int capacity = Integer.highestOneBit((int) Math.max(2, numberOfPrefixes * 3 / 2) * 2 - 1); // load factor below 2/3
+        table = new int[capacity * SLOT_SIZE];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        indexPrefixes();
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        int slot = findSlot(pattern);
+        if (slot < 0) {
+            return pattern.isEmpty() ? sortedView : List.of();
+        }
+        return sortedView.subList(table[slot + START], table[slot + END]);
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        int slot = findSlot(pattern);
+        if (slot < 0) {
+            return pattern.isEmpty() ? sortedWords.length : 0;
+        }
+        return table[slot + END] - table[slot + START];
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        return findMatchingWords(pattern).stream();
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        SearchableDictionary.checkPage(offset, limit);
+        List<String> matches = findMatchingWords(pattern);
+        int start = Math.min(offset, matches.size());
+        return matches.subList(start, start + Math.min(limit, matches.size() - start));
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        SearchableDictionary.checkCursor(cursor, limit);
+        List<String> matches = findMatchingWords(pattern);
+        int index = Collections.binarySearch(matches, cursor);
+        int start = index < 0 ? -index - 1 : index + 1;
+        while (start < matches.size() && matches.get(start).equals(cursor)) {
+            start++; // skip duplicates of the cursor
+        }
+        return matches.subList(start, start + Math.min(limit, matches.size() - start));
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return MemoryEstimate.ofArray(sortedWords.length, MemoryEstimate.REFERENCE) + MemoryEstimate.ofStrings(sortedView)
+                + MemoryEstimate.ofArray(table.length, Integer.BYTES);
+    }
+
+    /**
+     * Finds the table slot of a non-empty pattern. Entries with the same hash code are verified by their prefix length and
+     * by the first word of their range, which together identify the prefix uniquely.
+     * @return the slot offset in the table or -1 if the pattern is empty or no word matches.
+     */
+    private int findSlot(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        if (pattern.isEmpty()) {
+            return -1;
+        }
+        int hash = pattern.hashCode();
+        for (int slot = home(hash); table[slot * SLOT_SIZE + END] != 0; slot = (slot + 1) & mask) {
+            int offset = slot * SLOT_SIZE;
+            if (table[offset + HASH] == hash && table[offset + LENGTH] == pattern.length()
+                    && sortedWords[table[offset + START]].startsWith(pattern)) {
+                return offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the prefixes of a sorted word that are not shared with its predecessor.
+     */
+    private int countNewPrefixes(int index) {
+        return sortedWords[index].length() - (index == 0 ? 0 : commonPrefixLength(sortedWords[index - 1], sortedWords[index]));
+    }
+
+    /**
+     * Indexes all distinct non-empty prefixes in a single pass over the sorted words. The ranges of the prefixes of the
+     * current word are open until a word with a shorter common prefix is reached. The hash codes of the prefixes are
+     * computed incrementally, in the same way as {@link String#hashCode()}, so no substrings are created.
+     */
+    private void indexPrefixes() {
+        int[] openStarts = new int[16];
+        int[] openHashes = new int[16];
+        int openLength = 0;
+        for (int index = 0; index <= sortedWords.length; index++) {
+            String word = index < sortedWords.length ? sortedWords[index] : "";
+            int commonLength = index == 0 || index == sortedWords.length ? 0 : commonPrefixLength(sortedWords[index - 1], word);
+            for (int length = openLength; length > commonLength; length--) {
+                insert(openHashes[length], length, openStarts[length], index); // close ranges
+            }
+            if (word.length() >= openStarts.length) {
+                openStarts = Arrays.copyOf(openStarts, 2 * word.length());
+                openHashes = Arrays.copyOf(openHashes, 2 * word.length());
+            }
+            for (int length = commonLength + 1; length <= word.length(); length++) {
+                openHashes[length] = 31 * openHashes[length - 1] + word.charAt(length - 1); // open ranges
+                openStarts[length] = index;
+            }
+            openLength = word.length();
+        }
+    }
+
+    private void insert(int hash, int length, int start, int end) {
+        int slot = home(hash);
+        while (table[slot * SLOT_SIZE + END] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int offset = slot * SLOT_SIZE;
+        table[offset + HASH] = hash;
+        table[offset + LENGTH] = length;
+        table[offset + START] = start;
+        table[offset + END] = end;
+    }
+
+    /**
+     * Computes the first slot to probe via Fibonacci hashing, which uses the well-mixed upper bits of the product.
+     */
+    private int home(int hash) {
+        return (hash * 0x9E3779B9) >>> shift;
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        for (int index = 0; index < length; index++) {
+            if (first.charAt(index) != second.charAt(index)) {
+                return index;
+            }
+        }
+        return length;
+    }
+}
@@ -1,6 +1,17 @@
 package io.github.tsaglam.wordsearch.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import io.github.tsaglam.wordsearch.SearchableDictionary;
 
@@ -31,4 +42,105 @@ public class ParallelStreamWordSearch implements SearchableDictionary {
         return words.stream().parallel().filter(it -> it.startsWith(pattern)).toList();
     }
 
+    /**
+     * Searches for the matching words of multiple patterns in a single parallel pass over the words, which looks up the
+     * prefixes of each word that have the length of any pattern.
+     */
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        SearchableDictionary.checkPatterns(patterns);
+        Set<String> patternSet = new HashSet<>(patterns);
+        int[] patternLengths = patternSet.stream().mapToInt(String::length).distinct().sorted().toArray();
+        Map<String, List<String>> results = new HashMap<>();
+        patternSet.forEach(it -> results.put(it, List.of()));
+        results.putAll(words.stream().parallel().flatMap(word -> matchingPatterns(word, patternSet, patternLengths).map(it -> Map.entry(it, word)))
+                .collect(Collectors.groupingBy(Map.Entry::getKey, Collectors.mapping(Map.Entry::getValue, Collectors.toList()))));
+        return results;
+    }
+
+    private static Stream<String> matchingPatterns(String word, Set<String> patterns, int[] patternLengths) {
+        Stream.Builder<String> matches = Stream.builder();
+        for (int length : patternLengths) {
+            if (length > word.length()) {
+                break;
+            }
+            String prefix = word.substring(0, length);
+            if (patterns.contains(prefix)) {
+                matches.add(prefix);
+            }
+        }
+        return matches.build();
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return (int) words.stream().parallel().filter(it -> it.startsWith(pattern)).count();
+    }
+
+    /**
+     * Streams the matching words sequentially, as the operations of the caller would otherwise run on the common pool. The
+     * searching methods of this class scan in parallel instead.
+     */
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return words.stream().filter(it -> it.startsWith(pattern));
+    }
+
+    /**
+     * Searches for one page of words in the order of the words, with a parallel scan that stops once the page is complete.
+     */
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        SearchableDictionary.checkPage(offset, limit);
+        return words.stream().parallel().filter(it -> it.startsWith(pattern)).skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * Searches for the next page of words after the cursor with a parallel scan, in which each thread only keeps the
+     * smallest matches that fit on the page, instead of sorting all matches.
+     */
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        SearchableDictionary.checkCursor(cursor, limit);
+        if (limit == 0) {
+            return List.of();
+        }
+        return words.stream().parallel().filter(it -> it.startsWith(pattern) && it.compareTo(cursor) > 0).collect(smallest(limit));
+    }
+
+    /**
+     * Collects the smallest elements in ascending order, using a max-heap per thread that is bounded to the limit.
+     */
+    private static Collector<String, PriorityQueue<String>, List<String>> smallest(int limit) {
+        return Collector.of(() -> new PriorityQueue<>(Comparator.reverseOrder()), (heap, word) -> offerBounded(heap, word, limit), (left, right) -> {
+            right.forEach(it -> offerBounded(left, it, limit));
+            return left;
+        }, heap -> {
+            List<String> result = new ArrayList<>(heap);
+            result.sort(null);
+            return result;
+        }, Collector.Characteristics.UNORDERED);
+    }
+
+    private static void offerBounded(PriorityQueue<String> heap, String word, int limit) {
+        if (heap.size() < limit) {
+            heap.add(word);
+        } else if (word.compareTo(heap.peek()) < 0) {
+            heap.poll();
+            heap.add(word);
+        }
+    }
+
 }
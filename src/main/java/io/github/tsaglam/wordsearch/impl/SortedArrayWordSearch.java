@@ -0,0 +1,177 @@
+package io.github.tsaglam.wordsearch.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.MemoryEstimate;
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Implementation of a searchable dictionary based on a sorted array. The array is sorted once in parallel, which is much
+ * cheaper than inserting the words into a tree set one by one and avoids the overhead of the tree nodes. The matching
+ * words of a pattern are a contiguous slice of the array, which is found with two binary searches and returned as an
+ * unmodifiable view without copying. Batches of patterns are merged against the array in a single pass.
+ */
+public class SortedArrayWordSearch implements SearchableDictionary {
+
+    private final String[] sortedWords;
+    private final List<String> sortedView;
+
+    /**
+     * Creates the dictionary.
+     * @param words specifies the content, cannot be null.
+     * @throws IllegalArgumentException if words is null.
+     */
+    public SortedArrayWordSearch(List<String> words) {
+        if (words == null) {
+            throw new IllegalArgumentException("Input words cannot be null.");
+        }
+        sortedWords = words.toArray(String[]::new);
+        Arrays.parallelSort(sortedWords);
+        sortedView = Collections.unmodifiableList(Arrays.asList(sortedWords));
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        int start = lowerBound(pattern);
+        return sortedView.subList(start, upperBound(pattern, start));
+    }
+
+    /**
+     * Searches for the matching words of multiple patterns in a single pass over the array. The patterns are sorted, so the
+     * lower bound of each pattern is at or after the lower bound of the previous one and is found by galloping forward.
+     */
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        Map<String, List<String>> results = new HashMap<>();
+        int start = 0;
+        for (String pattern : SearchableDictionary.sortedPatterns(patterns)) {
+            start = lowerBound(pattern, start);
+            results.put(pattern, sortedView.subList(start, upperBound(pattern, start)));
+        }
+        return results;
+    }
+
+    /**
+     * Counts the matching words by the distance of their bounds, which does not touch any words in between.
+     */
+    @Override
+    public int countMatchingWords(String pattern) {
+        int start = lowerBound(pattern);
+        return upperBound(pattern, start) - start;
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        return findMatchingWords(pattern).stream();
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        SearchableDictionary.checkPage(offset, limit);
+        List<String> matches = findMatchingWords(pattern);
+        int start = Math.min(offset, matches.size());
+        return matches.subList(start, start + Math.min(limit, matches.size() - start));
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        SearchableDictionary.checkCursor(cursor, limit);
+        int lowerBound = lowerBound(pattern);
+        int end = upperBound(pattern, lowerBound);
+        int start = Math.max(lowerBound, firstGreater(cursor));
+        return sortedView.subList(Math.min(start, end), Math.min(start + limit, end));
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return MemoryEstimate.ofArray(sortedWords.length, MemoryEstimate.REFERENCE) + MemoryEstimate.ofStrings(sortedView);
+    }
+
+    /**
+     * Returns all words in lexicographic order, where the index of a word serves as its identifier.
+     * @return the unmodifiable view of the sorted words.
+     */
+    /* package-private */ List<String> getSortedWords() {
+        return sortedView;
+    }
+
+    /**
+     * Finds the index of the first word that is not lexicographically smaller than the pattern.
+     */
+    private int lowerBound(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return lowerBound(pattern, 0, sortedWords.length);
+    }
+
+    /**
+     * Finds the index of the first word that is not lexicographically smaller than the pattern, given that all words before
+     * an index are smaller. Gallops forward from that index, so the costs are logarithmic in the distance to the result.
+     */
+    private int lowerBound(String pattern, int from) {
+        int low = from;
+        int high = from;
+        int step = 1;
+        while (high < sortedWords.length && sortedWords[high].compareTo(pattern) < 0) {
+            low = high + 1;
+            high = (int) Math.min(sortedWords.length, (long) high + step);
+            step *= 2;
+        }
+        return lowerBound(pattern, low, high);
+    }
+
+    private int lowerBound(String pattern, int low, int high) {
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedWords[middle].compareTo(pattern) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the index of the first word after the lower bound that does not have the pattern as prefix. This is the
+     * exclusive bound {@code pattern + Character.MAX_VALUE}, without creating that string and without missing words that
+     * contain {@link Character#MAX_VALUE} themselves.
+     */
+    private int upperBound(String pattern, int lowerBound) {
+        int low = lowerBound;
+        int high = sortedWords.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedWords[middle].startsWith(pattern)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the index of the first word that is lexicographically greater than the cursor.
+     */
+    private int firstGreater(String cursor) {
+        int low = 0;
+        int high = sortedWords.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedWords[middle].compareTo(cursor) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
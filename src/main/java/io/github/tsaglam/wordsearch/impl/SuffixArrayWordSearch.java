@@ -0,0 +1,197 @@
+package io.github.tsaglam.wordsearch.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import io.github.tsaglam.wordsearch.MemoryEstimate;
+
+/**
+ * Implementation of a searchable dictionary that indexes all infixes of its words with a generalized suffix array. The
+ * sorted words are concatenated into a single character arena, and the suffix array contains every position of the arena,
+ * sorted by the suffix of its word that starts there. All suffixes that start with a fragment are thus a contiguous range
+ * of the suffix array, which is found with a binary search. Each suffix also stores the identifier of its word, which is
+ * its index in the sorted words, so the range is mapped to the words by sorting and deduplicating the identifiers, which
+ * also returns the words in lexicographic order. The suffix array is built in parallel without boxing: The suffixes are
+ * sorted by primitive keys of their first characters and their position, and only suffixes with equal characters are
+ * sorted further by the keys of their next characters. Prefix queries are answered by the sorted words, see
+ * {@link SortedArrayWordSearch}.
+ */
+public class SuffixArrayWordSearch extends SortedArrayWordSearch {
+
+    private static final int KEY_CHARACTERS = 2; // number of characters that are sorted as primitive key
+    private static final int CHARACTER_BITS = 17; // characters are stored incremented by one, so zero marks the word end
+    private static final int POSITION_BITS = Long.SIZE - KEY_CHARACTERS * CHARACTER_BITS;
+    private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+
+    private final char[] arena;
+    private final int[] wordStarts; // arena offset of each word and the arena end
+    private final int[] suffixes; // arena positions in the order of their suffixes
+    private final int[] suffixWords; // word identifier of each suffix, in the same order
+
+    /**
+     * Creates the dictionary.
+     * @param words specifies the content, cannot be null.
+     * @throws IllegalArgumentException if words is null or exceeds the maximum total number of characters.
+     */
+    @SuppressWarnings("this-escape") // the constructor builds the index with private methods only
+    public SuffixArrayWordSearch(List<String> words) {
+        super(words);
+        List<String> sortedWords = getSortedWords();
+        wordStarts = new int[sortedWords.size() + 1];
+        long arenaSize = 0;
+        for (int word = 0; word < sortedWords.size(); word++) {
+            arenaSize += sortedWords.get(word).length();
+            if (arenaSize > POSITION_MASK) {
+                throw new IllegalArgumentException("Input words exceed the maximum number of characters: " + POSITION_MASK);
+            }
+            wordStarts[word + 1] = (int) arenaSize;
+        }
+        arena = new char[(int) arenaSize];
+        int[] positionWords = new int[arena.length];
+        IntStream.range(0, sortedWords.size()).parallel().forEach(word -> {
+            sortedWords.get(word).getChars(0, sortedWords.get(word).length(), arena, wordStarts[word]);
+            Arrays.fill(positionWords, wordStarts[word], wordStarts[word + 1], word);
+        });
+        long[] keys = new long[arena.length];
+        Arrays.parallelSetAll(keys, position -> keyOf(position, wordStarts[positionWords[position] + 1], 0));
+        Arrays.parallelSort(keys);
+        suffixes = new int[arena.length];
+        Arrays.parallelSetAll(suffixes, index -> (int) (keys[index] & POSITION_MASK));
+        sortRuns(keys, positionWords);
+        suffixWords = new int[arena.length];
+        Arrays.parallelSetAll(suffixWords, index -> positionWords[suffixes[index]]);
+    }
+
+    /**
+     * Searches for all words that contain the fragment with a binary search over the suffix array. A word that contains
+     * the fragment multiple times is returned once per occurrence in the input words, like the prefix search.
+     * @param fragment specifies the fragment to search for.
+     * @return the matching words in lexicographic order or an empty list if none match.
+     * @throws IllegalArgumentException if the fragment is null.
+     */
+    @Override
+    public List<String> findWordsContaining(String fragment) {
+        if (fragment == null) {
+            throw new IllegalArgumentException("Fragment cannot be null.");
+        }
+        if (fragment.isEmpty()) {
+            return getSortedWords(); // every word contains the empty fragment, also the empty word
+        }
+        int start = firstSuffix(fragment, false);
+        int[] words = Arrays.copyOfRange(suffixWords, start, firstSuffix(fragment, true));
+        Arrays.parallelSort(words);
+        int size = 0;
+        for (int index = 0; index < words.length; index++) {
+            if (index == 0 || words[index] != words[index - 1]) {
+                words[size++] = words[index];
+            }
+        }
+        String[] results = new String[size];
+        List<String> sortedWords = getSortedWords();
+        Arrays.setAll(results, index -> sortedWords.get(words[index]));
+        return Collections.unmodifiableList(Arrays.asList(results));
+    }
+
+    /**
+     * Estimates the memory of the sorted words and the suffix array, which needs four arrays with one entry per character.
+     */
+    @Override
+    public long memoryFootprint() {
+        return super.memoryFootprint() + MemoryEstimate.ofArray(arena.length, Character.BYTES)
+                + MemoryEstimate.ofArray(wordStarts.length, Integer.BYTES) + MemoryEstimate.ofArray(suffixes.length, Integer.BYTES)
+                + MemoryEstimate.ofArray(suffixWords.length, Integer.BYTES);
+    }
+
+    /**
+     * Finds the index of the first suffix that is not smaller than the fragment, or the first suffix that is greater than
+     * the fragment and does not start with it.
+     */
+    private int firstSuffix(String fragment, boolean afterMatches) {
+        int low = 0;
+        int high = suffixes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareToFragment(middle, fragment);
+            if (comparison < 0 || afterMatches && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares a suffix to a fragment, where suffixes that start with the fragment are considered equal.
+     */
+    private int compareToFragment(int index, String fragment) {
+        int position = suffixes[index];
+        int end = wordStarts[suffixWords[index] + 1];
+        for (int offset = 0; offset < fragment.length(); offset++) {
+            if (position + offset == end) {
+                return -1; // the suffix is a proper prefix of the fragment
+            }
+            int difference = arena[position + offset] - fragment.charAt(offset);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Computes the sort key of a suffix, which consists of its next characters after an offset and its position.
+     */
+    private long keyOf(int position, int end, int offset) {
+        long key = 0;
+        for (int index = position + offset; index < position + offset + KEY_CHARACTERS; index++) {
+            int character = index < end ? arena[index] + 1 : 0;
+            key = key << CHARACTER_BITS | character;
+        }
+        return (key << POSITION_BITS | position) ^ Long.MIN_VALUE; // unsigned order as signed order
+    }
+
+    /**
+     * Sorts the runs of suffixes whose keys have equal characters by their next characters, as a most significant digit
+     * radix sort with a primitive sort per digit. The runs are independent and thus sorted in parallel.
+     */
+    private void sortRuns(long[] keys, int[] positionWords) {
+        int[] runStarts = IntStream.rangeClosed(0, keys.length).filter(index -> isRunStart(keys, index)).toArray();
+        IntStream.range(0, runStarts.length - 1).parallel().forEach(run -> sortRun(keys, positionWords, runStarts[run], runStarts[run + 1], 0));
+    }
+
+    /**
+     * Sorts a run of suffixes whose keys at the given offset have equal characters by the characters after the key.
+     */
+    private void sortRun(long[] keys, int[] positionWords, int start, int end, int offset) {
+        if (end - start < 2 || (characters(keys[start]) & (1L << CHARACTER_BITS) - 1) == 0) {
+            return; // a single suffix, or all suffixes end within the key and are thus equal
+        }
+        int nextOffset = offset + KEY_CHARACTERS;
+        for (int index = start; index < end; index++) {
+            keys[index] = keyOf(suffixes[index], wordStarts[positionWords[suffixes[index]] + 1], nextOffset);
+        }
+        Arrays.sort(keys, start, end);
+        int runStart = start;
+        for (int index = start; index < end; index++) {
+            suffixes[index] = (int) (keys[index] & POSITION_MASK);
+            if (index + 1 == end || characters(keys[index + 1]) != characters(keys[runStart])) {
+                sortRun(keys, positionWords, runStart, index + 1, nextOffset);
+                runStart = index + 1;
+            }
+        }
+    }
+
+    private static boolean isRunStart(long[] keys, int index) {
+        return index == 0 || index == keys.length || characters(keys[index]) != characters(keys[index - 1]);
+    }
+
+    /**
+     * Returns the characters of a sort key without the position.
+     */
+    private static long characters(long key) {
+        return key >>> POSITION_BITS;
+    }
+}
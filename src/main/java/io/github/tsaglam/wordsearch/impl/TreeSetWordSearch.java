@@ -1,9 +1,13 @@
 package io.github.tsaglam.wordsearch.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.NavigableSet;
 import java.util.TreeSet;
+import java.util.stream.Stream;
 
+import io.github.tsaglam.wordsearch.MemoryEstimate;
 import io.github.tsaglam.wordsearch.SearchableDictionary;
 
 /**
@@ -37,4 +41,57 @@ public class TreeSetWordSearch implements SearchableDictionary {
         return new ArrayList<>(dictionary.subSet(pattern, nextPrefix));
     }
 
+    /**
+     * Counts the matching words by walking the sub set view, which does not copy any words.
+     */
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        String nextPrefix = pattern + Character.MAX_VALUE;
+        return dictionary.subSet(pattern, nextPrefix).size();
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        String nextPrefix = pattern + Character.MAX_VALUE;
+        return dictionary.subSet(pattern, nextPrefix).stream();
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        SearchableDictionary.checkCursor(cursor, limit);
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return subSetAfter(dictionary, pattern, cursor).stream().limit(limit).toList();
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return MemoryEstimate.ofTreeSet(dictionary);
+    }
+
+    /**
+     * Returns the view of all words in a sorted set that have the pattern as prefix and are greater than the cursor.
+     * @param words is the sorted set of words.
+     * @param pattern specifies the search pattern.
+     * @param cursor specifies the exclusive lower bound of the words.
+     * @return the view of the matching words.
+     */
+    /* package-private */ static NavigableSet<String> subSetAfter(NavigableSet<String> words, String pattern, String cursor) {
+        String nextPrefix = pattern + Character.MAX_VALUE;
+        if (cursor.compareTo(pattern) < 0) {
+            return words.subSet(pattern, true, nextPrefix, false);
+        }
+        if (cursor.compareTo(nextPrefix) >= 0) {
+            return Collections.emptyNavigableSet();
+        }
+        return words.subSet(cursor, false, nextPrefix, false);
+    }
+
 }
@@ -0,0 +1,321 @@
+package io.github.tsaglam.wordsearch.mapped;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Searchable dictionary that is served directly from a buffer in the format of {@link DictionaryFile}, which is usually
+ * not located on the heap. Queries use binary searches on the encoded words in the buffer, and only the matching words
+ * are decoded into strings. The words are ordered by their UTF-8 bytes, which is the order of their Unicode code points.
+ * This equals the lexicographic order of strings unless supplementary characters are mixed with characters above
+ * {@code U+E000}. <b>Thread safety:</b> This class is immutable and thus supports concurrent use.
+ */
+/* package-private */ abstract class BufferWordSearch implements SearchableDictionary {
+
+    private static final int PARALLEL_DECODING_THRESHOLD = 4096; // number of words above which they are decoded in parallel
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int offsetTable;
+    private final int arena;
+
+    /**
+     * Creates the dictionary from a buffer.
+     * @param buffer is the buffer, which must be valid and must not be modified afterwards.
+     * @see #validate(ByteBuffer)
+     */
+    /* package-private */ BufferWordSearch(ByteBuffer buffer) {
+        this.buffer = buffer;
+        size = buffer.getInt(2 * Integer.BYTES);
+        offsetTable = DictionaryFile.HEADER_SIZE + DictionaryFile.JUMP_TABLE_SIZE;
+        arena = offsetTable + (size + 1) * Integer.BYTES;
+    }
+
+    /**
+     * Checks whether a buffer contains a dictionary in the supported version of the format.
+     * @param buffer is the buffer to check.
+     * @return the buffer.
+     * @throws IOException if the buffer does not contain a valid dictionary.
+     */
+    /* package-private */ static ByteBuffer validate(ByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < DictionaryFile.HEADER_SIZE || buffer.getInt(0) != DictionaryFile.MAGIC) {
+            throw new IOException("Not a dictionary file.");
+        }
+        if (buffer.getInt(Integer.BYTES) != DictionaryFile.VERSION) {
+            throw new IOException("Unsupported dictionary file version: " + buffer.getInt(Integer.BYTES));
+        }
+        long size = buffer.getInt(2 * Integer.BYTES);
+        long arena = DictionaryFile.HEADER_SIZE + DictionaryFile.JUMP_TABLE_SIZE + (size + 1) * Integer.BYTES;
+        if (size < 0 || arena + buffer.getInt(3 * Integer.BYTES) != buffer.capacity()) {
+            throw new IOException("Dictionary file is truncated or corrupted.");
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns the number of words in the dictionary.
+     * @return the total number of words.
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        Key key = encode(pattern);
+        int start = lowerBound(key.bytes());
+        return decode(start, end(key, start));
+    }
+
+    /**
+     * Searches for the matching words of multiple patterns in a single pass over the buffer. The patterns are sorted, so
+     * the search for each pattern starts at the lower bound of the previous one. Only if the order of the encoded pattern
+     * differs from the order of the strings, which requires supplementary characters, the search starts from the beginning.
+     */
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        Map<String, List<String>> results = new HashMap<>();
+        byte[] previousKey = new byte[0];
+        int start = 0;
+        for (String pattern : SearchableDictionary.sortedPatterns(patterns)) {
+            Key key = encode(pattern);
+            start = lowerBound(key.bytes(), Arrays.compareUnsigned(previousKey, key.bytes()) <= 0 ? start : 0);
+            results.put(pattern, decode(start, end(key, start)));
+            previousKey = key.bytes();
+        }
+        return results;
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        Key key = encode(pattern);
+        int start = lowerBound(key.bytes());
+        return end(key, start) - start;
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        Key key = encode(pattern);
+        int start = lowerBound(key.bytes());
+        return IntStream.range(start, end(key, start)).mapToObj(this::wordAt);
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        SearchableDictionary.checkPage(offset, limit);
+        Key key = encode(pattern);
+        int start = lowerBound(key.bytes());
+        int end = end(key, start);
+        int pageStart = (int) Math.min((long) start + offset, end);
+        return decode(pageStart, (int) Math.min((long) pageStart + limit, end));
+    }
+
+    /**
+     * {@inheritDoc} Cursors are usually words of previous pages, so they cannot contain unpaired surrogates.
+     * @throws IllegalArgumentException if the cursor contains unpaired surrogates.
+     */
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        SearchableDictionary.checkCursor(cursor, limit);
+        if (DictionaryFile.findUnpairedSurrogate(cursor) >= 0) {
+            throw new IllegalArgumentException("Cursor cannot contain unpaired surrogates.");
+        }
+        Key key = encode(pattern);
+        int start = lowerBound(key.bytes());
+        int end = end(key, start);
+        int pageStart = Math.min(Math.max(start, firstGreater(cursor.getBytes(UTF_8))), end);
+        return decode(pageStart, (int) Math.min((long) pageStart + limit, end));
+    }
+
+    /**
+     * Returns the size of the buffer, which is off-heap or mapped memory. Mapped pages are only resident while they are
+     * used, so this is an upper bound of the physical memory.
+     */
+    @Override
+    public long memoryFootprint() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Encodes a pattern into the key of the words that start with it. A pattern that ends with a high surrogate matches
+     * the words in which a low surrogate follows it. The encodings of these code points share their first three bytes,
+     * except for the lower four bits of the third one, so they are a range of keys instead of a common prefix. Patterns
+     * with other unpaired surrogates match no words, as words cannot contain them.
+     */
+    private static Key encode(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        int end = pattern.length();
+        if (end > 0 && Character.isHighSurrogate(pattern.charAt(end - 1))) {
+            end--;
+        }
+        String pairedPattern = pattern.substring(0, end);
+        int unpaired = DictionaryFile.findUnpairedSurrogate(pairedPattern);
+        if (unpaired >= 0) {
+            byte[] bytes = pattern.substring(0, unpaired).getBytes(UTF_8);
+            return new Key(bytes, bytes); // empty range
+        }
+        byte[] bytes = pairedPattern.getBytes(UTF_8);
+        if (end == pattern.length()) {
+            return new Key(bytes, null);
+        }
+        byte[] firstCodePoint = Character.toString(Character.toCodePoint(pattern.charAt(end), Character.MIN_LOW_SURROGATE)).getBytes(UTF_8);
+        byte[] lower = Arrays.copyOf(bytes, bytes.length + 3);
+        System.arraycopy(firstCodePoint, 0, lower, bytes.length, 3);
+        byte[] upper = lower.clone();
+        upper[upper.length - 1] += 16; // after the last of the 16 values of the third byte
+        return new Key(lower, upper);
+    }
+
+    /**
+     * Finds the index after the last word that matches a key, given the index of the first one.
+     */
+    private int end(Key key, int start) {
+        return key.upperBound() == null ? upperBound(key.bytes(), start) : lowerBound(key.upperBound(), start);
+    }
+
+    /**
+     * Decodes a range of words, in parallel if the range is large.
+     */
+    private List<String> decode(int start, int end) {
+        String[] words = new String[end - start];
+        if (words.length > PARALLEL_DECODING_THRESHOLD) {
+            Arrays.parallelSetAll(words, index -> wordAt(start + index));
+        } else {
+            Arrays.setAll(words, index -> wordAt(start + index));
+        }
+        return Arrays.asList(words);
+    }
+
+    private String wordAt(int index) {
+        int start = offset(index);
+        byte[] word = new byte[offset(index + 1) - start];
+        buffer.get(arena + start, word);
+        return new String(word, UTF_8);
+    }
+
+    private int offset(int index) {
+        return buffer.getInt(offsetTable + index * Integer.BYTES);
+    }
+
+    /**
+     * Returns the index of the first word whose first byte is at least the given byte, or the number of empty words.
+     */
+    private int jump(int firstByte) {
+        return buffer.getInt(DictionaryFile.HEADER_SIZE + firstByte * Integer.BYTES);
+    }
+
+    /**
+     * Finds the index of the first word that is not smaller than the key. The search is restricted to the words with the
+     * same first byte.
+     */
+    private int lowerBound(byte[] key) {
+        return lowerBound(key, 0);
+    }
+
+    /**
+     * Finds the index of the first word that is not smaller than the key, given that all words before an index are
+     * smaller.
+     */
+    private int lowerBound(byte[] key, int from) {
+        if (key.length == 0) {
+            return from;
+        }
+        int low = Math.max(from, jump(Byte.toUnsignedInt(key[0])));
+        int high = jump(Byte.toUnsignedInt(key[0]) + 1);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(middle, key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the index of the first word after the lower bound that does not start with the key.
+     */
+    private int upperBound(byte[] key, int lowerBound) {
+        int low = lowerBound;
+        int high = key.length == 0 ? size : jump(Byte.toUnsignedInt(key[0]) + 1);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startsWith(middle, key)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the index of the first word that is greater than the key.
+     */
+    private int firstGreater(byte[] key) {
+        if (key.length == 0) {
+            return jump(0); // skips the empty words
+        }
+        int low = jump(Byte.toUnsignedInt(key[0]));
+        int high = jump(Byte.toUnsignedInt(key[0]) + 1);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(middle, key) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares a mapped word with a key by their unsigned bytes without copying the word.
+     */
+    private int compare(int index, byte[] key) {
+        int start = arena + offset(index);
+        int length = offset(index + 1) - offset(index);
+        for (int position = 0; position < Math.min(length, key.length); position++) {
+            int comparison = Byte.compareUnsigned(buffer.get(start + position), key[position]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private boolean startsWith(int index, byte[] key) {
+        int start = arena + offset(index);
+        if (offset(index + 1) - offset(index) < key.length) {
+            return false;
+        }
+        for (int position = 0; position < key.length; position++) {
+            if (buffer.get(start + position) != key[position]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encoded key of a pattern, which is either a prefix of the matching words or the lower bound of a range of them.
+     * @param bytes is the prefix or the inclusive lower bound.
+     * @param upperBound is the exclusive upper bound, or null if the bytes are a prefix.
+     */
+    private record Key(byte[] bytes, byte[] upperBound) {
+    }
+}
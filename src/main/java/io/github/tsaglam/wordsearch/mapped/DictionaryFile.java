@@ -0,0 +1,183 @@
+package io.github.tsaglam.wordsearch.mapped;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writer of the binary dictionary format that is served from files by {@link MappedWordSearch} and from off-heap memory
+ * by {@link OffHeapWordSearch}. A file consists of four sections, all integers are stored in big-endian byte order:
+ * <ol>
+ * <li>The header with the magic number, the format version, the number of words, and the size of the word arena.</li>
+ * <li>The jump table with {@value #JUMP_TABLE_ENTRIES} entries, the index of the first word whose first byte is at least
+ * the entry index. Words are sorted, so all words starting with the same byte lie between two consecutive entries.</li>
+ * <li>The offset table with the start offset of each word in the arena and one additional entry for the arena end.</li>
+ * <li>The word arena with the UTF-8 encoded words, sorted by their unsigned bytes and without separators.</li>
+ * </ol>
+ */
+public final class DictionaryFile {
+
+    /* package-private */ static final int MAGIC = 0x50575344; // "PWSD"
+    /* package-private */ static final int VERSION = 1;
+    /* package-private */ static final int HEADER_SIZE = 4 * Integer.BYTES;
+    /* package-private */ static final int JUMP_TABLE_ENTRIES = 257; // one per byte value and the end
+    /* package-private */ static final int JUMP_TABLE_SIZE = JUMP_TABLE_ENTRIES * Integer.BYTES;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private DictionaryFile() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Writes a dictionary file. The file is first written to a unique temporary file next to the target and then moved
+     * atomically, so concurrent writers do not interfere and processes that still use a previous version of the file keep
+     * their consistent mapping. The file is written sequentially instead of through a mapping, as mapped files cannot be
+     * moved on all platforms. If writing fails, the temporary file is deleted.
+     * @param words specifies the content, cannot be null.
+     * @param file is the path of the file to create or replace.
+     * @return the path of the written file.
+     * @throws IllegalArgumentException if words is null, contains unpaired surrogates, or is too large for a single file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static Path write(List<String> words, Path file) throws IOException {
+        byte[][] encodedWords = encode(words);
+        sizeOf(encodedWords); // validates the size
+        ByteBuffer tables = ByteBuffer.allocate(arenaStart(encodedWords.length));
+        fillTables(encodedWords, tables);
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE);
+                    OutputStream output = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+                output.write(tables.array());
+                for (byte[] word : encodedWords) {
+                    output.write(word);
+                }
+                output.flush();
+                channel.force(true);
+            }
+            return Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile); // only exists if writing or moving failed
+        }
+    }
+
+    /**
+     * Encodes the words in parallel and sorts them by their unsigned bytes, which is the order of the file.
+     * @param words specifies the content, cannot be null.
+     * @return the sorted, encoded words.
+     * @throws IllegalArgumentException if words is null or contains words with unpaired surrogates, which have no UTF-8
+     * encoding and would not be stored as they are.
+     */
+    /* package-private */ static byte[][] encode(List<String> words) {
+        if (words == null) {
+            throw new IllegalArgumentException("Input words cannot be null.");
+        }
+        byte[][] encodedWords = words.parallelStream().map(DictionaryFile::encode).toArray(byte[][]::new);
+        Arrays.parallelSort(encodedWords, Arrays::compareUnsigned);
+        return encodedWords;
+    }
+
+    private static byte[] encode(String word) {
+        if (findUnpairedSurrogate(word) >= 0) {
+            throw new IllegalArgumentException("Input words cannot contain unpaired surrogates.");
+        }
+        return word.getBytes(UTF_8);
+    }
+
+    /**
+     * Finds the first surrogate of a text that is not part of a surrogate pair, which has no UTF-8 encoding.
+     * @param text is the text to check.
+     * @return the index of the unpaired surrogate, or -1 if there is none.
+     */
+    /* package-private */ static int findUnpairedSurrogate(String text) {
+        for (int index = 0; index < text.length(); index++) {
+            char character = text.charAt(index);
+            if (Character.isHighSurrogate(character) && index + 1 < text.length() && Character.isLowSurrogate(text.charAt(index + 1))) {
+                index++;
+            } else if (Character.isSurrogate(character)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Computes the size of the binary representation of sorted, encoded words.
+     * @param encodedWords are the encoded words.
+     * @return the size in bytes.
+     * @throws IllegalArgumentException if the size exceeds the maximum size of a buffer.
+     */
+    /* package-private */ static int sizeOf(byte[][] encodedWords) {
+        long size = HEADER_SIZE + JUMP_TABLE_SIZE + (encodedWords.length + 1L) * Integer.BYTES;
+        for (byte[] word : encodedWords) {
+            size += word.length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Input words exceed the maximum dictionary size: " + size + " bytes");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Writes the binary representation of sorted, encoded words into a buffer, starting at index zero.
+     * @param encodedWords are the encoded words, sorted by their unsigned bytes.
+     * @param buffer is the buffer, must have at least the size of the representation.
+     */
+    /* package-private */ static void fill(byte[][] encodedWords, ByteBuffer buffer) {
+        fillTables(encodedWords, buffer);
+        int arenaOffset = arenaStart(encodedWords.length);
+        for (byte[] word : encodedWords) {
+            buffer.put(arenaOffset, word);
+            arenaOffset += word.length;
+        }
+    }
+
+    /**
+     * Writes the header, the jump table, and the offset table of sorted, encoded words into a buffer, starting at index
+     * zero, which is everything but the word arena.
+     * @param encodedWords are the encoded words, sorted by their unsigned bytes.
+     * @param buffer is the buffer, must have at least the size of the tables.
+     */
+    private static void fillTables(byte[][] encodedWords, ByteBuffer buffer) {
+        int offsetTable = HEADER_SIZE + JUMP_TABLE_SIZE;
+        int arenaOffset = 0;
+        int jumpEntry = 0;
+        for (int index = 0; index < encodedWords.length; index++) {
+            byte[] word = encodedWords[index];
+            int firstByte = word.length == 0 ? -1 : Byte.toUnsignedInt(word[0]);
+            for (; jumpEntry <= firstByte; jumpEntry++) {
+                buffer.putInt(HEADER_SIZE + jumpEntry * Integer.BYTES, index);
+            }
+            buffer.putInt(offsetTable + index * Integer.BYTES, arenaOffset);
+            arenaOffset += word.length;
+        }
+        for (; jumpEntry < JUMP_TABLE_ENTRIES; jumpEntry++) {
+            buffer.putInt(HEADER_SIZE + jumpEntry * Integer.BYTES, encodedWords.length);
+        }
+        buffer.putInt(offsetTable + encodedWords.length * Integer.BYTES, arenaOffset);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(Integer.BYTES, VERSION);
+        buffer.putInt(2 * Integer.BYTES, encodedWords.length);
+        buffer.putInt(3 * Integer.BYTES, arenaOffset);
+    }
+
+    /**
+     * Computes the position of the word arena, which follows the header and the tables.
+     */
+    private static int arenaStart(int numberOfWords) {
+        return HEADER_SIZE + JUMP_TABLE_SIZE + (numberOfWords + 1) * Integer.BYTES;
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.tsaglam.wordsearch.mapped;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Searchable dictionary that is served directly from a file in the format of {@link DictionaryFile}. The file is mapped
+ * into memory instead of being deserialized, so opening it only validates the header, and the operating system loads
+ * the pages on demand and shares them between all processes that map the same file. <b>Thread safety:</b> This class is
+ * immutable and thus supports concurrent use.
+ */
+public class MappedWordSearch extends BufferWordSearch {
+
+    private MappedWordSearch(ByteBuffer buffer) {
+        super(buffer);
+    }
+
+    /**
+     * Opens a dictionary file by mapping it into memory. The file must not be modified while it is in use; files written
+     * by {@link DictionaryFile#write(List, Path)} are replaced atomically instead.
+     * @param file is the path of the file.
+     * @return the dictionary backed by the file.
+     * @throws IOException if the file cannot be read or is not a valid dictionary file.
+     */
+    public static MappedWordSearch open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Dictionary file exceeds the maximum size: " + channel.size() + " bytes");
+            }
+            return new MappedWordSearch(validate(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.tsaglam.wordsearch.mapped;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Searchable dictionary that packs all words into a single off-heap arena. The words are encoded in UTF-8 and stored
+ * together with their offset table in a direct buffer in the format of {@link DictionaryFile}. The heap only holds the
+ * buffer handle, so the dictionary neither adds to the old generation nor to the marking work of the garbage collector,
+ * no matter how many words it contains. Only the matching words of a query are materialized as strings.
+ * <b>Thread safety:</b> This class is immutable and thus supports concurrent use.
+ */
+public class OffHeapWordSearch extends BufferWordSearch {
+
+    /**
+     * Creates the dictionary.
+     * @param words specifies the content, cannot be null.
+     * @throws IllegalArgumentException if words is null or too large for a single buffer.
+     */
+    public OffHeapWordSearch(List<String> words) {
+        super(allocate(DictionaryFile.encode(words)));
+    }
+
+    private static ByteBuffer allocate(byte[][] encodedWords) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DictionaryFile.sizeOf(encodedWords));
+        DictionaryFile.fill(encodedWords, buffer);
+        return buffer.asReadOnlyBuffer();
+    }
+}
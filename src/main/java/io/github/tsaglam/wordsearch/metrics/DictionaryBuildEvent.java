@@ -0,0 +1,33 @@
+package io.github.tsaglam.wordsearch.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the construction of a dictionary, see
+ * {@link InstrumentedDictionary#build(String, java.util.List, java.util.function.Function)}. The duration of the event is
+ * the build time. The event is enabled by default, but only recorded while a recording is running, e.g. with
+ * {@code -XX:StartFlightRecording}.
+ */
+@Name("io.github.tsaglam.wordsearch.DictionaryBuild")
+@Label("Dictionary Build")
+@Category("Word Search")
+@Description("Construction of a searchable dictionary")
+@StackTrace(false)
+/* package-private */ class DictionaryBuildEvent extends jdk.jfr.Event {
+
+    @Label("Dictionary")
+    /* package-private */ String dictionary;
+
+    @Label("Words")
+    /* package-private */ int words;
+
+    @Label("Memory Footprint")
+    @Description("Estimated memory of the dictionary, only computed while the event is recorded")
+    @DataAmount
+    /* package-private */ long memoryFootprint;
+}
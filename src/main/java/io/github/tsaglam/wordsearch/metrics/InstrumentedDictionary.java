@@ -0,0 +1,238 @@
+package io.github.tsaglam.wordsearch.metrics;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * Decorator of a searchable dictionary that measures its queries. Each operation has its own {@link LatencyHistogram}
+ * and counts its queries and the number of returned words, and queries that exceed the threshold of the
+ * {@link SlowQueryEvent} are reported to the flight recorder. Builds are measured with
+ * {@link #build(String, List, Function)}, which reports a {@link DictionaryBuildEvent}. The overhead per query is two
+ * reads of the clock and a few atomic increments, and dictionaries that are not wrapped have no overhead at all. Streams
+ * are lazy and thus not measured. <b>Thread safety:</b> This class supports concurrent use if the decorated dictionary
+ * does.
+ */
+public class InstrumentedDictionary implements SearchableDictionary {
+
+    /**
+     * Measured operations of a dictionary.
+     */
+    public enum Operation {
+        /**
+         * {@link SearchableDictionary#findMatchingWords(String)}.
+         */
+        FIND,
+        /**
+         * {@link SearchableDictionary#countMatchingWords(String)}.
+         */
+        COUNT,
+        /**
+         * {@link SearchableDictionary#findMatchingWords(String, int)} and
+         * {@link SearchableDictionary#findMatchingWords(String, int, int)}.
+         */
+        PAGE,
+        /**
+         * {@link SearchableDictionary#findMatchingWordsAfter(String, String, int)}.
+         */
+        PAGE_AFTER,
+        /**
+         * {@link SearchableDictionary#findMatchingWordsForAll(Collection)}, where the results are the words of all patterns.
+         */
+        BATCH,
+        /**
+         * {@link SearchableDictionary#findFuzzyMatches(String, int)}.
+         */
+        FUZZY,
+        /**
+         * {@link SearchableDictionary#findWildcardMatches(String)}.
+         */
+        WILDCARD,
+        /**
+         * {@link SearchableDictionary#findWordsContaining(String)}.
+         */
+        CONTAINING
+    }
+
+    private final String name;
+    private final SearchableDictionary dictionary;
+    private final long buildNanos;
+    private final Map<Operation, OperationMetrics> metrics;
+
+    /**
+     * Creates the decorator of an existing dictionary.
+     * @param name identifies the dictionary in the flight recorder events.
+     * @param dictionary is the dictionary to measure.
+     * @throws IllegalArgumentException if the name or the dictionary is null.
+     */
+    public InstrumentedDictionary(String name, SearchableDictionary dictionary) {
+        this(name, dictionary, 0);
+    }
+
+    private InstrumentedDictionary(String name, SearchableDictionary dictionary, long buildNanos) {
+        if (name == null || dictionary == null) {
+            throw new IllegalArgumentException("Name and dictionary cannot be null.");
+        }
+        this.name = name;
+        this.dictionary = dictionary;
+        this.buildNanos = buildNanos;
+        metrics = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            metrics.put(operation, new OperationMetrics());
+        }
+    }
+
+    /**
+     * Builds a dictionary and measures the build. The memory footprint of the dictionary is only estimated for the
+     * {@link DictionaryBuildEvent} if the event is recorded, as the estimate may traverse the whole index.
+     * @param name identifies the dictionary in the flight recorder events.
+     * @param words specifies the content.
+     * @param constructor creates the dictionary, e.g. the constructor of an implementation.
+     * @return the decorator of the built dictionary.
+     * @throws IllegalArgumentException if the name, the words, or the constructor is null.
+     */
+    public static InstrumentedDictionary build(String name, List<String> words, Function<List<String>, SearchableDictionary> constructor) {
+        if (name == null || words == null || constructor == null) {
+            throw new IllegalArgumentException("Name, words, and constructor cannot be null.");
+        }
+        DictionaryBuildEvent event = new DictionaryBuildEvent();
+        event.begin();
+        long start = System.nanoTime();
+        SearchableDictionary dictionary = constructor.apply(words);
+        long buildNanos = System.nanoTime() - start;
+        event.end();
+        if (event.shouldCommit()) {
+            event.dictionary = name;
+            event.words = words.size();
+            event.memoryFootprint = dictionary.memoryFootprint();
+            event.commit();
+        }
+        return new InstrumentedDictionary(name, dictionary, buildNanos);
+    }
+
+    /**
+     * Returns the name of the dictionary.
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the decorated dictionary.
+     * @return the dictionary without measurements.
+     */
+    public SearchableDictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the build time of the dictionary.
+     * @return the build time in nanoseconds, or zero if the dictionary was not built with
+     * {@link #build(String, List, Function)}.
+     */
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    /**
+     * Returns the metrics of an operation.
+     * @param operation is the operation.
+     * @return the metrics, which are updated by later queries.
+     */
+    public OperationMetrics getMetrics(Operation operation) {
+        return metrics.get(operation);
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        return measure(Operation.FIND, pattern, () -> dictionary.findMatchingWords(pattern), List::size);
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        return measure(Operation.COUNT, pattern, () -> dictionary.countMatchingWords(pattern), Integer::intValue);
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        return dictionary.streamMatchingWords(pattern);
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int limit) {
+        return measure(Operation.PAGE, pattern, () -> dictionary.findMatchingWords(pattern, limit), List::size);
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        return measure(Operation.PAGE, pattern, () -> dictionary.findMatchingWords(pattern, offset, limit), List::size);
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        return measure(Operation.PAGE_AFTER, pattern, () -> dictionary.findMatchingWordsAfter(pattern, cursor, limit), List::size);
+    }
+
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        return measure(Operation.BATCH, null, () -> dictionary.findMatchingWordsForAll(patterns),
+                results -> results.values().stream().mapToInt(List::size).sum());
+    }
+
+    @Override
+    public List<String> findFuzzyMatches(String pattern, int maxEdits) {
+        return measure(Operation.FUZZY, pattern, () -> dictionary.findFuzzyMatches(pattern, maxEdits), List::size);
+    }
+
+    @Override
+    public List<String> findWildcardMatches(String pattern) {
+        return measure(Operation.WILDCARD, pattern, () -> dictionary.findWildcardMatches(pattern), List::size);
+    }
+
+    @Override
+    public List<String> findWordsContaining(String fragment) {
+        return measure(Operation.CONTAINING, fragment, () -> dictionary.findWordsContaining(fragment), List::size);
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return dictionary.memoryFootprint();
+    }
+
+    /**
+     * Answers a query and records its latency and number of results. Failed queries are not recorded.
+     */
+    private <T> T measure(Operation operation, String pattern, Supplier<T> query, ToIntFunction<T> results) {
+        SlowQueryEvent event = new SlowQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        T result = query.get();
+        long nanos = System.nanoTime() - start;
+        event.end();
+        int numberOfResults = results.applyAsInt(result);
+        metrics.get(operation).record(nanos, numberOfResults);
+        if (event.shouldCommit()) {
+            commitSlowQuery(event, operation, pattern, numberOfResults);
+        }
+        return result;
+    }
+
+    /**
+     * Commits the event of a slow query, which is kept out of {@link #measure} so that it stays small enough to be inlined.
+     */
+    private void commitSlowQuery(SlowQueryEvent event, Operation operation, String pattern, int numberOfResults) {
+        event.dictionary = name;
+        event.operation = operation.name();
+        event.pattern = pattern;
+        event.results = numberOfResults;
+        event.commit();
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.tsaglam.wordsearch.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds with a bounded relative error, in the style of HdrHistogram. Values
+ * are counted in log-linear buckets: Each power of two is divided into {@value #SUB_BUCKETS} linear sub-buckets, so a
+ * bucket spans at most 1/{@value #SUB_BUCKETS} of its values, and values below {@value #SUB_BUCKETS} are counted exactly.
+ * Recording a value is a single atomic increment of a fixed array, which neither allocates nor locks. <b>Thread
+ * safety:</b> This class supports concurrent recording. Reading while recording is weakly consistent, i.e., a
+ * percentile may not include the values that are recorded concurrently.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final double MAXIMUM_PERCENTILE = 100;
+
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final AtomicLong max;
+
+    /**
+     * Creates an empty histogram.
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray(BUCKETS);
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records a latency. <b>Thread safety:</b> This method is safe to call concurrently.
+     * @param nanos is the latency in nanoseconds, negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Returns the number of recorded latencies.
+     * @return the count.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the largest recorded latency.
+     * @return the maximum in nanoseconds, or zero if none was recorded.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded latencies.
+     * @return the mean in nanoseconds, or zero if none was recorded.
+     */
+    public double getMean() {
+        long currentCount = count.sum();
+        return currentCount == 0 ? 0 : sum.sum() / (double) currentCount;
+    }
+
+    /**
+     * Returns the latency that is not exceeded by a percentile of the recorded latencies. The result is the upper end of the
+     * bucket of the percentile, limited by the maximum, so it may be larger than the exact percentile by the bucket width.
+     * @param percentile is the percentile between 0 and 100, e.g. 99.9.
+     * @return the latency in nanoseconds, or zero if none was recorded.
+     * @throws IllegalArgumentException if the percentile is not between 0 and 100.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= MAXIMUM_PERCENTILE)) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            total += snapshot[bucket];
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / MAXIMUM_PERCENTILE * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += snapshot[bucket];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(bucket), max.get());
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the bucket of a non-negative value. Values below the number of sub-buckets have their own bucket, larger
+     * values are bucketed by their highest bit and the following sub-bucket bits.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - 1 - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Returns the largest value of a bucket.
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
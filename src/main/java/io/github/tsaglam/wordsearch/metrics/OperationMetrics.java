@@ -0,0 +1,53 @@
+package io.github.tsaglam.wordsearch.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one operation of an {@link InstrumentedDictionary}: the latencies of its queries and the number of words
+ * they returned. <b>Thread safety:</b> This class supports concurrent use.
+ */
+public class OperationMetrics {
+
+    private final LatencyHistogram latencies;
+    private final LongAdder results;
+
+    /* package-private */ OperationMetrics() {
+        latencies = new LatencyHistogram();
+        results = new LongAdder();
+    }
+
+    /* package-private */ void record(long nanos, int numberOfResults) {
+        latencies.record(nanos);
+        results.add(numberOfResults);
+    }
+
+    /**
+     * Returns the number of queries.
+     * @return the count.
+     */
+    public long getQueries() {
+        return latencies.getCount();
+    }
+
+    /**
+     * Returns the total number of returned words.
+     * @return the sum over all queries.
+     */
+    public long getResults() {
+        return results.sum();
+    }
+
+    /**
+     * Returns the latencies of the queries.
+     * @return the histogram in nanoseconds, which is updated by later queries.
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d queries, %d results, p50 %dns, p99 %dns, max %dns", getQueries(), getResults(), latencies.getValueAtPercentile(50),
+                latencies.getValueAtPercentile(99), latencies.getMax());
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.tsaglam.wordsearch.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event for a query of an {@link InstrumentedDictionary} that takes longer than a threshold, which is
+ * {@value #DEFAULT_THRESHOLD} by default and can be changed in the recording settings. Queries below the threshold are
+ * not recorded, and without a running recording, the event is a no-op that the JIT compiler removes.
+ */
+@Name("io.github.tsaglam.wordsearch.SlowQuery")
+@Label("Slow Dictionary Query")
+@Category("Word Search")
+@Description("Query of a searchable dictionary that exceeded the threshold")
+@StackTrace(false)
+@Threshold(SlowQueryEvent.DEFAULT_THRESHOLD)
+/* package-private */ class SlowQueryEvent extends jdk.jfr.Event {
+
+    /* package-private */ static final String DEFAULT_THRESHOLD = "10 ms";
+
+    @Label("Dictionary")
+    /* package-private */ String dictionary;
+
+    @Label("Operation")
+    /* package-private */ String operation;
+
+    @Label("Pattern")
+    /* package-private */ String pattern;
+
+    @Label("Results")
+    @Description("Number of returned or counted words")
+    /* package-private */ int results;
+}
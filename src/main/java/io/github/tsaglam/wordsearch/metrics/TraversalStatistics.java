@@ -0,0 +1,112 @@
+package io.github.tsaglam.wordsearch.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Global counters of the traversal work of the tree-based dictionaries: the nodes that are visited to find the node of a
+ * pattern, the nodes that are visited to collect its words, and the fan-out of the forests, i.e., how many trees are
+ * queried per query and how many of them contribute words. The counters are disabled unless the system property
+ * {@value #PROPERTY} is set to {@code true} at startup. The dictionaries check {@link #ENABLED} before recording, which
+ * is a constant, so the JIT compiler removes the recording entirely when disabled. When enabled, recording uses
+ * {@link LongAdder}s and thus scales with concurrent queries. <b>Thread safety:</b> This class supports concurrent use.
+ */
+public final class TraversalStatistics {
+
+    /**
+     * System property that enables the counters.
+     */
+    public static final String PROPERTY = "wordsearch.traversalStatistics";
+
+    /**
+     * Whether the counters are enabled, which is decided once at startup.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static final LongAdder DESCENTS = new LongAdder();
+    private static final LongAdder DESCENT_NODES = new LongAdder();
+    private static final LongAdder COLLECTED_NODES = new LongAdder();
+    private static final LongAdder FOREST_QUERIES = new LongAdder();
+    private static final LongAdder QUERIED_TREES = new LongAdder();
+    private static final LongAdder MATCHING_TREES = new LongAdder();
+
+    private TraversalStatistics() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Records the search for the node of a pattern.
+     * @param visitedNodes is the number of nodes on the path, including the start node.
+     */
+    public static void recordDescent(int visitedNodes) {
+        DESCENTS.increment();
+        DESCENT_NODES.add(visitedNodes);
+    }
+
+    /**
+     * Records the collection of the words of a subtree.
+     * @param visitedNodes is the number of visited nodes of the subtree.
+     */
+    public static void recordCollection(int visitedNodes) {
+        COLLECTED_NODES.add(visitedNodes);
+    }
+
+    /**
+     * Records a query of a forest.
+     * @param queriedTrees is the number of trees that were searched.
+     * @param matchingTrees is the number of trees that contained matching words.
+     */
+    public static void recordFanOut(int queriedTrees, int matchingTrees) {
+        FOREST_QUERIES.increment();
+        QUERIED_TREES.add(queriedTrees);
+        MATCHING_TREES.add(matchingTrees);
+    }
+
+    /**
+     * Returns the current values of the counters.
+     * @return the snapshot, which is weakly consistent with concurrent queries.
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot(DESCENTS.sum(), DESCENT_NODES.sum(), COLLECTED_NODES.sum(), FOREST_QUERIES.sum(), QUERIED_TREES.sum(),
+                MATCHING_TREES.sum());
+    }
+
+    /**
+     * Resets all counters, e.g. after a warmup.
+     */
+    public static void reset() {
+        DESCENTS.reset();
+        DESCENT_NODES.reset();
+        COLLECTED_NODES.reset();
+        FOREST_QUERIES.reset();
+        QUERIED_TREES.reset();
+        MATCHING_TREES.reset();
+    }
+
+    /**
+     * Values of the counters at one point in time.
+     * @param descents is the number of searches for the node of a pattern.
+     * @param descentNodes is the total number of nodes visited by these searches.
+     * @param collectedNodes is the total number of nodes visited to collect words.
+     * @param forestQueries is the number of queries of forests.
+     * @param queriedTrees is the total number of trees searched by these queries.
+     * @param matchingTrees is the total number of trees that contained matching words.
+     */
+    public record Snapshot(long descents, long descentNodes, long collectedNodes, long forestQueries, long queriedTrees, long matchingTrees) {
+
+        /**
+         * Returns the mean number of nodes per descent.
+         * @return the mean, or zero without descents.
+         */
+        public double meanDescentNodes() {
+            return descents == 0 ? 0 : descentNodes / (double) descents;
+        }
+
+        /**
+         * Returns the share of searched trees of a forest that contributed no words, which is the wasted fan-out.
+         * @return the share between zero and one, or zero without forest queries.
+         */
+        public double wastedFanOut() {
+            return queriedTrees == 0 ? 0 : 1 - matchingTrees / (double) queriedTrees;
+        }
+    }
+}
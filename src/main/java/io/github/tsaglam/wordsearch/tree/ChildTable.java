@@ -0,0 +1,313 @@
+package io.github.tsaglam.wordsearch.tree;
+
+import java.util.Arrays;
+
+import io.github.tsaglam.wordsearch.MemoryEstimate;
+
+/**
+ * Immutable table of the children of a tree node, keyed by primitive characters and ordered by them. In the style of the
+ * Adaptive Radix Tree, the layout adapts to the number of children: Leaves share one empty table, single children are
+ * stored inline, up to {@link #SORTED_CAPACITY} children are stored in sorted arrays that are scanned linearly when small
+ * and binary searched otherwise, and larger tables within a window of {@link #DIRECT_SPAN} characters are indexed
+ * directly. Tables are never modified; adding or removing a child creates a new table, which may be of a different type.
+ * This allows nodes to publish a new table atomically and readers to iterate over a consistent snapshot.
+ * @param <N> is the type of the child nodes.
+ */
+/* package-private */ abstract class ChildTable<N> {
+
+    /* package-private */ static final int SORTED_CAPACITY = 48;
+    /* package-private */ static final int DIRECT_SPAN = 256;
+    private static final int LINEAR_SEARCH_LIMIT = 4;
+    private static final ChildTable<?> EMPTY = new EmptyTable<>();
+
+    /**
+     * Returns the shared empty table.
+     * @param <N> is the type of the child nodes.
+     * @return the empty table.
+     */
+    @SuppressWarnings("unchecked")
+    /* package-private */ static <N> ChildTable<N> empty() {
+        return (ChildTable<N>) EMPTY;
+    }
+
+    /**
+     * Returns the child for a character.
+     * @param key is the index character.
+     * @return the child or null if none exists.
+     */
+    /* package-private */ abstract N get(char key);
+
+    /**
+     * Returns the number of children.
+     * @return the size of the table.
+     */
+    /* package-private */ abstract int size();
+
+    /**
+     * Returns the character of the child at a position in the sorted order.
+     * @param index is the position, must be smaller than the size.
+     * @return the index character.
+     */
+    /* package-private */ abstract char keyAt(int index);
+
+    /**
+     * Returns the child at a position in the sorted order.
+     * @param index is the position, must be smaller than the size.
+     * @return the child.
+     */
+    /* package-private */ abstract N childAt(int index);
+
+    /**
+     * Estimates the memory of the table without its children.
+     * @return the size in bytes, zero for the shared empty table.
+     */
+    /* package-private */ abstract long memoryFootprint();
+
+    /**
+     * Creates a copy of this table in which the character is mapped to the given child.
+     * @param key is the index character.
+     * @param child is the child to add or to replace the existing child with.
+     * @return the new table.
+     */
+    /* package-private */ ChildTable<N> with(char key, N child) {
+        int size = size();
+        char[] keys = new char[size + 1];
+        Object[] children = new Object[size + 1];
+        int target = 0;
+        boolean inserted = false;
+        for (int index = 0; index < size; index++) {
+            char existingKey = keyAt(index);
+            if (!inserted && key <= existingKey) {
+                keys[target] = key;
+                children[target++] = child;
+                inserted = true;
+                if (key == existingKey) {
+                    continue; // replaced
+                }
+            }
+            keys[target] = existingKey;
+            children[target++] = childAt(index);
+        }
+        if (!inserted) {
+            keys[target] = key;
+            children[target++] = child;
+        }
+        return create(Arrays.copyOf(keys, target), Arrays.copyOf(children, target));
+    }
+
+    /**
+     * Creates a copy of this table without the child for the given character.
+     * @param key is the index character.
+     * @return the new table, or this table if it contains no child for the character.
+     */
+    /* package-private */ ChildTable<N> without(char key) {
+        int size = size();
+        char[] keys = new char[size];
+        Object[] children = new Object[size];
+        int target = 0;
+        for (int index = 0; index < size; index++) {
+            if (keyAt(index) != key) {
+                keys[target] = keyAt(index);
+                children[target++] = childAt(index);
+            }
+        }
+        return target == size ? this : create(Arrays.copyOf(keys, target), Arrays.copyOf(children, target));
+    }
+
+    /**
+     * Checks whether the table is empty.
+     * @return true if there are no children.
+     */
+    /* package-private */ boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Creates the smallest suitable table for sorted keys.
+     */
+    private static <N> ChildTable<N> create(char[] keys, Object[] children) {
+        if (keys.length == 0) {
+            return empty();
+        } else if (keys.length == 1) {
+            return new SingleTable<>(keys[0], children[0]);
+        } else if (keys.length <= SORTED_CAPACITY || keys[keys.length - 1] - keys[0] >= DIRECT_SPAN) {
+            return new SortedTable<>(keys, children);
+        }
+        return new DirectTable<>(keys, children);
+    }
+
+    /**
+     * Table of a leaf node.
+     */
+    private static class EmptyTable<N> extends ChildTable<N> {
+
+        @Override
+        N get(char key) {
+            return null;
+        }
+
+        @Override
+        int size() {
+            return 0;
+        }
+
+        @Override
+        char keyAt(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        N childAt(int index) {
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        long memoryFootprint() {
+            return 0;
+        }
+    }
+
+    /**
+     * Table with a single child stored inline, which is the most common case deep in the tree.
+     */
+    private static class SingleTable<N> extends ChildTable<N> {
+        private final char key;
+        private final N child;
+
+        @SuppressWarnings("unchecked")
+        SingleTable(char key, Object child) {
+            this.key = key;
+            this.child = (N) child;
+        }
+
+        @Override
+        N get(char key) {
+            return this.key == key ? child : null;
+        }
+
+        @Override
+        int size() {
+            return 1;
+        }
+
+        @Override
+        char keyAt(int index) {
+            if (index != 0) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return key;
+        }
+
+        @Override
+        N childAt(int index) {
+            if (index != 0) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return child;
+        }
+
+        @Override
+        long memoryFootprint() {
+            return MemoryEstimate.ofObject(Character.BYTES + MemoryEstimate.REFERENCE);
+        }
+    }
+
+    /**
+     * Table with sorted parallel arrays of keys and children. Small tables are scanned linearly, larger ones are binary
+     * searched.
+     */
+    private static class SortedTable<N> extends ChildTable<N> {
+        private final char[] keys;
+        private final Object[] children;
+
+        SortedTable(char[] keys, Object[] children) {
+            this.keys = keys;
+            this.children = children;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        N get(char key) {
+            if (keys.length <= LINEAR_SEARCH_LIMIT) {
+                for (int index = 0; index < keys.length; index++) {
+                    if (keys[index] == key) {
+                        return (N) children[index];
+                    }
+                }
+                return null;
+            }
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : (N) children[index];
+        }
+
+        @Override
+        int size() {
+            return keys.length;
+        }
+
+        @Override
+        char keyAt(int index) {
+            return keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        N childAt(int index) {
+            return (N) children[index];
+        }
+
+        @Override
+        long memoryFootprint() {
+            return MemoryEstimate.ofObject(2 * MemoryEstimate.REFERENCE) + MemoryEstimate.ofArray(keys.length, Character.BYTES)
+                    + MemoryEstimate.ofArray(children.length, MemoryEstimate.REFERENCE);
+        }
+    }
+
+    /**
+     * Table for many children within a window of characters, which are indexed directly by their offset to the smallest
+     * key. The sorted keys are kept for the ordered iteration.
+     */
+    private static class DirectTable<N> extends ChildTable<N> {
+        private final char base;
+        private final char[] keys;
+        private final Object[] slots;
+
+        DirectTable(char[] keys, Object[] children) {
+            this.keys = keys;
+            base = keys[0];
+            slots = new Object[keys[keys.length - 1] - base + 1];
+            for (int index = 0; index < keys.length; index++) {
+                slots[keys[index] - base] = children[index];
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        N get(char key) {
+            int slot = key - base;
+            return slot >= 0 && slot < slots.length ? (N) slots[slot] : null;
+        }
+
+        @Override
+        int size() {
+            return keys.length;
+        }
+
+        @Override
+        char keyAt(int index) {
+            return keys[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        N childAt(int index) {
+            return (N) slots[keys[index] - base];
+        }
+
+        @Override
+        long memoryFootprint() {
+            return MemoryEstimate.ofObject(Character.BYTES + 2 * MemoryEstimate.REFERENCE) + MemoryEstimate.ofArray(keys.length, Character.BYTES)
+                    + MemoryEstimate.ofArray(slots.length, MemoryEstimate.REFERENCE);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package io.github.tsaglam.wordsearch.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.github.tsaglam.wordsearch.MemoryEstimate;
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * An immutable, array-backed snapshot of a {@link ParallelPrefixTree}. All nodes are stored in depth-first pre-order in
+ * flat primitive arrays, so the subtree of a node is the contiguous node range up to its subtree end. Children are
+ * ordered by their character, which means the words are collected in lexicographic order. <b>Thread safety:</b> This
+ * class is immutable and thus supports concurrent use.
+ * @see ParallelPrefixTree#freeze()
+ */
+public class CompactPrefixTree implements SearchableDictionary {
+
+    private static final int ROOT = 0;
+
+    private final char[] labels; // character of the edge leading to each node
+    private final int[] depths; // number of characters on the path to each node
+    private final int[] subtreeEnds; // exclusive end of the node range of each subtree
+    private final int[] wordsBefore; // prefix sums of the words terminating at each node, one additional entry
+
+    /**
+     * Constructs a compact prefix tree from the given list of words. The words are first added concurrently to a
+     * {@link ParallelPrefixTree}, which is then frozen.
+     * @param words the list of words to insert.
+     * @throws IllegalArgumentException if words is null.
+     */
+    public CompactPrefixTree(List<String> words) {
+        this(new ParallelPrefixTree(words));
+    }
+
+    /**
+     * Creates a compact snapshot of a prefix tree. <b>Thread safety:</b> The tree must not be modified during the
+     * snapshot.
+     * @param tree is the tree to copy.
+     */
+    /* package-private */ CompactPrefixTree(PrefixTreeNode tree) {
+        int numberOfNodes = countNodes(tree);
+        labels = new char[numberOfNodes];
+        depths = new int[numberOfNodes];
+        subtreeEnds = new int[numberOfNodes];
+        wordsBefore = new int[numberOfNodes + 1];
+        int copiedNodes = copyNodes(tree);
+        if (copiedNodes != numberOfNodes) {
+            throw new IllegalStateException("Tree was modified during the snapshot.");
+        }
+        for (int node = 0; node < numberOfNodes; node++) {
+            wordsBefore[node + 1] += wordsBefore[node];
+        }
+    }
+
+    /**
+     * Returns the number of words stored in the tree.
+     * @return the total number of words.
+     */
+    public int size() {
+        return wordsBefore[labels.length];
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        int node = findNode(pattern);
+        if (node < 0) {
+            return List.of(); // no matching words
+        }
+        int[] childNodes = children(node);
+        if (childNodes.length == 0) {
+            return Collections.nCopies(wordsIn(node), pattern);
+        }
+        List<String> results = new ArrayList<>(wordsBelow(node));
+        results.addAll(Collections.nCopies(wordsIn(node), pattern));
+        IntStream.of(childNodes).parallel().mapToObj(child -> collectWords(child, pattern)).forEachOrdered(results::addAll);
+        return results;
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        int node = findNode(pattern);
+        return node < 0 ? 0 : wordsBelow(node);
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        int node = findNode(pattern);
+        if (node < 0) {
+            return Stream.empty(); // no matching words
+        }
+        return streamWords(node, subtreeEnds[node], pattern);
+    }
+
+    /**
+     * Returns one page of matching words in lexicographic order. The offset is resolved via the word counts, so the
+     * skipped words are never materialized.
+     */
+    @Override
+    public List<String> findMatchingWords(String pattern, int offset, int limit) {
+        SearchableDictionary.checkPage(offset, limit);
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        int node = findNode(pattern);
+        if (node < 0 || offset >= wordsBelow(node)) {
+            return List.of(); // no matching words
+        }
+        int firstWord = wordsBefore[node] + offset;
+        int start = findNodeOfWord(firstWord, node, subtreeEnds[node]);
+        String path = findPath(start, node, pattern);
+        return streamWords(start, subtreeEnds[node], path).skip(firstWord - wordsBefore[start]).limit(limit).toList();
+    }
+
+    /**
+     * Returns the next page of matching words in lexicographic order. The cursor is resolved via a single descent, so the
+     * words before it are never visited.
+     */
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        SearchableDictionary.checkCursor(cursor, limit);
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        int node = findNode(pattern);
+        if (node < 0) {
+            return List.of(); // no matching words
+        }
+        int start = Math.max(node, findFirstNodeAfter(cursor));
+        return streamWords(start, subtreeEnds[node], start == node ? pattern : cursor).limit(limit).toList();
+    }
+
+    /**
+     * Estimates the memory of the node arrays. In contrast to most other dictionaries, no strings are kept.
+     */
+    @Override
+    public long memoryFootprint() {
+        return MemoryEstimate.ofArray(labels.length, Character.BYTES) + MemoryEstimate.ofArray(depths.length, Integer.BYTES)
+                + MemoryEstimate.ofArray(subtreeEnds.length, Integer.BYTES) + MemoryEstimate.ofArray(wordsBefore.length, Integer.BYTES);
+    }
+
+    private Stream<String> streamWords(int start, int end, String path) {
+        Iterator<String> iterator = new WordIterator(start, end, path);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Descends from the root along the pattern.
+     * @return the node that corresponds to the pattern or -1 if none exists.
+     */
+    private int findNode(String pattern) {
+        int node = ROOT;
+        for (int index = 0; index < pattern.length(); index++) {
+            node = findChild(node, pattern.charAt(index));
+            if (node < 0) {
+                return node;
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Finds the child of a node via its sorted siblings, skipping their subtrees.
+     */
+    private int findChild(int node, char character) {
+        int end = subtreeEnds[node];
+        int child = node + 1;
+        while (child < end) {
+            if (labels[child] == character) {
+                return child;
+            }
+            if (labels[child] > character) {
+                return -1; // siblings are sorted
+            }
+            child = subtreeEnds[child];
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first node in pre-order whose path is lexicographically greater than the cursor. All nodes before it have
+     * a path that is smaller than or equal to the cursor, and the path of its parent is a prefix of the cursor.
+     */
+    private int findFirstNodeAfter(String cursor) {
+        int node = ROOT;
+        for (int index = 0; index < cursor.length(); index++) {
+            char character = cursor.charAt(index);
+            int child = node + 1;
+            while (child < subtreeEnds[node] && labels[child] < character) {
+                child = subtreeEnds[child];
+            }
+            if (child == subtreeEnds[node] || labels[child] != character) {
+                return child;
+            }
+            node = child;
+        }
+        return node + 1; // all descendants are greater than the cursor
+    }
+
+    /**
+     * Finds the node within a node range at which the word with the given index terminates.
+     */
+    private int findNodeOfWord(int word, int start, int end) {
+        int low = start;
+        int high = end - 1;
+        while (low < high) { // last node with wordsBefore[node] <= word
+            int middle = (low + high + 1) >>> 1;
+            if (wordsBefore[middle] <= word) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Reconstructs the path of a node by descending from one of its ancestors.
+     */
+    private String findPath(int target, int ancestor, String ancestorPath) {
+        StringBuilder path = new StringBuilder(ancestorPath);
+        int node = ancestor;
+        while (node != target) {
+            int child = node + 1;
+            while (subtreeEnds[child] <= target) {
+                child = subtreeEnds[child];
+            }
+            path.append(labels[child]);
+            node = child;
+        }
+        return path.toString();
+    }
+
+    private int[] children(int node) {
+        IntStream.Builder builder = IntStream.builder();
+        for (int child = node + 1; child < subtreeEnds[node]; child = subtreeEnds[child]) {
+            builder.add(child);
+        }
+        return builder.build().toArray();
+    }
+
+    /**
+     * Collects all words of a subtree sequentially in lexicographic order.
+     */
+    private List<String> collectWords(int subtreeRoot, String prefix) {
+        String[] results = new String[wordsBelow(subtreeRoot)];
+        int parentDepth = depths[subtreeRoot] - 1;
+        char[] buffer = new char[parentDepth + 1];
+        prefix.getChars(0, parentDepth, buffer, 0);
+        int index = 0;
+        for (int node = subtreeRoot; node < subtreeEnds[subtreeRoot]; node++) {
+            if (depths[node] > buffer.length) {
+                buffer = Arrays.copyOf(buffer, 2 * depths[node]);
+            }
+            buffer[depths[node] - 1] = labels[node];
+            int words = wordsIn(node);
+            if (words > 0) {
+                String word = new String(buffer, 0, depths[node]);
+                Arrays.fill(results, index, index + words, word);
+                index += words;
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private int wordsIn(int node) {
+        return wordsBefore[node + 1] - wordsBefore[node];
+    }
+
+    private int wordsBelow(int node) {
+        return wordsBefore[subtreeEnds[node]] - wordsBefore[node];
+    }
+
+    /**
+     * Counts the nodes of a tree with an explicit stack, as the depth of the tree is only bounded by the longest word.
+     */
+    private static int countNodes(PrefixTreeNode tree) {
+        int count = 0;
+        Deque<PrefixTreeNode> stack = new ArrayDeque<>();
+        stack.push(tree);
+        while (!stack.isEmpty()) {
+            ChildTable<PrefixTreeNode> children = stack.pop().getChildren();
+            count++;
+            for (int index = 0; index < children.size(); index++) {
+                stack.push(children.childAt(index));
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Copies a tree in pre-order with sorted children, using an explicit stack like {@link #countNodes(PrefixTreeNode)}.
+     * The subtree of a node ends at the next node in pre-order that is not deeper, which is resolved afterwards.
+     * @return the number of copied nodes.
+     */
+    private int copyNodes(PrefixTreeNode tree) {
+        int next = ROOT;
+        Deque<PendingNode> stack = new ArrayDeque<>();
+        stack.push(new PendingNode(tree, (char) 0, 0));
+        while (!stack.isEmpty()) {
+            if (next >= labels.length) {
+                throw new IllegalStateException("Tree was modified during the snapshot.");
+            }
+            PendingNode pending = stack.pop();
+            labels[next] = pending.label();
+            depths[next] = pending.depth();
+            wordsBefore[next + 1] = pending.source().getNumberOfWords(); // summed up afterwards
+            next++;
+            ChildTable<PrefixTreeNode> children = pending.source().getChildren();
+            for (int child = children.size() - 1; child >= 0; child--) { // the first child is copied first
+                stack.push(new PendingNode(children.childAt(child), children.keyAt(child), pending.depth() + 1));
+            }
+        }
+        int[] ancestors = new int[next];
+        int openNodes = 0;
+        for (int node = ROOT; node < next; node++) {
+            while (openNodes > 0 && depths[ancestors[openNodes - 1]] >= depths[node]) {
+                subtreeEnds[ancestors[--openNodes]] = node;
+            }
+            ancestors[openNodes++] = node;
+        }
+        while (openNodes > 0) {
+            subtreeEnds[ancestors[--openNodes]] = next;
+        }
+        return next;
+    }
+
+    /**
+     * Node of the source tree that is not copied yet, with the label and depth of its copy.
+     */
+    private record PendingNode(PrefixTreeNode source, char label, int depth) {
+    }
+
+    /**
+     * Lazy iterator over the words of a node range in pre-order, i.e., in lexicographic order.
+     */
+    private class WordIterator implements Iterator<String> {
+        private final int end;
+        private int node;
+        private char[] buffer;
+        private String pendingWord;
+        private int pendingCopies;
+
+        // the path provides the characters of the ancestors of the start node, optionally followed by others
+        WordIterator(int start, int end, String path) {
+            this.end = end;
+            node = start;
+            buffer = Arrays.copyOf(path.toCharArray(), Math.max(16, 2 * path.length()));
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pendingCopies == 0 && node < end) {
+                int depth = depths[node];
+                if (depth > buffer.length) {
+                    buffer = Arrays.copyOf(buffer, 2 * depth);
+                }
+                if (depth > 0) {
+                    buffer[depth - 1] = labels[node];
+                }
+                pendingCopies = wordsIn(node);
+                if (pendingCopies > 0) {
+                    pendingWord = new String(buffer, 0, depth);
+                }
+                node++;
+            }
+            return pendingCopies > 0;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            pendingCopies--;
+            return pendingWord;
+        }
+    }
+}
@@ -4,29 +4,36 @@ import java.util.List;
 
 /**
  * Iterative search on a {@link ParallelPrefixTree}. Allows searching character by character and immediately gaining
- * intermediate results.
+ * intermediate results. The search is backed by a {@link TypeaheadSession}, so it does not modify the tree and narrows
+ * the previous results instead of collecting the subtree for each character.
  */
 public class IterativeTreeSearch {
 
-    private PrefixTreeNode node;
+    private final TypeaheadSession session;
 
     /**
      * Creates the search based on a {@link ParallelPrefixTree}.
      * @param tree is the tree to search.
      */
     public IterativeTreeSearch(ParallelPrefixTree tree) {
-        this.node = tree; // tree is a (root) node
+        this.session = new TypeaheadSession(tree);
     }
 
     /**
      * Conducts a single search operation based on a character of a pattern. Updates the search to the corresponding
      * subtree.
      * @param patternCharacter specifies the current character of the search pattern.
-     * @return the search results for the current character.
+     * @return the search results for the current character, which start with all characters searched so far.
      */
     public List<String> findMatchingWords(char patternCharacter) {
-        node = node.getChildFor(patternCharacter);
-        return node.getContainedWords("");
+        return session.type(patternCharacter);
     }
 
+    /**
+     * Reverts the last search operation. Updates the search to the parent subtree.
+     * @return the search results for the remaining characters.
+     */
+    public List<String> revert() {
+        return session.backspace();
+    }
 }
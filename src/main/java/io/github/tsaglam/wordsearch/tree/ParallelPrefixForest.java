@@ -1,38 +1,41 @@
 package io.github.tsaglam.wordsearch.tree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import io.github.tsaglam.wordsearch.KeyRangeSharding;
 import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.WildcardPattern;
+import io.github.tsaglam.wordsearch.metrics.TraversalStatistics;
 
 /**
- * A virtual prefix tree (Trie) based on multiple trees that supports parallel prefix-based word search. <b>Thread
- * safety:</b> This class supports concurrent use.
+ * A virtual prefix tree (Trie) based on multiple trees that supports parallel prefix-based word search. The trees are
+ * shards of disjoint key ranges (see {@link KeyRangeSharding}), so each query only searches the trees whose range
+ * overlaps the pattern, which is usually a single tree on the calling thread, and the results are ordered by tree.
+ * Queries that cannot be routed by a prefix, like fuzzy queries, search all trees in parallel. <b>Thread safety:</b> This
+ * class supports concurrent use.
  * @see ParallelPrefixTree
  */
 public class ParallelPrefixForest implements SearchableDictionary {
 
+    private final KeyRangeSharding sharding;
     private final List<ParallelPrefixTree> dictionaries;
 
     /**
      * Creates the forest.
      * @param words specifies the content, cannot be null.
-     * @param numberOfTrees specifies how many trees are managed in parallel.
-     * @throws IllegalArgumentException if words is null.
+     * @param numberOfTrees specifies the maximum number of trees, which are balanced by sampling the words.
+     * @throws IllegalArgumentException if words is null or the number of trees is not positive.
      */
     public ParallelPrefixForest(List<String> words, int numberOfTrees) {
-        if (words == null) {
-            throw new IllegalArgumentException("Input words cannot be null.");
-        }
-
-        int bucketSize = Math.ceilDivExact(words.size(), numberOfTrees);
-        List<List<String>> sublists = new ArrayList<>();
-        for (int i = 0; i < words.size(); i += bucketSize) {
-            int end = Math.min(i + bucketSize, words.size());
-            sublists.add(words.subList(i, end));
-        }
-
-        dictionaries = sublists.parallelStream().map(ParallelPrefixTree::new).toList();
+        sharding = KeyRangeSharding.sample(words, numberOfTrees);
+        dictionaries = sharding.partition(words).parallelStream().map(ParallelPrefixTree::new).toList();
     }
 
     /**
@@ -48,7 +51,130 @@ public class ParallelPrefixForest implements SearchableDictionary {
         if (pattern == null) {
             throw new IllegalArgumentException("Pattern cannot be null.");
         }
-        return dictionaries.stream().parallel().flatMap(it -> it.findMatchingWords(pattern).stream()).toList();
+        List<List<String>> treeResults = sharding.fanOut(dictionaries, pattern).map(it -> it.findMatchingWords(pattern)).toList();
+        if (TraversalStatistics.ENABLED) {
+            TraversalStatistics.recordFanOut(treeResults.size(), (int) treeResults.stream().filter(it -> !it.isEmpty()).count());
+        }
+        return concatenate(treeResults);
+    }
+
+    /**
+     * Searches for all words in the forest that have the pattern as prefix and returns them in lexicographic order. As the
+     * trees hold disjoint key ranges, their sorted results are concatenated without merging.
+     * @param pattern specifies the search pattern.
+     * @return the sorted matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the pattern is null.
+     * @see ParallelPrefixTree#findSortedMatchingWords(String)
+     */
+    public List<String> findSortedMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return concatenate(sharding.fanOut(dictionaries, pattern).map(it -> it.findSortedMatchingWords(pattern)).toList());
+    }
+
+    /**
+     * Searches for the matching words of multiple patterns at once. Each tree answers the patterns that are routed to it
+     * in a single task, which shares the descents between the patterns, and the results are concatenated per pattern.
+     * @param patterns specifies the search patterns. Duplicates are searched once.
+     * @return the map from each pattern to its matching words.
+     * @throws IllegalArgumentException if the patterns or any of them are null.
+     */
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        String[] sortedPatterns = SearchableDictionary.sortedPatterns(patterns);
+        List<List<String>> treePatterns = IntStream.range(0, dictionaries.size()).<List<String>>mapToObj(it -> new ArrayList<>()).toList();
+        for (String pattern : sortedPatterns) {
+            sharding.route(treePatterns, pattern).forEach(it -> it.add(pattern));
+        }
+        List<Map<String, List<String>>> treeResults = IntStream.range(0, dictionaries.size()).parallel()
+                .mapToObj(tree -> dictionaries.get(tree).findMatchingWordsForAll(treePatterns.get(tree))).toList();
+        Map<String, List<String>> results = new HashMap<>();
+        for (String pattern : sortedPatterns) {
+            results.put(pattern, concatenate(sharding.route(treeResults, pattern).stream().map(it -> it.get(pattern)).toList()));
+        }
+        return results;
+    }
+
+    /**
+     * Searches for all words in the forest that start with a prefix within a maximum edit distance of the pattern. The
+     * trees are searched in parallel, and each tree additionally searches its branches in parallel.
+     * @param pattern specifies the search pattern.
+     * @param maxEdits specifies the maximum edit distance.
+     * @return the matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the pattern is null or the maximum edit distance is negative.
+     * @see ParallelPrefixTree#findFuzzyMatches(String, int)
+     */
+    @Override
+    public List<String> findFuzzyMatches(String pattern, int maxEdits) {
+        SearchableDictionary.checkFuzzyQuery(pattern, maxEdits);
+        return dictionaries.stream().parallel().flatMap(it -> it.findFuzzyMatches(pattern, maxEdits).stream()).toList();
+    }
+
+    /**
+     * Searches for all words in the forest that match a wildcard pattern as a whole. The trees are routed by the literal
+     * prefix of the pattern, and each tree additionally searches the branches below the literal prefix in parallel.
+     * @param pattern specifies the wildcard pattern.
+     * @return the matching words or an empty list if none match.
+     * @throws IllegalArgumentException if the pattern is null.
+     * @see ParallelPrefixTree#findWildcardMatches(String)
+     */
+    @Override
+    public List<String> findWildcardMatches(String pattern) {
+        String literalPrefix = WildcardPattern.compile(pattern).getLiteralPrefix();
+        return sharding.fanOut(dictionaries, literalPrefix).flatMap(it -> it.findWildcardMatches(pattern).stream()).toList();
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        int[] treeCounts = sharding.fanOut(dictionaries, pattern).mapToInt(it -> it.countMatchingWords(pattern)).toArray();
+        if (TraversalStatistics.ENABLED) {
+            TraversalStatistics.recordFanOut(treeCounts.length, (int) Arrays.stream(treeCounts).filter(it -> it > 0).count());
+        }
+        return Arrays.stream(treeCounts).sum();
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        return sharding.route(dictionaries, pattern).stream().flatMap(it -> it.streamMatchingWords(pattern));
     }
 
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        SearchableDictionary.checkCursor(cursor, limit);
+        if (pattern == null) {
+            throw new IllegalArgumentException("Pattern cannot be null.");
+        }
+        List<String> words = new ArrayList<>();
+        for (ParallelPrefixTree tree : sharding.routeAfter(dictionaries, pattern, cursor)) { // in order, until the page is full
+            if (words.size() == limit) {
+                break;
+            }
+            words.addAll(tree.findMatchingWordsAfter(pattern, cursor, limit - words.size()));
+        }
+        return words;
+    }
+
+    @Override
+    public long memoryFootprint() {
+        return dictionaries.stream().parallel().mapToLong(ParallelPrefixTree::memoryFootprint).sum();
+    }
+
+    /**
+     * Concatenates the results of the trees, which are ordered by tree.
+     */
+    private static List<String> concatenate(List<List<String>> treeResults) {
+        if (treeResults.size() == 1) {
+            return treeResults.get(0);
+        }
+        List<String> words = new ArrayList<>(treeResults.stream().mapToInt(List::size).sum());
+        treeResults.forEach(words::addAll);
+        return words;
+    }
 }
@@ -1,31 +1,31 @@
 package io.github.tsaglam.wordsearch.tree;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import io.github.tsaglam.wordsearch.SearchableDictionary;
 
 /**
  * A prefix tree (Trie) implementation that supports parallel prefix-based word search. <b>Thread safety:</b> This class
- * supports concurrent use. Note that while adding concurrently with searching, result may vary (as to be expected).
+ * supports concurrent use. Note that while adding or removing concurrently with searching, result may vary (as to be
+ * expected). For point-in-time consistent results under concurrent modifications, use {@link PersistentPrefixTree}.
  * When using {@link ParallelPrefixTree#ParallelPrefixTree(List)}, all words are added concurrently.
  */
 public class ParallelPrefixTree extends PrefixTreeNode implements SearchableDictionary {
 
     private static final int INITIAL_DEPTH = 0;
-    private final AtomicInteger size;
 
     /**
      * Constructs a prefix tree concurrently from the given list of words.
      * @param words the list of words to insert.
      * @throws IllegalArgumentException if words is null.
      */
+    @SuppressWarnings("this-escape") // the words are added after the tree is initialized
     public ParallelPrefixTree(List<String> words) {
         super(INITIAL_DEPTH);
         if (words == null) {
             throw new IllegalArgumentException("Words cannot be null!");
         }
-        size = new AtomicInteger(words.size());
         words.stream().parallel().forEach(this::addWord);
     }
 
@@ -34,25 +34,24 @@ public class ParallelPrefixTree extends PrefixTreeNode implements SearchableDict
      */
     public ParallelPrefixTree() {
         super(INITIAL_DEPTH);
-        size = new AtomicInteger();
     }
 
     /**
-     * Adds a word to the tree. <b>Thread safety:</b> This method is safe to call concurrently.
-     * @param word is the word to add.
+     * Returns the number of words stored in the tree. <b>Thread safety:</b> This method is safe to call concurrently.
+     * @return the total number of words.
      */
-    @Override
-    public void addWord(String word) {
-        size.incrementAndGet();
-        super.addWord(word);
+    public int size() {
+        return getNumberOfWordsBelow();
     }
 
     /**
-     * Returns the number of words stored in the tree. <b>Thread safety:</b> This method is safe to call concurrently.
-     * @return the total number of words.
+     * Creates an immutable, array-backed snapshot of this tree that answers the same queries with a fraction of the heap.
+     * <b>Thread safety:</b> The tree must not be modified while the snapshot is created.
+     * @return the compact snapshot.
+     * @throws IllegalStateException if a concurrent modification was detected.
      */
-    public int size() {
-        return size.get();
+    public CompactPrefixTree freeze() {
+        return new CompactPrefixTree(this);
     }
 
     @Override
@@ -62,4 +61,52 @@ public class ParallelPrefixTree extends PrefixTreeNode implements SearchableDict
         }
         return super.findMatchingWords(pattern);
     }
+
+    @Override
+    public List<String> findSortedMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        return super.findSortedMatchingWords(pattern);
+    }
+
+    @Override
+    public List<String> findTopMatchingWords(String pattern, int limit) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        return super.findTopMatchingWords(pattern, limit);
+    }
+
+    @Override
+    public long getWeight(String word) {
+        if (word == null) {
+            throw new IllegalArgumentException("Word cannot be null!");
+        }
+        return super.getWeight(word);
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        return super.countMatchingWords(pattern);
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        return super.streamMatchingWords(pattern);
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        return super.findMatchingWordsAfter(pattern, cursor, limit);
+    }
 }
@@ -0,0 +1,517 @@
+package io.github.tsaglam.wordsearch.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+import io.github.tsaglam.wordsearch.MemoryEstimate;
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.metrics.TraversalStatistics;
+
+/**
+ * A path-compressed prefix tree (radix tree) that supports parallel prefix-based word search. Chains of nodes with a
+ * single child are merged into one edge with a multi-character label, so long words with unique tails such as URLs or
+ * file paths need one node per branching point instead of one node per character. Labels are not copied, each edge
+ * references a range of the word that created it. Like in the {@link ParallelPrefixTree}, the children of a node are an
+ * immutable {@link ChildTable}, keyed by the first character of their labels, which is replaced with a compare-and-set,
+ * and each node counts the words in its subtree, so counting only requires a single descent. As edges are immutable as
+ * well, an edge is split for a word that diverges within its label by publishing a new intermediate node with a single
+ * compare-and-set of the table. The node below the split edge is kept as it is, so words that are added below it
+ * concurrently are not lost. Its subtree count is frozen during the split, so the intermediate node starts with the exact
+ * count. Removing a word prunes the nodes whose subtree becomes empty and merges nodes without words that are left with
+ * a single child into the edge above them, which keeps the tree path-compressed. Removals are serialized, additions and
+ * searches never wait for them. Results are collected in lexicographic order, in parallel for the children of the node
+ * of the pattern. <b>Thread safety:</b> This class supports concurrent use. Note that while adding or removing
+ * concurrently with searching, result may vary (as to be expected). When using
+ * {@link ParallelRadixTree#ParallelRadixTree(List)}, all words are added concurrently.
+ */
+public class ParallelRadixTree implements SearchableDictionary {
+
+    private static final long NODE_SIZE = MemoryEstimate.ofObject(MemoryEstimate.REFERENCE + Integer.BYTES + Long.BYTES);
+    private static final long EDGE_SIZE = MemoryEstimate.ofObject(2 * MemoryEstimate.REFERENCE + 2 * Integer.BYTES);
+
+    private final Node root;
+    private final LongAdder size;
+    private final ReentrantLock removalLock; // serializes the pruning and merging of nodes
+
+    /**
+     * Constructs a radix tree concurrently from the given list of words.
+     * @param words the list of words to insert.
+     * @throws IllegalArgumentException if words is null.
+     */
+    @SuppressWarnings("this-escape") // the words are added after the tree is initialized
+    public ParallelRadixTree(List<String> words) {
+        this();
+        if (words == null) {
+            throw new IllegalArgumentException("Words cannot be null!");
+        }
+        words.stream().parallel().forEach(this::addWord);
+    }
+
+    /**
+     * Constructs an empty radix tree.
+     */
+    public ParallelRadixTree() {
+        root = new Node(0, 0, ChildTable.empty());
+        size = new LongAdder();
+        removalLock = new ReentrantLock();
+    }
+
+    /**
+     * Returns the number of words stored in the tree. <b>Thread safety:</b> This method is safe to call concurrently.
+     * @return the total number of words.
+     */
+    public int size() {
+        return size.intValue();
+    }
+
+    /**
+     * Adds a word to the tree. The word is either added to an existing node, to a new leaf below the last matching node, or
+     * to a new intermediate node that splits the edge in which the word diverges. The subtree counts are incremented
+     * top-down, before descending into a node. A failed compare-and-set of a table is retried from the same node, as
+     * another word changed its children, and a node that is split, merged, or pruned concurrently is retried as well.
+     * <b>Thread safety:</b> This method is safe to call concurrently.
+     * @param word is the word to add.
+     * @throws IllegalArgumentException if the word is null.
+     */
+    public void addWord(String word) {
+        if (word == null) {
+            throw new IllegalArgumentException("Word cannot be null!");
+        }
+        Node node = root;
+        node.addWordsBelow(1);
+        int offset = 0;
+        while (offset < word.length()) {
+            ChildTable<Edge> table = node.children;
+            char key = word.charAt(offset);
+            Edge edge = table.get(key);
+            if (edge == null) {
+                Edge leaf = new Edge(word, offset, word.length(), new Node(1, 1, ChildTable.empty()));
+                if (node.replaceChildren(table, table.with(key, leaf))) {
+                    size.increment();
+                    return;
+                }
+            } else {
+                int common = edge.commonPrefixLength(word, offset);
+                if (common < edge.length()) {
+                    if (split(node, edge, word, offset, common)) {
+                        size.increment();
+                        return;
+                    }
+                } else if (node.tryAddWordsBelow(edge, 1)) {
+                    node = edge.target();
+                    offset += common;
+                } else {
+                    Thread.onSpinWait(); // the edge is replaced concurrently
+                }
+            }
+        }
+        node.incrementWords();
+        size.increment();
+    }
+
+    /**
+     * Removes one occurrence of a word from the tree. The subtree counts on the path of the word are decremented, then the
+     * nodes on the path are compacted bottom-up: Nodes whose subtree became empty are pruned, and nodes without words that
+     * have a single child are merged into the edge above them. A node that is in use by a concurrent addition is kept.
+     * <b>Thread safety:</b> This method is safe to call concurrently, also while words are added.
+     * @param word is the word to remove.
+     * @return true if the word was contained, false otherwise.
+     * @throws IllegalArgumentException if the word is null.
+     */
+    public boolean removeWord(String word) {
+        if (word == null) {
+            throw new IllegalArgumentException("Word cannot be null!");
+        }
+        removalLock.lock();
+        try {
+            Position position = locate(word);
+            if (position == null || position.path().length() != word.length() || !position.node().tryDecrementWords()) {
+                return false;
+            }
+            List<Edge> path = decrementWordsBelow(word);
+            for (int index = path.size() - 1; index >= 0; index--) {
+                Node parent = index == 0 ? root : path.get(index - 1).target();
+                Edge edge = path.get(index);
+                if (!parent.prune(edge)) {
+                    parent.merge(edge);
+                }
+            }
+            size.decrement();
+            return true;
+        } finally {
+            removalLock.unlock();
+        }
+    }
+
+    /**
+     * Searches for all words that start with the pattern. The words are already in lexicographic order.
+     */
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        Position position = locate(pattern);
+        return position == null ? List.of() : collect(position.node(), position.path());
+    }
+
+    /**
+     * Counts the matching words with a single descent, as each node maintains the number of words in its subtree.
+     */
+    @Override
+    public int countMatchingWords(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+        Position position = locate(pattern);
+        return position == null ? 0 : position.node().getNumberOfWordsBelow();
+    }
+
+    /**
+     * Estimates the memory of the nodes, edges, and child tables. The labels reference the words that created the edges,
+     * which are counted once each.
+     */
+    @Override
+    public long memoryFootprint() {
+        Set<String> sources = Collections.newSetFromMap(new IdentityHashMap<>());
+        return memoryFootprint(root, sources) + sources.stream().mapToLong(MemoryEstimate::ofString).sum();
+    }
+
+    /**
+     * Finds the node of all words that start with a pattern. If the pattern ends within the label of an edge, this is the
+     * node below that edge, and the path to the node is longer than the pattern.
+     * @return the node and its path, or null if no word starts with the pattern.
+     */
+    private Position locate(String pattern) {
+        Node node = root;
+        int offset = 0;
+        int visitedNodes = 1;
+        Position position = null;
+        while (offset < pattern.length()) {
+            Edge edge = node.children.get(pattern.charAt(offset));
+            if (edge == null) {
+                break;
+            }
+            visitedNodes++;
+            int common = edge.commonPrefixLength(pattern, offset);
+            if (common < edge.length()) {
+                if (offset + common == pattern.length()) { // otherwise, the pattern diverges within the label
+                    position = new Position(edge.target(), pattern.substring(0, offset) + edge.label());
+                }
+                break;
+            }
+            node = edge.target();
+            offset += common;
+        }
+        if (offset == pattern.length()) {
+            position = new Position(node, pattern);
+        }
+        if (TraversalStatistics.ENABLED) {
+            TraversalStatistics.recordDescent(visitedNodes);
+        }
+        return position;
+    }
+
+    /**
+     * Splits an edge for a word that diverges within its label, or ends within it. The target of the edge is frozen, so
+     * that neither its subtree count nor the edge change until the intermediate node is published with a copy of the count.
+     * @return true if the word was added, false if the target is frozen or detached concurrently.
+     */
+    private static boolean split(Node node, Edge edge, String word, int offset, int common) {
+        long state = node.freeze(edge);
+        if (state == -1) {
+            Thread.onSpinWait();
+            return false;
+        }
+        Edge tail = edge.suffix(common);
+        ChildTable<Edge> children = ChildTable.<Edge>empty().with(tail.charAt(0), tail);
+        int ownWords = 1;
+        if (offset + common < word.length()) {
+            Edge leaf = new Edge(word, offset + common, word.length(), new Node(1, 1, ChildTable.empty()));
+            children = children.with(leaf.charAt(0), leaf);
+            ownWords = 0;
+        }
+        Edge prefix = edge.prefix(common, new Node(ownWords, (int) state + 1, children));
+        ChildTable<Edge> table;
+        do {
+            table = node.children; // other children may change, but not the edge, as its target is frozen
+        } while (!node.replaceChildren(table, table.with(edge.charAt(0), prefix)));
+        edge.target().unfreeze(state);
+        return true;
+    }
+
+    /**
+     * Decrements the subtree counts on the path of a contained word top-down. A node whose edge is split concurrently is
+     * retried from its parent, which then leads to the new intermediate node above it.
+     * @return the edges of the path.
+     */
+    private List<Edge> decrementWordsBelow(String word) {
+        root.addWordsBelow(-1);
+        List<Edge> path = new ArrayList<>();
+        Node node = root;
+        int offset = 0;
+        while (offset < word.length()) {
+            Edge edge = node.children.get(word.charAt(offset));
+            if (node.tryAddWordsBelow(edge, -1)) {
+                path.add(edge);
+                node = edge.target();
+                offset += edge.length();
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Collects the words of a subtree, where the subtrees of the children are collected in parallel and concatenated in the
+     * order of their keys. Leaves are collected sequentially, as they only contain the words of their own path.
+     */
+    private static List<String> collect(Node node, String path) {
+        ChildTable<Edge> children = node.children;
+        List<String> words = new ArrayList<>(Collections.nCopies(node.numberOfWords, path));
+        if (children.size() > 1 && IntStream.range(0, children.size()).anyMatch(index -> !children.childAt(index).target().isLeaf())) {
+            IntStream.range(0, children.size()).parallel().mapToObj(index -> {
+                List<String> childWords = new ArrayList<>();
+                collect(children.childAt(index), new StringBuilder(path), childWords);
+                return childWords;
+            }).forEachOrdered(words::addAll);
+        } else {
+            StringBuilder buffer = new StringBuilder(path);
+            for (int index = 0; index < children.size(); index++) {
+                collect(children.childAt(index), buffer, words);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Collects the words below an edge sequentially in depth-first order, reusing one buffer for the path.
+     */
+    private static void collect(Edge edge, StringBuilder path, List<String> words) {
+        int length = path.length();
+        path.append(edge.source(), edge.start(), edge.end());
+        Node node = edge.target();
+        int ownWords = node.numberOfWords;
+        if (ownWords > 0) {
+            String word = path.toString();
+            for (int occurrence = 0; occurrence < ownWords; occurrence++) {
+                words.add(word);
+            }
+        }
+        ChildTable<Edge> children = node.children;
+        for (int index = 0; index < children.size(); index++) {
+            collect(children.childAt(index), path, words);
+        }
+        path.setLength(length);
+    }
+
+    private static long memoryFootprint(Node node, Set<String> sources) {
+        ChildTable<Edge> children = node.children;
+        long footprint = NODE_SIZE + children.memoryFootprint();
+        for (int index = 0; index < children.size(); index++) {
+            Edge edge = children.childAt(index);
+            sources.add(edge.source());
+            footprint += EDGE_SIZE + memoryFootprint(edge.target(), sources);
+        }
+        return footprint;
+    }
+
+    /**
+     * Node of the radix tree, which is the end of the path of the words it counts. Its children are keyed by the first
+     * character of the label of their edge. The subtree count is only changed through an edge that is still linked to
+     * the node. It is frozen while that edge is split, and detached when the node is pruned or merged. The count also
+     * carries a stamp that changes with every split, so a count that is read before a split is never mistaken for the
+     * same count after it.
+     */
+    private static final class Node {
+        @SuppressWarnings("rawtypes") // the updater cannot be created for a generic field type
+        private static final AtomicReferenceFieldUpdater<Node, ChildTable> CHILDREN = AtomicReferenceFieldUpdater.newUpdater(Node.class,
+                ChildTable.class, "children");
+        private static final AtomicIntegerFieldUpdater<Node> NUMBER_OF_WORDS = AtomicIntegerFieldUpdater.newUpdater(Node.class,
+                "numberOfWords");
+        private static final AtomicLongFieldUpdater<Node> WORDS_BELOW = AtomicLongFieldUpdater.newUpdater(Node.class, "wordsBelow");
+        private static final long FROZEN = 1L << Integer.SIZE; // flag while the edge to the node is split
+        private static final long DETACHED = FROZEN << 1; // flag after the node is pruned or merged
+        private static final long STAMP = DETACHED << 1; // added to the count whenever a split ends
+
+        private volatile ChildTable<Edge> children;
+        private volatile int numberOfWords;
+        private volatile long wordsBelow; // subtree count in the lower bits, flags and stamp in the upper bits
+
+        Node(int numberOfWords, int numberOfWordsBelow, ChildTable<Edge> children) {
+            this.numberOfWords = numberOfWords;
+            this.wordsBelow = numberOfWordsBelow;
+            this.children = children;
+        }
+
+        boolean replaceChildren(ChildTable<Edge> expected, ChildTable<Edge> table) {
+            return CHILDREN.compareAndSet(this, expected, table);
+        }
+
+        boolean isLeaf() {
+            return children.size() == 0;
+        }
+
+        void incrementWords() {
+            NUMBER_OF_WORDS.incrementAndGet(this);
+        }
+
+        boolean tryDecrementWords() {
+            int count;
+            do {
+                count = numberOfWords;
+                if (count == 0) {
+                    return false;
+                }
+            } while (!NUMBER_OF_WORDS.compareAndSet(this, count, count - 1));
+            return true;
+        }
+
+        int getNumberOfWordsBelow() {
+            long state = wordsBelow;
+            return (state & DETACHED) != 0 ? 0 : (int) state; // detached nodes are empty
+        }
+
+        /**
+         * Adds to the subtree count of the root, which is never frozen or detached.
+         */
+        void addWordsBelow(int delta) {
+            WORDS_BELOW.addAndGet(this, delta);
+        }
+
+        /**
+         * Adds to the subtree count of the target of an edge of this node.
+         * @return true if the count was changed, false if the edge was replaced or its target is frozen or detached.
+         */
+        boolean tryAddWordsBelow(Edge edge, int delta) {
+            Node target = edge.target();
+            long state;
+            do {
+                state = target.wordsBelow;
+                if ((state & (FROZEN | DETACHED)) != 0 || children.get(edge.charAt(0)) != edge) {
+                    return false;
+                }
+            } while (!WORDS_BELOW.compareAndSet(target, state, state + delta));
+            return true;
+        }
+
+        /**
+         * Freezes the subtree count of the target of an edge of this node, so that the edge is not replaced by others.
+         * @return the state of the count before, or -1 if the edge was replaced or its target is frozen or detached.
+         */
+        long freeze(Edge edge) {
+            Node target = edge.target();
+            long state = target.wordsBelow;
+            boolean frozen = (state & (FROZEN | DETACHED)) == 0 && children.get(edge.charAt(0)) == edge
+                    && WORDS_BELOW.compareAndSet(target, state, state | FROZEN);
+            return frozen ? state : -1;
+        }
+
+        /**
+         * Ends a freeze of this node, as the count was not modified since.
+         */
+        void unfreeze(long state) {
+            wordsBelow = state + STAMP;
+        }
+
+        /**
+         * Detaches the target of an edge of this node if its subtree is empty, and unlinks it from the table.
+         * @return true if the target was pruned, false if it is not empty or the edge was replaced concurrently.
+         */
+        boolean prune(Edge edge) {
+            Node child = edge.target();
+            long state = child.wordsBelow;
+            if ((int) state != 0 || (state & (FROZEN | DETACHED)) != 0 || children.get(edge.charAt(0)) != edge
+                    || !WORDS_BELOW.compareAndSet(child, state, state | DETACHED)) {
+                return false;
+            }
+            ChildTable<Edge> table;
+            do {
+                table = children;
+            } while (!replaceChildren(table, table.without(edge.charAt(0))));
+            return true;
+        }
+
+        /**
+         * Merges the target of an edge of this node into the edge if it has no words and a single edge itself, which is then
+         * concatenated with the edge. The target is only detached if no concurrent addition is between it and its own child,
+         * as its subtree count then equals the subtree count of its child.
+         */
+        void merge(Edge edge) {
+            Node child = edge.target();
+            ChildTable<Edge> grandchildren = child.children;
+            long state = child.wordsBelow;
+            if (child.numberOfWords != 0 || grandchildren.size() != 1 || (state & (FROZEN | DETACHED)) != 0
+                    || (int) state != (int) grandchildren.childAt(0).target().wordsBelow || children.get(edge.charAt(0)) != edge
+                    || !WORDS_BELOW.compareAndSet(child, state, state | DETACHED)) {
+                return;
+            }
+            Edge lower = child.children.childAt(0); // the table of a detached node does not change anymore
+            Edge merged = new Edge(lower.source(), edge.start(), lower.end(), lower.target()); // sources start with their path
+            ChildTable<Edge> table;
+            do {
+                table = children;
+            } while (!replaceChildren(table, table.with(edge.charAt(0), merged)));
+        }
+    }
+
+    /**
+     * Immutable edge to a node, labeled with the characters of a source word from a start index to an end index.
+     */
+    private record Edge(String source, int start, int end, Node target) {
+
+        int length() {
+            return end - start;
+        }
+
+        char charAt(int index) {
+            return source.charAt(start + index);
+        }
+
+        String label() {
+            return source.substring(start, end);
+        }
+
+        /**
+         * Returns the number of leading characters of the label that are equal to the characters of a word from an offset.
+         */
+        int commonPrefixLength(String word, int offset) {
+            int maximum = Math.min(length(), word.length() - offset);
+            int common = 0;
+            while (common < maximum && charAt(common) == word.charAt(offset + common)) {
+                common++;
+            }
+            return common;
+        }
+
+        /**
+         * Returns the edge of the first characters of the label, which leads to another node.
+         */
+        Edge prefix(int length, Node node) {
+            return new Edge(source, start, start + length, node);
+        }
+
+        /**
+         * Returns the edge of the label without its first characters, which leads to the same node.
+         */
+        Edge suffix(int length) {
+            return new Edge(source, start + length, end, target);
+        }
+    }
+
+    /**
+     * Node of a pattern and the full path from the root to the node.
+     */
+    private record Position(Node node, String path) {
+    }
+}
@@ -0,0 +1,201 @@
+package io.github.tsaglam.wordsearch.tree;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import io.github.tsaglam.wordsearch.SearchableDictionary;
+
+/**
+ * A persistent prefix tree (Trie) that gives every query a consistent point-in-time view while words are added or
+ * removed. Published nodes are never modified: A modification copies the nodes on the path of its word, shares all other
+ * subtrees with the previous version, and publishes the new version by atomically replacing the root. Each query reads
+ * the root once and thus operates on a single immutable version, which also makes snapshots free. <b>Thread
+ * safety:</b> This class supports concurrent use. Modifications are lock-free, but they compete for the root and are
+ * retried on contention, so this tree suits read-heavy workloads with live updates. For write-heavy workloads with
+ * weakly consistent reads, use {@link ParallelPrefixTree}.
+ */
+public class PersistentPrefixTree implements SearchableDictionary {
+
+    private static final int INITIAL_DEPTH = 0;
+
+    private final AtomicReference<PrefixTreeNode> root;
+
+    /**
+     * Constructs a persistent prefix tree from the given list of words. The initial version is built concurrently.
+     * @param words the list of words to insert.
+     * @throws IllegalArgumentException if words is null.
+     */
+    public PersistentPrefixTree(List<String> words) {
+        this(new ParallelPrefixTree(words)); // not shared, thus never modified after construction
+    }
+
+    /**
+     * Constructs an empty persistent prefix tree.
+     */
+    public PersistentPrefixTree() {
+        this(new PrefixTreeNode(INITIAL_DEPTH));
+    }
+
+    private PersistentPrefixTree(PrefixTreeNode version) {
+        root = new AtomicReference<>(version);
+    }
+
+    /**
+     * Adds a word as a new version of the tree. Each occurrence of a word adds a weight of one, so words are ranked by
+     * their frequency. <b>Thread safety:</b> This method is safe to call concurrently.
+     * @param word is the word to add.
+     * @throws IllegalArgumentException if the word is null.
+     */
+    public void addWord(String word) {
+        addWord(word, PrefixTreeNode.DEFAULT_WEIGHT);
+    }
+
+    /**
+     * Adds a word with a weight as a new version of the tree. The weights of all occurrences of a word are summed up.
+     * <b>Thread safety:</b> This method is safe to call concurrently.
+     * @param word is the word to add.
+     * @param weight is the non-negative weight of the occurrence, e.g. its score or frequency.
+     * @throws IllegalArgumentException if the word is null or the weight is negative.
+     */
+    public void addWord(String word, long weight) {
+        checkWord(word);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative.");
+        }
+        root.updateAndGet(version -> version.withWord(word, weight));
+    }
+
+    /**
+     * Removes one occurrence of a word as a new version of the tree, together with its share of the weight of the
+     * word. Nodes that become empty are not part of the new version. <b>Thread safety:</b> This method is safe to call
+     * concurrently.
+     * @param word is the word to remove.
+     * @return true if the word was contained, false otherwise.
+     * @throws IllegalArgumentException if the word is null.
+     */
+    public boolean removeWord(String word) {
+        checkWord(word);
+        while (true) {
+            PrefixTreeNode version = root.get();
+            PrefixTreeNode newVersion = version.withoutWord(word);
+            if (newVersion == version) {
+                return false;
+            }
+            if (root.compareAndSet(version, newVersion)) {
+                return true;
+            } // otherwise, retry on the version of the concurrent modification
+        }
+    }
+
+    /**
+     * Returns the current version of the tree, which is not affected by later modifications of this tree and vice versa.
+     * Both trees share all nodes until they are modified. <b>Thread safety:</b> This method is safe to call concurrently.
+     * @return the snapshot.
+     */
+    public PersistentPrefixTree snapshot() {
+        return new PersistentPrefixTree(root.get());
+    }
+
+    /**
+     * Creates an immutable, array-backed copy of the current version. <b>Thread safety:</b> This method is safe to call
+     * concurrently, also while the tree is modified.
+     * @return the compact snapshot.
+     */
+    public CompactPrefixTree freeze() {
+        return new CompactPrefixTree(root.get());
+    }
+
+    /**
+     * Returns the number of words stored in the current version of the tree.
+     * @return the total number of words.
+     */
+    public int size() {
+        return root.get().getNumberOfWordsBelow();
+    }
+
+    @Override
+    public List<String> findMatchingWords(String pattern) {
+        checkPattern(pattern);
+        return root.get().findMatchingWords(pattern);
+    }
+
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        return root.get().findMatchingWordsForAll(patterns); // all patterns see the same version
+    }
+
+    /**
+     * Returns the words with the highest weights that start with the specified pattern, all from the current version.
+     * @param pattern is the specified pattern or prefix.
+     * @param limit is the maximum number of words to return.
+     * @return the list of words ordered by descending weight and lexicographically among equal weights.
+     * @throws IllegalArgumentException if the pattern is null or the limit is negative.
+     * @see PrefixTreeNode#findTopMatchingWords(String, int)
+     */
+    public List<String> findTopMatchingWords(String pattern, int limit) {
+        checkPattern(pattern);
+        return root.get().findTopMatchingWords(pattern, limit);
+    }
+
+    @Override
+    public List<String> findFuzzyMatches(String pattern, int maxEdits) {
+        return root.get().findFuzzyMatches(pattern, maxEdits);
+    }
+
+    @Override
+    public List<String> findWildcardMatches(String pattern) {
+        return root.get().findWildcardMatches(pattern);
+    }
+
+    /**
+     * Returns the weight of a word in the current version, which is the sum of the weights of its occurrences.
+     * @param word is the word.
+     * @return the weight, or zero if the word is not contained.
+     * @throws IllegalArgumentException if the word is null.
+     */
+    public long getWeight(String word) {
+        checkWord(word);
+        return root.get().getWeight(word);
+    }
+
+    @Override
+    public int countMatchingWords(String pattern) {
+        checkPattern(pattern);
+        return root.get().countMatchingWords(pattern);
+    }
+
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        checkPattern(pattern);
+        return root.get().streamMatchingWords(pattern);
+    }
+
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        checkPattern(pattern);
+        return root.get().findMatchingWordsAfter(pattern, cursor, limit);
+    }
+
+    /**
+     * Estimates the memory of the current version. Nodes that are shared with snapshots are counted as well.
+     */
+    @Override
+    public long memoryFootprint() {
+        return root.get().memoryFootprint();
+    }
+
+    private static void checkWord(String word) {
+        if (word == null) {
+            throw new IllegalArgumentException("Word cannot be null!");
+        }
+    }
+
+    private static void checkPattern(String pattern) {
+        if (pattern == null) {
+            throw new IllegalArgumentException("Search pattern cannot be null!");
+        }
+    }
+}
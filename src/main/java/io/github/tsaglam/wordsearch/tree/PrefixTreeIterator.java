@@ -0,0 +1,112 @@
+package io.github.tsaglam.wordsearch.tree;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy depth-first iterator over the words of a subtree of a {@link PrefixTreeNode}. Children are visited in the order of
+ * their index character, so the words are returned in lexicographic order. Words are only materialized when they are
+ * consumed. Optionally, only words that are lexicographically greater than a cursor are returned, in which case subtrees
+ * before the cursor are skipped entirely. <b>Thread safety:</b> Instances must not be shared between threads. The tree
+ * may be modified during the iteration, as child tables are immutable snapshots, but words that are added or removed
+ * meanwhile may or may not be returned.
+ */
+/* package-private */ class PrefixTreeIterator implements Iterator<String> {
+
+    private final Deque<Frame> stack;
+    private final String cursor;
+    private char[] buffer;
+    private String pendingWord;
+    private int pendingCopies;
+
+    /**
+     * Creates an iterator over all words of a subtree.
+     * @param node is the root node of the subtree.
+     * @param prefix is the prefix of all nodes up to including the root node.
+     * @param cursor is the exclusive lower bound of the returned words, or null if all words are returned.
+     */
+    /* package-private */ PrefixTreeIterator(PrefixTreeNode node, String prefix, String cursor) {
+        this.cursor = cursor;
+        stack = new ArrayDeque<>();
+        buffer = Arrays.copyOf(prefix.toCharArray(), Math.max(16, 2 * prefix.length()));
+        if (cursor == null || prefix.compareTo(cursor) > 0 && !cursor.startsWith(prefix)) {
+            enter(node, prefix.length(), false);
+        } else if (cursor.startsWith(prefix)) {
+            enter(node, prefix.length(), true);
+        } // otherwise, all words of the subtree are before the cursor
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (pendingCopies == 0 && !stack.isEmpty()) {
+            Frame frame = stack.peek();
+            if (frame.index == frame.children.size()) {
+                stack.pop();
+                continue;
+            }
+            char key = frame.children.keyAt(frame.index);
+            PrefixTreeNode child = frame.children.childAt(frame.index++);
+            boolean bounded = frame.bounded && frame.depth < cursor.length();
+            if (bounded && key != cursor.charAt(frame.depth)) {
+                if (key < cursor.charAt(frame.depth)) {
+                    continue; // subtree is before the cursor
+                }
+                bounded = false; // subtree is after the cursor
+            }
+            ensureCapacity(frame.depth + 1);
+            buffer[frame.depth] = key;
+            enter(child, frame.depth + 1, bounded);
+        }
+        return pendingCopies > 0;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        pendingCopies--;
+        return pendingWord;
+    }
+
+    /**
+     * Enters a node and schedules its words unless its path is a prefix of the cursor (or equal to it).
+     */
+    private void enter(PrefixTreeNode node, int depth, boolean bounded) {
+        if (!bounded) {
+            pendingCopies = node.getNumberOfWords();
+            if (pendingCopies > 0) {
+                pendingWord = new String(buffer, 0, depth);
+            }
+        }
+        ChildTable<PrefixTreeNode> children = node.getChildren();
+        if (!children.isEmpty()) {
+            stack.push(new Frame(children, depth, bounded));
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, 2 * length);
+        }
+    }
+
+    /**
+     * Traversal state of a single node on the current path.
+     */
+    private static class Frame {
+        private final ChildTable<PrefixTreeNode> children; // snapshot of the child table
+        private final int depth;
+        private final boolean bounded; // path is a prefix of the cursor
+        private int index;
+
+        Frame(ChildTable<PrefixTreeNode> children, int depth, boolean bounded) {
+            this.children = children;
+            this.depth = depth;
+            this.bounded = bounded;
+        }
+    }
+}
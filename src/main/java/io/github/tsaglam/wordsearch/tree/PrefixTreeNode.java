@@ -1,97 +1,732 @@
 package io.github.tsaglam.wordsearch.tree;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import io.github.tsaglam.wordsearch.EditDistance;
+import io.github.tsaglam.wordsearch.MemoryEstimate;
 import io.github.tsaglam.wordsearch.SearchableDictionary;
+import io.github.tsaglam.wordsearch.WildcardPattern;
+import io.github.tsaglam.wordsearch.metrics.TraversalStatistics;
 
 /**
  * A single node in a {@link ParallelPrefixTree}, representing one level of character depth in a prefix tree (Trie).
  * Each {@code PrefixTreeNode} has a depth value representing the character index this node corresponds to. It stores
- * children in a map keyed by a character at the next depth level. Each node directly stores a list of words that
- * terminate at this depth.
+ * children in an adaptive {@link ChildTable} keyed by a primitive character at the next depth level. Each node directly
+ * stores a list of words that terminate at this depth, as well as the number of words in its subtree. Child tables are
+ * immutable and replaced atomically, and the counters are updated atomically, so no node requires locking. Nodes whose
+ * subtree becomes empty due to removals are pruned; they are marked as detached before they are unlinked, which prevents
+ * concurrent additions from reviving them. Additionally, each node stores the weight of its word and the maximum weight
+ * in its subtree, which bounds the weights below it for the best-first top-k search.
  */
 public class PrefixTreeNode implements SearchableDictionary {
 
-    private final Map<Character, PrefixTreeNode> children;
+    @SuppressWarnings("rawtypes") // the updater cannot be created for a generic field type
+    private static final AtomicReferenceFieldUpdater<PrefixTreeNode, ChildTable> CHILDREN = AtomicReferenceFieldUpdater
+            .newUpdater(PrefixTreeNode.class, ChildTable.class, "children");
+    private static final AtomicIntegerFieldUpdater<PrefixTreeNode> NUMBER_OF_WORDS = AtomicIntegerFieldUpdater.newUpdater(PrefixTreeNode.class,
+            "numberOfWords");
+    private static final AtomicIntegerFieldUpdater<PrefixTreeNode> NUMBER_OF_WORDS_BELOW = AtomicIntegerFieldUpdater
+            .newUpdater(PrefixTreeNode.class, "numberOfWordsBelow");
+    private static final AtomicLongFieldUpdater<PrefixTreeNode> WEIGHT = AtomicLongFieldUpdater.newUpdater(PrefixTreeNode.class, "weight");
+    private static final AtomicLongFieldUpdater<PrefixTreeNode> MAX_WEIGHT_BELOW = AtomicLongFieldUpdater.newUpdater(PrefixTreeNode.class,
+            "maxWeightBelow");
+    private static final int DETACHED = Integer.MIN_VALUE; // subtree count of a node that is pruned from its parent
+    private static final long NODE_SIZE = MemoryEstimate.ofObject(MemoryEstimate.REFERENCE + 3 * Integer.BYTES + 2 * Long.BYTES);
+    /* package-private */ static final long DEFAULT_WEIGHT = 1; // words added without a weight are ranked by their frequency
+
+    private volatile ChildTable<PrefixTreeNode> children;
     private final int depth;
-    private final AtomicInteger numberOfWords;
+    private volatile int numberOfWords;
+    private volatile int numberOfWordsBelow; // including the words of this node, or DETACHED
+    private volatile long weight; // of the word terminating at this node, summed over its occurrences
+    private volatile long maxWeightBelow; // upper bound of the weights in the subtree, including this node
 
     /**
      * Creates a prefix tree node with a specified depth.
      * @param depth specifies which word index is used for the nodes children. Must be <code>parentDepth + 1</code>.
      */
     public PrefixTreeNode(int depth) {
+        this(depth, ChildTable.empty(), 0, 0, 0, 0);
+    }
+
+    private PrefixTreeNode(int depth, ChildTable<PrefixTreeNode> children, int numberOfWords, int numberOfWordsBelow, long weight,
+            long maxWeightBelow) {
         this.depth = depth;
-        children = new ConcurrentHashMap<>(32, 1.0f);
-        numberOfWords = new AtomicInteger();
+        this.children = children;
+        this.numberOfWords = numberOfWords;
+        this.numberOfWordsBelow = numberOfWordsBelow;
+        this.weight = weight;
+        this.maxWeightBelow = maxWeightBelow;
     }
 
     /**
      * Adds a word to the node. The word is either added to the node directly or to a child node if the word is longer than
-     * the current node's depth. <b>Thread safety:</b> This method is safe to call concurrently.
+     * the current node's depth. Each occurrence of a word adds a weight of one, so words are ranked by their frequency.
+     * <b>Thread safety:</b> This method is safe to call concurrently.
      * @param word is the word to add.
+     * @throws IllegalArgumentException if the word is null.
      */
     public void addWord(String word) {
-        PrefixTreeNode current = this;
+        addWord(word, DEFAULT_WEIGHT);
+    }
 
+    /**
+     * Adds a word with a weight to the node. The weights of all occurrences of a word are summed up, and the maximum weights
+     * on the path of the word are raised top-down afterwards, so the maximum of a node always bounds the maximum of its
+     * children. <b>Thread safety:</b> This method is safe to call concurrently.
+     * @param word is the word to add.
+     * @param weight is the non-negative weight of the occurrence, e.g. its score or frequency.
+     * @throws IllegalArgumentException if the word is null or the weight is negative.
+     */
+    public void addWord(String word, long weight) {
+        if (word == null) {
+            throw new IllegalArgumentException("Word cannot be null!");
+        }
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight cannot be negative.");
+        }
+        PrefixTreeNode current = this;
+        NUMBER_OF_WORDS_BELOW.incrementAndGet(current);
         while (current.depth != word.length()) {
-            char indexCharacter = word.charAt(current.depth);
-            int currentDepth = current.depth;
-            current = current.children.computeIfAbsent(indexCharacter, key -> new PrefixTreeNode(currentDepth + 1));
+            PrefixTreeNode child = current.getChildFor(word.charAt(current.depth));
+            if (child.tryIncrementWordsBelow()) {
+                current = child;
+            } // otherwise, the child was pruned concurrently and is replaced in the next attempt
         }
-        current.numberOfWords.incrementAndGet();
+        NUMBER_OF_WORDS.incrementAndGet(current);
+        long wordWeight = WEIGHT.addAndGet(current, weight);
+        current = this;
+        while (current != null) {
+            current.raiseMaxWeightBelow(wordWeight);
+            current = current.depth == word.length() ? null : current.children.get(word.charAt(current.depth));
+        }
+    }
 
+    /**
+     * Removes one occurrence of a word from the node. The subtree counts are decremented bottom-up, so a node is never
+     * counted as empty while a node below it still contains words. Nodes whose subtree becomes empty are pruned from their
+     * parent, but never the node itself. The occurrence takes its share of the weight of the word with it, which is the
+     * average weight of the occurrences. The maximum weights are not lowered, they remain valid upper bounds. <b>Thread
+     * safety:</b> This method is safe to call concurrently, also while words are added.
+     * @param word is the word to remove.
+     * @return true if the word was contained, false otherwise.
+     * @throws IllegalArgumentException if the word is null.
+     */
+    public boolean removeWord(String word) {
+        if (word == null) {
+            throw new IllegalArgumentException("Word cannot be null!");
+        }
+        if (word.length() < depth) {
+            return false;
+        }
+        PrefixTreeNode[] path = new PrefixTreeNode[word.length() - depth + 1];
+        path[0] = this;
+        for (int index = 1; index < path.length; index++) {
+            path[index] = path[index - 1].children.get(word.charAt(path[index - 1].depth));
+            if (path[index] == null) {
+                return false;
+            }
+        }
+        int occurrences = path[path.length - 1].tryDecrementWords();
+        if (occurrences == 0) {
+            return false;
+        }
+        WEIGHT.getAndUpdate(path[path.length - 1], it -> it - it / occurrences);
+        for (int index = path.length - 1; index > 0; index--) {
+            if (NUMBER_OF_WORDS_BELOW.decrementAndGet(path[index]) == 0) {
+                path[index - 1].prune(word.charAt(path[index - 1].depth), path[index]);
+            }
+        }
+        NUMBER_OF_WORDS_BELOW.decrementAndGet(this);
+        return true;
     }
 
     /**
-     * Returns all words contained directly or indirectly under this node. <b>Thread safety:</b> This method is safe to call
-     * concurrently only if no modifications are made to the tree during its execution. Concurrent modifications may lead to
-     * undefined behavior.
+     * Returns all words contained directly or indirectly under this node. The words are collected with the fork/join
+     * {@link WordCollector}, which traverses small subtrees sequentially. <b>Thread safety:</b> This method is safe to call
+     * concurrently, also while words are added or removed, but only weakly consistent with such modifications.
      * @param prefix is the prefix of all nodes up to including this node.
      * @return the list of words or an empty list if none exist.
      */
     public List<String> getContainedWords(String prefix) {
-        List<String> results = Collections.synchronizedList(new ArrayList<>());
-        collectWords(results, prefix);
-        return results;
+        return WordCollector.collect(this, prefix);
     }
 
-    private void collectWords(List<String> results, String prefix) {
-        results.addAll(Collections.nCopies(numberOfWords.get(), prefix));
-        children.entrySet().parallelStream().forEach(entry -> entry.getValue().collectWords(results, prefix + entry.getKey()));
+    /**
+     * Returns all words contained directly or indirectly under this node in lexicographic order. The subtrees of the children
+     * are collected in parallel and concatenated in the order of their index characters, so no sorting is required. <b>Thread
+     * safety:</b> This method is safe to call concurrently, also while words are added or removed, but only weakly consistent
+     * with such modifications.
+     * @param prefix is the prefix of all nodes up to including this node.
+     * @return the sorted list of words or an empty list if none exist.
+     */
+    public List<String> getSortedContainedWords(String prefix) {
+        return WordCollector.collect(this, prefix); // the collector always preserves the order
     }
 
     /**
      * Returns all words contained directly or indirectly under this node that start with the specified pattern. <b>Thread
-     * safety:</b> This method is safe to call concurrently only if no modifications are made to the tree during its
-     * execution. Concurrent modifications may lead to undefined behavior.
+     * safety:</b> This method is safe to call concurrently, also while words are added or removed, but only weakly consistent
+     * with such modifications.
      * @param pattern is the specified pattern or prefix.
      * @return return the list of words or an empty list if none exist.
      */
     @Override
     public List<String> findMatchingWords(String pattern) {
-        if (pattern.length() == depth) {
-            return getContainedWords(pattern); // all words at node and below match
+        PrefixTreeNode node = findNode(pattern);
+        if (node == null) {
+            return List.of(); // no matching words
         }
-        char indexCharacter = pattern.charAt(depth);
+        return node.getContainedWords(pattern); // all words at node and below match
+    }
+
+    /**
+     * Returns all words contained directly or indirectly under this node for multiple patterns at once. The patterns are
+     * sorted, so consecutive patterns share the descent for their common prefix. A pattern that extends a shorter pattern
+     * of the batch is answered by a binary search in the sorted words of the shorter pattern instead of another traversal,
+     * and the words of all other patterns are collected in parallel. <b>Thread safety:</b> This method is safe to call
+     * concurrently, also while words are added or removed, but only weakly consistent with such modifications.
+     * @param patterns are the specified patterns or prefixes.
+     * @return the map from each pattern to the unmodifiable, sorted list of its words.
+     * @throws IllegalArgumentException if the patterns or any of them are null.
+     */
+    @Override
+    public Map<String, List<String>> findMatchingWordsForAll(Collection<String> patterns) {
+        String[] sortedPatterns = SearchableDictionary.sortedPatterns(patterns);
+        List<String> independentPatterns = new ArrayList<>(); // patterns that do not extend another pattern of the batch
+        for (String pattern : sortedPatterns) {
+            if (independentPatterns.isEmpty() || !pattern.startsWith(independentPatterns.get(independentPatterns.size() - 1))) {
+                independentPatterns.add(pattern);
+            }
+        }
+        PrefixTreeNode[] nodes = findNodes(independentPatterns);
+        List<List<String>> independentResults = IntStream.range(0, nodes.length).parallel()
+                .mapToObj(index -> nodes[index] == null ? List.<String>of() : nodes[index].getSortedContainedWords(independentPatterns.get(index)))
+                .toList();
+        Map<String, List<String>> results = new HashMap<>();
+        int independentIndex = -1;
+        for (String pattern : sortedPatterns) {
+            if (independentIndex + 1 < independentPatterns.size() && independentPatterns.get(independentIndex + 1).equals(pattern)) {
+                independentIndex++;
+            }
+            results.put(pattern, Collections.unmodifiableList(sortedRange(independentResults.get(independentIndex), pattern)));
+        }
+        return results;
+    }
+
+    /**
+     * Returns all words contained directly or indirectly under this node that start with the specified pattern in
+     * lexicographic order. <b>Thread safety:</b> This method is safe to call concurrently, also while words are added or
+     * removed, but only weakly consistent with such modifications.
+     * @param pattern is the specified pattern or prefix.
+     * @return return the sorted list of words or an empty list if none exist.
+     * @see #getSortedContainedWords(String)
+     */
+    public List<String> findSortedMatchingWords(String pattern) {
+        PrefixTreeNode node = findNode(pattern);
+        return node == null ? List.of() : node.getSortedContainedWords(pattern);
+    }
+
+    /**
+     * Counts all words contained directly or indirectly under this node that start with the specified pattern. Only
+     * requires a single descent, as each node maintains the number of words in its subtree. <b>Thread safety:</b> This
+     * method is safe to call concurrently, also while words are added or removed.
+     * @param pattern is the specified pattern or prefix.
+     * @return the number of words.
+     */
+    @Override
+    public int countMatchingWords(String pattern) {
+        PrefixTreeNode node = findNode(pattern);
+        return node == null ? 0 : node.getNumberOfWordsBelow();
+    }
+
+    /**
+     * Lazily returns all words contained directly or indirectly under this node that start with the specified pattern, in
+     * lexicographic order. <b>Thread safety:</b> This method is safe to call concurrently, also while words are added or
+     * removed, but only weakly consistent with such modifications.
+     * @param pattern is the specified pattern or prefix.
+     * @return the stream of words, which is empty if none exist.
+     */
+    @Override
+    public Stream<String> streamMatchingWords(String pattern) {
+        return streamWords(pattern, null);
+    }
+
+    /**
+     * Returns the next page of words contained directly or indirectly under this node that start with the specified pattern
+     * and are lexicographically greater than the cursor. Subtrees before the cursor are skipped. <b>Thread safety:</b> This
+     * method is safe to call concurrently, also while words are added or removed, but only weakly consistent with such
+     * modifications.
+     * @param pattern is the specified pattern or prefix.
+     * @param cursor is the exclusive lower bound of the words to return.
+     * @param limit is the maximum number of words to return.
+     * @return return the list of words or an empty list if none exist.
+     */
+    @Override
+    public List<String> findMatchingWordsAfter(String pattern, String cursor, int limit) {
+        SearchableDictionary.checkCursor(cursor, limit);
+        return streamWords(pattern, cursor).limit(limit).toList();
+    }
 
-        if (!children.containsKey(indexCharacter)) {
+    /**
+     * Returns the words with the highest weights among all words contained directly or indirectly under this node that
+     * start with the specified pattern. The search is best-first: A priority queue holds subtrees ranked by their maximum
+     * weight and words ranked by their weight, so a subtree is only expanded if it may contain one of the top words, and
+     * the search ends as soon as the top words are found. The costs thus depend on the number of words to return instead
+     * of the number of matching words. <b>Thread safety:</b> This method is safe to call concurrently, also while words are
+     * added or removed, but only weakly consistent with such modifications.
+     * @param pattern is the specified pattern or prefix.
+     * @param limit is the maximum number of words to return.
+     * @return the list of words ordered by descending weight and lexicographically among equal weights, or an empty list
+     * if none exist.
+     * @throws IllegalArgumentException if the limit is negative.
+     */
+    public List<String> findTopMatchingWords(String pattern, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative.");
+        }
+        PrefixTreeNode node = findNode(pattern);
+        if (node == null || limit == 0) {
             return List.of(); // no matching words
         }
-        return children.get(indexCharacter).findMatchingWords(pattern); // continue search
+        List<String> results = new ArrayList<>(Math.min(limit, node.getNumberOfWordsBelow()));
+        PriorityQueue<RankedCandidate> queue = new PriorityQueue<>();
+        queue.add(new RankedCandidate(node.maxWeightBelow, pattern, node));
+        while (results.size() < limit && !queue.isEmpty()) {
+            RankedCandidate candidate = queue.poll();
+            PrefixTreeNode current = candidate.node();
+            if (current == null) {
+                results.add(candidate.path());
+                continue;
+            }
+            if (current.numberOfWords > 0) {
+                queue.add(new RankedCandidate(current.weight, candidate.path(), null));
+            }
+            ChildTable<PrefixTreeNode> table = current.children;
+            for (int index = 0; index < table.size(); index++) {
+                PrefixTreeNode child = table.childAt(index);
+                if (child.getNumberOfWordsBelow() > 0) {
+                    queue.add(new RankedCandidate(child.maxWeightBelow, candidate.path() + table.keyAt(index), child));
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns all words contained directly or indirectly under this root node that start with a prefix within a maximum
+     * edit distance of the pattern. The tree is traversed with one row of the edit distance matrix per node, which is
+     * computed from the row of the parent and thus shared by all words below the node. A subtree is skipped as soon as the
+     * minimum of its row exceeds the maximum distance, and collected entirely as soon as its path matches the whole
+     * pattern. The branches below this node are searched in parallel. <b>Thread safety:</b> This method is safe to call
+     * concurrently, also while words are added or removed, but only weakly consistent with such modifications.
+     * @param pattern is the specified pattern, which may contain typos.
+     * @param maxEdits is the maximum edit distance.
+     * @return the sorted list of words or an empty list if none exist.
+     * @throws IllegalArgumentException if the pattern is null or the maximum edit distance is negative.
+     */
+    @Override
+    public List<String> findFuzzyMatches(String pattern, int maxEdits) {
+        SearchableDictionary.checkFuzzyQuery(pattern, maxEdits);
+        int[] initialRow = EditDistance.initialRow(pattern);
+        if (initialRow[pattern.length()] <= maxEdits) {
+            return getSortedContainedWords(""); // the pattern can be deleted entirely
+        }
+        ChildTable<PrefixTreeNode> table = children;
+        return IntStream.range(0, table.size()).parallel().mapToObj(index -> {
+            int maximumDepth = pattern.length() + maxEdits + 1; // beyond, the row minimum exceeds the maximum distance
+            int[][] rows = new int[maximumDepth + 1][pattern.length() + 1];
+            rows[0] = initialRow;
+            char[] path = new char[maximumDepth];
+            List<String> words = new ArrayList<>();
+            collectFuzzyMatches(table.keyAt(index), table.childAt(index), 0, path, rows, pattern, maxEdits, words);
+            return words;
+        }).flatMap(List::stream).toList();
+    }
+
+    /**
+     * Sequentially collects the fuzzy matches of a child, whose parent has the given path and the row at the given depth.
+     */
+    private static void collectFuzzyMatches(char key, PrefixTreeNode child, int depth, char[] path, int[][] rows, String pattern, int maxEdits,
+            List<String> words) {
+        path[depth] = key;
+        int minimum = EditDistance.nextRow(pattern, rows[depth], key, rows[depth + 1]);
+        if (rows[depth + 1][pattern.length()] <= maxEdits) {
+            words.addAll(child.getSortedContainedWords(new String(path, 0, depth + 1)));
+        } else if (minimum <= maxEdits) {
+            ChildTable<PrefixTreeNode> table = child.children;
+            for (int index = 0; index < table.size(); index++) {
+                collectFuzzyMatches(table.keyAt(index), table.childAt(index), depth + 1, path, rows, pattern, maxEdits, words);
+            }
+        }
+    }
+
+    /**
+     * Returns all words contained directly or indirectly under this root node that match a wildcard pattern as a whole.
+     * The search descends directly to the node of the literal prefix of the pattern and then traverses the tree with the
+     * set of pattern states that each node reaches, which is computed from the states of the parent. Thus, a single
+     * character wildcard fans out to all children of a node, and a sequence wildcard stays active on all deeper nodes. A
+     * subtree is skipped as soon as it reaches no state, and collected entirely as soon as only sequence wildcards are
+     * left. The branches below the literal prefix are searched in parallel. <b>Thread safety:</b> This method is safe to
+     * call concurrently, also while words are added or removed, but only weakly consistent with such modifications.
+     * @param pattern is the wildcard pattern.
+     * @return the sorted list of words or an empty list if none exist.
+     * @throws IllegalArgumentException if the pattern is null.
+     */
+    @Override
+    public List<String> findWildcardMatches(String pattern) {
+        WildcardPattern wildcardPattern = WildcardPattern.compile(pattern);
+        String literalPrefix = wildcardPattern.getLiteralPrefix();
+        PrefixTreeNode node = findNode(literalPrefix);
+        if (node == null) {
+            return List.of(); // no word starts with the literal prefix
+        }
+        BitSet states = wildcardPattern.getPrefixStates();
+        if (wildcardPattern.matchesAnySuffix(states)) {
+            return node.getSortedContainedWords(literalPrefix);
+        }
+        List<String> ownWords = wildcardPattern.isMatch(states) ? Collections.nCopies(node.numberOfWords, literalPrefix) : List.of();
+        ChildTable<PrefixTreeNode> table = node.children;
+        Stream<List<String>> childWords = IntStream.range(0, table.size()).parallel().mapToObj(index -> {
+            List<String> words = new ArrayList<>();
+            List<BitSet> stateSets = new ArrayList<>(List.of(states)); // one reused set per depth below the literal prefix
+            StringBuilder path = new StringBuilder(literalPrefix);
+            collectWildcardMatches(table.keyAt(index), table.childAt(index), stateSets, 0, path, wildcardPattern, words);
+            return words;
+        });
+        return Stream.concat(Stream.of(ownWords), childWords).flatMap(List::stream).toList();
+    }
+
+    /**
+     * Sequentially collects the wildcard matches of a child, whose parent has the given path and the state set at the given
+     * index.
+     */
+    private static void collectWildcardMatches(char key, PrefixTreeNode child, List<BitSet> stateSets, int depth, StringBuilder path,
+            WildcardPattern pattern, List<String> words) {
+        if (depth + 1 == stateSets.size()) {
+            stateSets.add(new BitSet());
+        }
+        BitSet states = stateSets.get(depth + 1);
+        pattern.advance(stateSets.get(depth), key, states);
+        if (states.isEmpty()) {
+            return;
+        }
+        path.append(key);
+        if (pattern.matchesAnySuffix(states)) {
+            words.addAll(child.getSortedContainedWords(path.toString()));
+        } else {
+            if (pattern.isMatch(states)) {
+                words.addAll(Collections.nCopies(child.numberOfWords, path.toString()));
+            }
+            ChildTable<PrefixTreeNode> table = child.children;
+            for (int index = 0; index < table.size(); index++) {
+                collectWildcardMatches(table.keyAt(index), table.childAt(index), stateSets, depth + 1, path, pattern, words);
+            }
+        }
+        path.setLength(path.length() - 1);
+    }
+
+    /**
+     * Returns the weight of a word contained under this node, which is the sum of the weights of its occurrences.
+     * <b>Thread safety:</b> This method is safe to call concurrently.
+     * @param word is the word.
+     * @return the weight, or zero if the word is not contained.
+     */
+    public long getWeight(String word) {
+        PrefixTreeNode node = findNode(word);
+        return node == null || node.numberOfWords == 0 ? 0 : node.weight;
+    }
+
+    /**
+     * Estimates the memory of the nodes and child tables of the subtree of this node. Words are not stored as strings, but
+     * as paths of nodes. The nodes are visited with an explicit stack, as the depth of the tree is only bounded by the
+     * longest word. <b>Thread safety:</b> This method is safe to call concurrently, but only weakly consistent with
+     * concurrent modifications.
+     */
+    @Override
+    public long memoryFootprint() {
+        long footprint = 0;
+        Deque<PrefixTreeNode> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            ChildTable<PrefixTreeNode> table = stack.pop().children;
+            footprint += NODE_SIZE + table.memoryFootprint();
+            for (int index = 0; index < table.size(); index++) {
+                stack.push(table.childAt(index));
+            }
+        }
+        return footprint;
+    }
+
+    private Stream<String> streamWords(String pattern, String cursor) {
+        PrefixTreeNode node = findNode(pattern);
+        if (node == null) {
+            return Stream.empty(); // no matching words
+        }
+        PrefixTreeIterator iterator = new PrefixTreeIterator(node, pattern, cursor);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
 
     /**
-     * Returns the subtree of this node that corresponds to the specified character.
+     * Returns the node below this node that corresponds to the specified pattern without modifying the tree.
+     * @param pattern is the specified pattern or prefix.
+     * @return the node or null if none exists.
+     */
+    /* package-private */ PrefixTreeNode findNode(String pattern) {
+        PrefixTreeNode current = this;
+        int visitedNodes = 0;
+        while (current != null && current.depth != pattern.length()) {
+            visitedNodes++;
+            current = current.children.get(pattern.charAt(current.depth));
+        }
+        if (TraversalStatistics.ENABLED) {
+            TraversalStatistics.recordDescent(current == null ? visitedNodes : visitedNodes + 1);
+        }
+        return current;
+    }
+
+    /**
+     * Returns the nodes below this node that correspond to sorted patterns without modifying the tree. Each descent starts
+     * at the deepest node that the pattern shares with the previous pattern instead of at this node.
+     */
+    private PrefixTreeNode[] findNodes(List<String> sortedPatterns) {
+        PrefixTreeNode[] nodes = new PrefixTreeNode[sortedPatterns.size()];
+        PrefixTreeNode[] path = { this }; // nodes on the path of the previous pattern
+        int pathLength = 1;
+        String previousPattern = "";
+        for (int index = 0; index < nodes.length; index++) {
+            String pattern = sortedPatterns.get(index);
+            pathLength = Math.min(pathLength, Math.max(0, commonPrefixLength(previousPattern, pattern) - depth) + 1);
+            PrefixTreeNode current = path[pathLength - 1];
+            while (current != null && current.depth != pattern.length()) {
+                current = current.children.get(pattern.charAt(current.depth));
+                if (current != null) {
+                    if (pathLength == path.length) {
+                        path = Arrays.copyOf(path, 2 * pathLength);
+                    }
+                    path[pathLength++] = current;
+                }
+            }
+            nodes[index] = current;
+            previousPattern = pattern;
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the range of sorted words that start with the pattern, found with two binary searches.
+     */
+    private static List<String> sortedRange(List<String> sortedWords, String pattern) {
+        int low = 0;
+        int high = sortedWords.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedWords.get(middle).compareTo(pattern) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        int start = low;
+        high = sortedWords.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedWords.get(middle).startsWith(pattern)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return sortedWords.subList(start, low);
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        for (int index = 0; index < length; index++) {
+            if (first.charAt(index) != second.charAt(index)) {
+                return index;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the subtree of this node that corresponds to the specified character. If none exists, a new node is added by
+     * atomically replacing the child table, which grows into a larger table type if required. <b>Thread safety:</b> This
+     * method is safe to call concurrently.
      * @param character is the index character of the child node.
      * @return the specified node, or a new empty node if none existed.
      */
     /* package-private */ PrefixTreeNode getChildFor(char character) {
-        return children.computeIfAbsent(character, key -> new PrefixTreeNode(depth + 1));
+        while (true) {
+            ChildTable<PrefixTreeNode> table = children;
+            PrefixTreeNode child = table.get(character);
+            if (child != null && child.numberOfWordsBelow != DETACHED) {
+                return child;
+            }
+            child = new PrefixTreeNode(depth + 1); // adds a new child or replaces a detached one
+            if (CHILDREN.compareAndSet(this, table, table.with(character, child))) {
+                return child;
+            } // otherwise, retry with the table of the concurrent insertion
+        }
+    }
+
+    /**
+     * Returns a copy of this node with the word added, which shares all subtrees that do not contain the word. Only the
+     * nodes on the path of the word are copied. This node is not modified.
+     * @param word is the word to add.
+     * @param weight is the non-negative weight of the occurrence.
+     * @return the new version of this node.
+     */
+    /* package-private */ PrefixTreeNode withWord(String word, long weight) {
+        if (depth == word.length()) {
+            long newWeight = this.weight + weight;
+            return new PrefixTreeNode(depth, children, numberOfWords + 1, numberOfWordsBelow + 1, newWeight, Math.max(maxWeightBelow, newWeight));
+        }
+        char character = word.charAt(depth);
+        PrefixTreeNode child = children.get(character);
+        PrefixTreeNode newChild = (child == null ? new PrefixTreeNode(depth + 1) : child).withWord(word, weight);
+        return new PrefixTreeNode(depth, children.with(character, newChild), numberOfWords, numberOfWordsBelow + 1, this.weight,
+                Math.max(maxWeightBelow, newChild.maxWeightBelow));
+    }
+
+    /**
+     * Returns a copy of this node with one occurrence of the word removed, which shares all subtrees that do not contain
+     * the word. Subtrees that become empty are left out. This node is not modified.
+     * @param word is the word to remove.
+     * @return the new version of this node, or this node if it does not contain the word.
+     */
+    /* package-private */ PrefixTreeNode withoutWord(String word) {
+        if (depth == word.length()) {
+            return numberOfWords == 0 ? this
+                    : new PrefixTreeNode(depth, children, numberOfWords - 1, numberOfWordsBelow - 1, weight - weight / numberOfWords, maxWeightBelow);
+        }
+        char character = word.charAt(depth);
+        PrefixTreeNode child = children.get(character);
+        PrefixTreeNode newChild = child == null ? null : child.withoutWord(word);
+        if (newChild == child) {
+            return this; // word is not contained
+        }
+        ChildTable<PrefixTreeNode> newChildren = newChild.numberOfWordsBelow == 0 ? children.without(character) : children.with(character, newChild);
+        return new PrefixTreeNode(depth, newChildren, numberOfWords, numberOfWordsBelow - 1, weight, maxWeightBelow);
+    }
+
+    /**
+     * Increments the subtree count unless the node was detached.
+     */
+    private boolean tryIncrementWordsBelow() {
+        int count;
+        do {
+            count = numberOfWordsBelow;
+            if (count == DETACHED) {
+                return false;
+            }
+        } while (!NUMBER_OF_WORDS_BELOW.compareAndSet(this, count, count + 1));
+        return true;
+    }
+
+    /**
+     * Decrements the number of words terminating at this node unless it is zero.
+     * @return the number of words before the decrement, zero if nothing was decremented.
+     */
+    private int tryDecrementWords() {
+        int count;
+        do {
+            count = numberOfWords;
+            if (count == 0) {
+                return 0;
+            }
+        } while (!NUMBER_OF_WORDS.compareAndSet(this, count, count - 1));
+        return count;
+    }
+
+    /**
+     * Raises the maximum weight of the subtree to a weight unless it is already at least as high.
+     */
+    private void raiseMaxWeightBelow(long newWeight) {
+        long maximum;
+        do {
+            maximum = maxWeightBelow;
+            if (maximum >= newWeight) {
+                return; // the common case once the tree is populated, which does not write
+            }
+        } while (!MAX_WEIGHT_BELOW.compareAndSet(this, maximum, newWeight));
+    }
+
+    /**
+     * Detaches an empty child and unlinks it from the child table. If a concurrent addition already reused the child, it
+     * is not empty anymore and thus kept.
+     */
+    private void prune(char character, PrefixTreeNode child) {
+        if (!NUMBER_OF_WORDS_BELOW.compareAndSet(child, 0, DETACHED)) {
+            return;
+        }
+        while (true) {
+            ChildTable<PrefixTreeNode> table = children;
+            if (table.get(character) != child || CHILDREN.compareAndSet(this, table, table.without(character))) {
+                return; // unlinked, or already replaced by a concurrent addition
+            }
+        }
+    }
+
+    /**
+     * Returns the children of this node ordered by their index character.
+     * @return the current immutable child table.
+     */
+    /* package-private */ ChildTable<PrefixTreeNode> getChildren() {
+        return children;
+    }
+
+    /**
+     * Returns the number of words that terminate directly at this node.
+     * @return the word count.
+     */
+    /* package-private */ int getNumberOfWords() {
+        return numberOfWords;
+    }
+
+    /**
+     * Returns the number of words that terminate at this node or any node below it.
+     * @return the word count of the subtree.
+     */
+    /* package-private */ int getNumberOfWordsBelow() {
+        return Math.max(0, numberOfWordsBelow); // detached nodes are empty
+    }
+
+    /**
+     * A candidate of the top-k search, either a subtree ranked by its maximum weight or a word ranked by its weight. The
+     * order is descending by rank and then lexicographic by path, where words precede the subtree of their own node.
+     * Thus, words are taken from the queue in the order of the results, as every word of a subtree starts with its path.
+     */
+    private record RankedCandidate(long rank, String path, PrefixTreeNode node) implements Comparable<RankedCandidate> {
+        @Override
+        public int compareTo(RankedCandidate other) {
+            int comparison = Long.compare(other.rank, rank);
+            if (comparison == 0) {
+                comparison = path.compareTo(other.path);
+            }
+            if (comparison == 0) {
+                comparison = Boolean.compare(node != null, other.node != null);
+            }
+            return comparison;
+        }
     }
 }
@@ -0,0 +1,223 @@
+package io.github.tsaglam.wordsearch.tree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Incremental search session for a search box, which is typed into character by character. The session never modifies
+ * the tree: It descends with read-only child lookups and keeps a stack with one level per typed character, holding the
+ * node and the results of the prefix. Removing a character thus only pops a level. The results of a new character are
+ * narrowed from the sorted results of the previous prefix with two binary searches whenever these contain all words of
+ * the new prefix, and the subtree is only traversed otherwise. Results are views on the collected words, so a session
+ * only holds a few references per typed character. <b>Thread safety:</b> A session is meant for a single user and is not
+ * thread-safe, but any number of sessions can search the same tree concurrently, also while words are added or removed.
+ * The results of a prefix are weakly consistent with such modifications and are not updated after they were computed.
+ */
+public class TypeaheadSession {
+
+    private final int limit;
+    private final StringBuilder prefix;
+    private final List<Level> levels;
+
+    /**
+     * Creates a session without a result limit.
+     * @param tree is the tree to search.
+     * @throws IllegalArgumentException if the tree is null.
+     */
+    public TypeaheadSession(ParallelPrefixTree tree) {
+        this(tree, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a session that returns at most a given number of words per prefix, which are the lexicographically first
+     * matching words.
+     * @param tree is the tree to search.
+     * @param limit specifies the maximum number of words per prefix.
+     * @throws IllegalArgumentException if the tree is null or the limit is negative.
+     */
+    public TypeaheadSession(ParallelPrefixTree tree, int limit) {
+        this((PrefixTreeNode) tree, limit);
+    }
+
+    /* package-private */ TypeaheadSession(PrefixTreeNode root, int limit) {
+        if (root == null) {
+            throw new IllegalArgumentException("Tree cannot be null.");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative.");
+        }
+        this.limit = limit;
+        prefix = new StringBuilder();
+        levels = new ArrayList<>();
+        levels.add(new Level(root, null, false)); // results of the empty prefix are only collected on demand
+    }
+
+    /**
+     * Appends a character to the prefix.
+     * @param character is the typed character.
+     * @return the unmodifiable, sorted list of words that start with the new prefix.
+     */
+    public List<String> type(char character) {
+        Level previous = levels.get(levels.size() - 1);
+        PrefixTreeNode node = previous.node() == null ? null : previous.node().getChildren().get(character);
+        prefix.append(character);
+        Level level = previous.words() == null ? null : narrow(previous, node);
+        levels.add(level == null ? collect(node) : level);
+        return getResults();
+    }
+
+    /**
+     * Appends multiple characters to the prefix, as if they were typed one by one.
+     * @param characters are the typed characters.
+     * @return the unmodifiable, sorted list of words that start with the new prefix.
+     * @throws IllegalArgumentException if the characters are null.
+     */
+    public List<String> type(CharSequence characters) {
+        if (characters == null) {
+            throw new IllegalArgumentException("Characters cannot be null.");
+        }
+        for (int index = 0; index < characters.length(); index++) {
+            type(characters.charAt(index));
+        }
+        return getResults();
+    }
+
+    /**
+     * Removes the last character of the prefix, if there is one. The results of the shorter prefix were already computed
+     * when it was typed and are returned as they are.
+     * @return the unmodifiable, sorted list of words that start with the new prefix.
+     */
+    public List<String> backspace() {
+        if (!prefix.isEmpty()) {
+            levels.remove(levels.size() - 1);
+            prefix.setLength(prefix.length() - 1);
+        }
+        return getResults();
+    }
+
+    /**
+     * Removes all characters of the prefix.
+     */
+    public void clear() {
+        levels.subList(1, levels.size()).clear();
+        prefix.setLength(0);
+    }
+
+    /**
+     * Returns the current prefix.
+     * @return the typed characters.
+     */
+    public String getPrefix() {
+        return prefix.toString();
+    }
+
+    /**
+     * Returns the words that start with the current prefix, at most as many as the limit.
+     * @return the unmodifiable, sorted list of words.
+     */
+    public List<String> getResults() {
+        Level level = levels.get(levels.size() - 1);
+        if (level.words() == null) {
+            level = collect(level.node()); // only the empty prefix is computed lazily
+            levels.set(0, level);
+        }
+        return Collections.unmodifiableList(level.words()); // wrapped here, so narrowed views do not nest wrappers
+    }
+
+    /**
+     * Computes the results of the new prefix from the sorted results of the previous prefix, where all words of the new
+     * prefix are a contiguous range. The range contains all words of the new prefix if the previous words were complete or
+     * if a word follows the range, and the first words up to the limit if it is at least that long.
+     * @return the narrowed results, or null if the subtree needs to be traversed.
+     */
+    private Level narrow(Level previous, PrefixTreeNode node) {
+        List<String> words = previous.words();
+        int start = lowerBound(words);
+        int end = upperBound(words, start);
+        if (previous.complete() || end < words.size()) {
+            return new Level(node, words.subList(start, end), true);
+        }
+        if (end - start >= limit) {
+            return new Level(node, words.subList(start, start + limit), false);
+        }
+        return null;
+    }
+
+    /**
+     * Collects the results of the current prefix from its subtree. Only the first words up to the limit are visited if the
+     * subtree contains more words than that.
+     */
+    private Level collect(PrefixTreeNode node) {
+        if (node == null) {
+            return new Level(null, List.of(), true);
+        }
+        String currentPrefix = prefix.toString();
+        if (node.getNumberOfWordsBelow() <= limit) {
+            return new Level(node, node.getSortedContainedWords(currentPrefix), true);
+        }
+        PrefixTreeIterator iterator = new PrefixTreeIterator(node, currentPrefix, null);
+        List<String> words = new ArrayList<>(Math.min(limit, node.getNumberOfWordsBelow()));
+        while (words.size() < limit && iterator.hasNext()) {
+            words.add(iterator.next());
+        }
+        return new Level(node, words, !iterator.hasNext());
+    }
+
+    /**
+     * Finds the index of the first word that is not lexicographically smaller than the prefix.
+     */
+    private int lowerBound(List<String> sortedWords) {
+        int low = 0;
+        int high = sortedWords.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compareToPrefix(sortedWords.get(middle)) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the index of the first word after the lower bound that does not start with the prefix.
+     */
+    private int upperBound(List<String> sortedWords, int lowerBound) {
+        int low = lowerBound;
+        int high = sortedWords.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startsWithPrefix(sortedWords.get(middle))) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int compareToPrefix(String word) {
+        return CharSequence.compare(word, prefix);
+    }
+
+    private boolean startsWithPrefix(String word) {
+        if (word.length() < prefix.length()) {
+            return false;
+        }
+        for (int index = 0; index < prefix.length(); index++) {
+            if (word.charAt(index) != prefix.charAt(index)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The state of the session for one prefix: its node, or null if no word has the prefix, and its sorted words. The words
+     * are complete if they are not truncated by the limit.
+     */
+    private record Level(PrefixTreeNode node, List<String> words, boolean complete) {
+    }
+}
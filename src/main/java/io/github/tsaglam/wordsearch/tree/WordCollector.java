@@ -0,0 +1,221 @@
+package io.github.tsaglam.wordsearch.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import io.github.tsaglam.wordsearch.metrics.TraversalStatistics;
+
+/**
+ * Fork/join task that collects all words of a subtree of a {@link PrefixTreeNode} in lexicographic order. The task uses
+ * the subtree word counts to adapt its granularity: Subtrees with few words are traversed sequentially, and small sibling
+ * subtrees are batched into a single task instead of forking one task per child. Each task fills its own buffer, and the
+ * buffers are merged into one presized array in the end, so no shared collection needs to be synchronized.
+ * <b>Thread safety:</b> Concurrent modifications of the tree are tolerated, as child tables are immutable snapshots and
+ * buffers grow if required, but words that are modified during the collection may or may not be included.
+ */
+/* package-private */ class WordCollector extends RecursiveTask<List<WordCollector.Segment>> {
+
+    private static final long serialVersionUID = 1L; // tasks are never serialized, the tree nodes are transient
+    private static final int SEQUENTIAL_THRESHOLD = 4096; // number of words below which a task is not split further
+
+    private final transient PrefixTreeNode node; // either a single subtree to split...
+    private final String prefix;
+    private final transient ChildTable<PrefixTreeNode> siblings; // ...or a batch of small sibling subtrees
+    private final int firstSibling;
+    private final int lastSibling; // exclusive
+    private final int numberOfWords;
+
+    private WordCollector(PrefixTreeNode node, String prefix) {
+        this.node = node;
+        this.prefix = prefix;
+        this.siblings = null;
+        this.firstSibling = 0;
+        this.lastSibling = 0;
+        this.numberOfWords = node.getNumberOfWordsBelow();
+    }
+
+    private WordCollector(ChildTable<PrefixTreeNode> siblings, int firstSibling, int lastSibling, String parentPrefix, int numberOfWords) {
+        this.node = null;
+        this.prefix = parentPrefix;
+        this.siblings = siblings;
+        this.firstSibling = firstSibling;
+        this.lastSibling = lastSibling;
+        this.numberOfWords = numberOfWords;
+    }
+
+    /**
+     * Collects all words contained directly or indirectly under a node in lexicographic order.
+     * @param node is the root of the subtree.
+     * @param prefix is the prefix of all nodes up to including the root of the subtree.
+     * @return the sorted list of words or an empty list if none exist.
+     */
+    /* package-private */ static List<String> collect(PrefixTreeNode node, String prefix) {
+        WordCollector task = new WordCollector(node, prefix);
+        List<Segment> segments = task.numberOfWords <= SEQUENTIAL_THRESHOLD ? task.compute() : task.invoke(); // avoids submission
+        int size = segments.stream().mapToInt(Segment::length).sum();
+        String[] results = new String[size];
+        int index = 0;
+        for (Segment segment : segments) {
+            System.arraycopy(segment.words(), 0, results, index, segment.length());
+            index += segment.length();
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    protected List<Segment> compute() {
+        if (node == null) {
+            SequentialCollector collector = new SequentialCollector(prefix, numberOfWords);
+            for (int sibling = firstSibling; sibling < lastSibling; sibling++) {
+                collector.collect(siblings.childAt(sibling), siblings.keyAt(sibling));
+            }
+            return List.of(collector.toSegment());
+        }
+        if (numberOfWords <= SEQUENTIAL_THRESHOLD) {
+            SequentialCollector collector = new SequentialCollector(prefix, numberOfWords);
+            collector.collect(node);
+            return List.of(collector.toSegment());
+        }
+        return split();
+    }
+
+    /**
+     * Splits the subtree into one task per large child and batches of small children, in the order of the children.
+     */
+    private List<Segment> split() {
+        List<Segment> segments = new ArrayList<>();
+        int ownWords = node.getNumberOfWords();
+        if (ownWords > 0) {
+            String[] words = new String[ownWords];
+            Arrays.fill(words, prefix);
+            segments.add(new Segment(words, ownWords));
+        }
+        List<WordCollector> tasks = new ArrayList<>();
+        ChildTable<PrefixTreeNode> children = node.getChildren();
+        int batchStart = 0;
+        int batchWords = 0;
+        for (int child = 0; child < children.size(); child++) {
+            int childWords = children.childAt(child).getNumberOfWordsBelow();
+            if (childWords > SEQUENTIAL_THRESHOLD) {
+                if (batchStart < child) {
+                    tasks.add(new WordCollector(children, batchStart, child, prefix, batchWords));
+                }
+                tasks.add(new WordCollector(children.childAt(child), prefix + children.keyAt(child)));
+                batchStart = child + 1;
+                batchWords = 0;
+            } else {
+                batchWords += childWords;
+                if (batchWords >= SEQUENTIAL_THRESHOLD) {
+                    tasks.add(new WordCollector(children, batchStart, child + 1, prefix, batchWords));
+                    batchStart = child + 1;
+                    batchWords = 0;
+                }
+            }
+        }
+        if (batchStart < children.size()) {
+            tasks.add(new WordCollector(children, batchStart, children.size(), prefix, batchWords));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        tasks.forEach(task -> segments.addAll(task.join()));
+        return segments;
+    }
+
+    /**
+     * Partially filled buffer of words.
+     */
+    /* package-private */ record Segment(String[] words, int length) {
+    }
+
+    /**
+     * Sequential depth-first traversal that fills a single buffer. The traversal uses an explicit stack, as the depth of
+     * the tree is only bounded by the longest word, and reuses one buffer for the path.
+     */
+    private static class SequentialCollector {
+        private final Deque<Frame> stack;
+        private char[] path;
+        private String[] words;
+        private int size;
+        private final int prefixLength;
+        private int visitedNodes; // only counted if traversal statistics are enabled
+
+        SequentialCollector(String prefix, int expectedWords) {
+            stack = new ArrayDeque<>();
+            prefixLength = prefix.length();
+            path = Arrays.copyOf(prefix.toCharArray(), Math.max(16, 2 * prefixLength));
+            words = new String[expectedWords];
+        }
+
+        void collect(PrefixTreeNode node, char character) {
+            path[prefixLength] = character;
+            collect(node, prefixLength + 1);
+        }
+
+        void collect(PrefixTreeNode node) {
+            collect(node, prefixLength);
+        }
+
+        private void collect(PrefixTreeNode node, int depth) {
+            visit(node, depth);
+            while (!stack.isEmpty()) {
+                Frame frame = stack.peek();
+                if (frame.index == frame.children.size()) {
+                    stack.pop();
+                    continue;
+                }
+                path[frame.depth] = frame.children.keyAt(frame.index);
+                visit(frame.children.childAt(frame.index++), frame.depth + 1);
+            }
+        }
+
+        /**
+         * Adds the words of a node and pushes its children, which are visited before the remaining siblings of the node.
+         */
+        private void visit(PrefixTreeNode node, int depth) {
+            if (TraversalStatistics.ENABLED) {
+                visitedNodes++;
+            }
+            int ownWords = node.getNumberOfWords();
+            if (ownWords > 0) {
+                if (size + ownWords > words.length) { // only if modified concurrently
+                    words = Arrays.copyOf(words, Math.max(2 * words.length, size + ownWords));
+                }
+                Arrays.fill(words, size, size + ownWords, new String(path, 0, depth));
+                size += ownWords;
+            }
+            ChildTable<PrefixTreeNode> children = node.getChildren();
+            if (children.isEmpty()) {
+                return;
+            }
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, 2 * path.length);
+            }
+            stack.push(new Frame(children, depth));
+        }
+
+        Segment toSegment() {
+            if (TraversalStatistics.ENABLED) {
+                TraversalStatistics.recordCollection(visitedNodes);
+            }
+            return new Segment(words, size);
+        }
+    }
+
+    /**
+     * Children of a node on the stack of the traversal, with the position of the next child to visit.
+     */
+    private static class Frame {
+        private final ChildTable<PrefixTreeNode> children;
+        private final int depth; // of the children
+        private int index;
+
+        Frame(ChildTable<PrefixTreeNode> children, int depth) {
+            this.children = children;
+            this.depth = depth;
+        }
+    }
+}
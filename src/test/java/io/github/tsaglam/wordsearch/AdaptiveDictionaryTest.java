@@ -0,0 +1,96 @@
+package io.github.tsaglam.wordsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.tsaglam.wordsearch.impl.AdaptiveDictionary;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixTree;
+
+/**
+ * Tests for the engine selection of the {@link AdaptiveDictionary}.
+ */
+class AdaptiveDictionaryTest {
+    private static final String TEST_PREFIX = "TES";
+    private List<String> combinations;
+    private List<String> expected;
+
+    @BeforeEach
+    void setUp() {
+        combinations = TestUtils.createTestData();
+        Collections.shuffle(combinations);
+        expected = combinations.stream().filter(it -> it.startsWith(TEST_PREFIX)).sorted().toList();
+    }
+
+    @Test
+    @DisplayName("Test that the dictionary scans first and builds the index after enough queries.")
+    void testUpgradeByWorkload() {
+        AdaptiveDictionary dictionary = new AdaptiveDictionary(combinations, "ParallelPrefixTree", ParallelPrefixTree::new);
+        assertFalse(dictionary.isIndexed());
+        assertIterableEquals(expected, sorted(dictionary.findMatchingWords(TEST_PREFIX)));
+        for (int i = 0; i < 1000 && !dictionary.isIndexed(); i++) {
+            dictionary.findMatchingWords(TEST_PREFIX); // waits for the index once its build was started
+        }
+        assertTrue(dictionary.isIndexed());
+        assertTrue(dictionary.getScannedQueries() > 1);
+        long scannedQueries = dictionary.getScannedQueries();
+        assertIterableEquals(expected, sorted(dictionary.findMatchingWords(TEST_PREFIX)));
+        assertEquals(expected.size(), dictionary.countMatchingWords(TEST_PREFIX));
+        assertEquals(scannedQueries, dictionary.getScannedQueries());
+    }
+
+    @Test
+    @DisplayName("Test that queries during the swap are answered correctly by either engine.")
+    void testConcurrentSwap() {
+        AdaptiveDictionary dictionary = new AdaptiveDictionary(combinations);
+        IntStream.range(0, 200).parallel().forEach(i -> {
+            if (i == 100) {
+                dictionary.upgrade();
+            }
+            assertIterableEquals(expected, sorted(dictionary.findMatchingWords(TEST_PREFIX)));
+        });
+        dictionary.upgrade().join();
+        assertTrue(dictionary.isIndexed());
+        assertIterableEquals(expected, dictionary.findMatchingWords(TEST_PREFIX));
+    }
+
+    @Test
+    @DisplayName("Test that a failed build keeps the scan.")
+    void testFailedBuild() {
+        AdaptiveDictionary dictionary = new AdaptiveDictionary(combinations, "Failing", words -> {
+            throw new IllegalStateException("Index failure.");
+        });
+        assertThrows(CompletionException.class, () -> dictionary.upgrade().join());
+        assertFalse(dictionary.isIndexed());
+        assertIterableEquals(expected, sorted(dictionary.findMatchingWords(TEST_PREFIX)));
+        assertIterableEquals(expected, sorted(dictionary.findMatchingWords(TEST_PREFIX)));
+        assertEquals(2, dictionary.getScannedQueries());
+    }
+
+    @Test
+    @DisplayName("Test that an explicit upgrade before any query does not affect the learned build cost.")
+    void testUpgradeBeforeQueries() {
+        String indexName = "EarlyUpgrade"; // not shared with other tests, as the learned costs are global
+        new AdaptiveDictionary(combinations, indexName, ParallelPrefixTree::new).upgrade().join();
+        AdaptiveDictionary dictionary = new AdaptiveDictionary(combinations, indexName, ParallelPrefixTree::new);
+        dictionary.findMatchingWords(TEST_PREFIX);
+        dictionary.findMatchingWords(TEST_PREFIX);
+        assertEquals(2, dictionary.getScannedQueries()); // the initial build cost is far above two scans
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveDictionary(combinations, null, ParallelPrefixTree::new));
+    }
+
+    private static List<String> sorted(List<String> words) {
+        return words.stream().sorted().toList();
+    }
+}
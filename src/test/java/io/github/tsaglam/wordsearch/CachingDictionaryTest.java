@@ -0,0 +1,132 @@
+package io.github.tsaglam.wordsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.tsaglam.wordsearch.cache.CachingDictionary;
+import io.github.tsaglam.wordsearch.impl.SortedArrayWordSearch;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixTree;
+
+/**
+ * Tests for the eviction, admission, and invalidation of the {@link CachingDictionary}.
+ */
+class CachingDictionaryTest {
+    private static final String TEST_PREFIX = "TES";
+    private List<String> combinations;
+
+    @BeforeEach
+    void setUp() {
+        combinations = TestUtils.createTestData();
+    }
+
+    @Test
+    @DisplayName("Test that the cached words do not exceed the capacity and that hits return the same words.")
+    void testCapacity() {
+        SearchableDictionary dictionary = new SortedArrayWordSearch(combinations);
+        CachingDictionary cache = new CachingDictionary(dictionary, 1000);
+        List<String> prefixes = IntStream.range(0, 26 * 26).mapToObj(it -> "A" + (char) ('A' + it / 26) + (char) ('A' + it % 26)).toList();
+        for (int round = 0; round < 3; round++) {
+            for (String prefix : prefixes) {
+                assertIterableEquals(dictionary.findMatchingWords(prefix), cache.findMatchingWords(prefix));
+                assertTrue(cache.getWeight() <= 1000);
+            }
+        }
+        assertTrue(cache.getHits() > 0);
+        assertEquals(3L * prefixes.size(), cache.getHits() + cache.getMisses());
+        assertIterableEquals(dictionary.findMatchingWords("A"), cache.findMatchingWords("A"));
+        assertFalse(cache.isCached("A")); // heavier than the capacity
+        assertThrows(UnsupportedOperationException.class, () -> cache.addWord(TEST_PREFIX));
+    }
+
+    @Test
+    @DisplayName("Test that frequently queried prefixes survive a scan of prefixes that are queried only once.")
+    void testScanResistance() {
+        CachingDictionary cache = new CachingDictionary(new SortedArrayWordSearch(combinations), 2000);
+        List<String> hot = List.of("TE", "AB");
+        for (int i = 0; i < 5; i++) {
+            hot.forEach(cache::findMatchingWords);
+        }
+        assertTrue(cache.isCached("TE") && cache.isCached("AB"));
+        for (int it = 0; it < 26 * 26; it++) {
+            cache.findMatchingWords("X" + (char) ('A' + it / 26) + (char) ('A' + it % 26));
+        }
+        assertTrue(cache.isCached("TE"));
+        assertTrue(cache.isCached("AB"));
+        assertTrue(cache.getWeight() <= 2000);
+        long hits = cache.getHits();
+        assertEquals(26 * 26, cache.countMatchingWords("TE"));
+        assertEquals(hits + 1, cache.getHits());
+        long misses = cache.getMisses();
+        assertEquals(26 * 26, cache.countMatchingWords("XA"));
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    @DisplayName("Test that modifications invalidate exactly the cached prefixes of the modified word.")
+    void testInvalidation() {
+        ParallelPrefixTree tree = new ParallelPrefixTree(combinations);
+        CachingDictionary cache = new CachingDictionary(tree, 10_000);
+        List<String> prefixes = List.of("", "T", "TE", TEST_PREFIX, "TESA", "TA", "AB");
+        prefixes.forEach(cache::findMatchingWords);
+        List<String> cached = prefixes.stream().filter(cache::isCached).toList();
+        assertIterableEquals(List.of("TE", TEST_PREFIX, "TESA", "TA", "AB"), cached); // the others are too heavy
+
+        cache.addWord("TESTS");
+        assertFalse(cache.isCached("TE"));
+        assertFalse(cache.isCached(TEST_PREFIX));
+        assertTrue(cache.isCached("TESA"));
+        assertTrue(cache.isCached("TA"));
+        assertTrue(cache.isCached("AB"));
+        assertTrue(cache.findMatchingWords(TEST_PREFIX).contains("TESTS"));
+        assertEquals(27, cache.countMatchingWords(TEST_PREFIX));
+
+        assertTrue(cache.removeWord("TESA"));
+        assertFalse(cache.isCached("TESA"));
+        assertFalse(cache.isCached(TEST_PREFIX));
+        assertIterableEquals(List.of(), cache.findMatchingWords("TESA"));
+        assertFalse(cache.removeWord("TESA"));
+        assertTrue(cache.isCached("TESA")); // failed removals do not invalidate
+    }
+
+    @Test
+    @DisplayName("Test that cached results are consistent with the tree after concurrent queries and modifications.")
+    void testConcurrentModifications() {
+        ParallelPrefixTree tree = new ParallelPrefixTree(combinations);
+        CachingDictionary cache = new CachingDictionary(tree, 5000);
+        List<String> prefixes = List.of("TE", TEST_PREFIX, "TEST", "TESTS", "TA", "TAB", "A");
+        List<String> churned = IntStream.range(0, 26).mapToObj(it -> "TEST" + (char) ('A' + it) + "S").toList();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 200; i++) {
+                churned.forEach(cache::addWord);
+                churned.forEach(it -> assertTrue(cache.removeWord(it)));
+            }
+            cache.addWord("TESTZS");
+        }, runnable -> new Thread(runnable).start()); // not in the common pool, which runs the readers
+        IntStream.range(0, 4).parallel().forEach(seed -> {
+            Random random = new Random(seed);
+            while (!writer.isDone()) {
+                String prefix = prefixes.get(random.nextInt(prefixes.size()));
+                assertTrue(cache.findMatchingWords(prefix).stream().allMatch(it -> it.startsWith(prefix)));
+            }
+        });
+        writer.join();
+        for (String prefix : prefixes) {
+            List<String> expected = tree.findSortedMatchingWords(prefix);
+            assertIterableEquals(expected, cache.findMatchingWords(prefix).stream().sorted().toList(), prefix);
+            assertEquals(expected.size(), cache.countMatchingWords(prefix), prefix);
+        }
+        assertTrue(cache.findMatchingWords("TESTZ").contains("TESTZS"));
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.tsaglam.wordsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.tsaglam.wordsearch.impl.SortedArrayWordSearch;
+import io.github.tsaglam.wordsearch.metrics.InstrumentedDictionary;
+import io.github.tsaglam.wordsearch.metrics.InstrumentedDictionary.Operation;
+import io.github.tsaglam.wordsearch.metrics.LatencyHistogram;
+import io.github.tsaglam.wordsearch.metrics.OperationMetrics;
+import io.github.tsaglam.wordsearch.tree.CompactPrefixTree;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixTree;
+import io.github.tsaglam.wordsearch.tree.ParallelRadixTree;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests for the metrics of the {@link InstrumentedDictionary} and the memory estimates of the dictionaries.
+ */
+class InstrumentedDictionaryTest {
+    private static final String TEST_PREFIX = "TES";
+    private static final String BUILD_EVENT = "io.github.tsaglam.wordsearch.DictionaryBuild";
+    private static final String SLOW_QUERY_EVENT = "io.github.tsaglam.wordsearch.SlowQuery";
+    private List<String> combinations;
+
+    @BeforeEach
+    void setUp() {
+        combinations = TestUtils.createTestData();
+    }
+
+    @Test
+    @DisplayName("Test that queries are counted per operation.")
+    void testOperationMetrics() {
+        InstrumentedDictionary dictionary = InstrumentedDictionary.build("SortedArray", combinations, SortedArrayWordSearch::new);
+        List<String> expected = combinations.stream().filter(it -> it.startsWith(TEST_PREFIX)).sorted().toList();
+        for (int i = 0; i < 10; i++) {
+            assertIterableEquals(expected, dictionary.findMatchingWords(TEST_PREFIX));
+        }
+        assertEquals(expected.size(), dictionary.countMatchingWords(TEST_PREFIX));
+        dictionary.findMatchingWordsForAll(List.of(TEST_PREFIX, "A"));
+        OperationMetrics find = dictionary.getMetrics(Operation.FIND);
+        assertEquals(10, find.getQueries());
+        assertEquals(10L * expected.size(), find.getResults());
+        assertTrue(find.getLatencies().getValueAtPercentile(50) <= find.getLatencies().getMax());
+        assertEquals(1, dictionary.getMetrics(Operation.COUNT).getQueries());
+        assertEquals(1, dictionary.getMetrics(Operation.BATCH).getQueries());
+        assertEquals(0, dictionary.getMetrics(Operation.FUZZY).getQueries());
+        assertTrue(dictionary.getBuildNanos() > 0);
+    }
+
+    @Test
+    @DisplayName("Test that the percentiles of the histogram are within the bucket precision.")
+    void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_000.5, histogram.getMean(), 0.001);
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            double exact = percentile * 1000;
+            long estimate = histogram.getValueAtPercentile(percentile);
+            assertTrue(estimate >= exact && estimate <= exact * 1.0625, percentile + ": " + estimate);
+        }
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    @DisplayName("Test that builds and slow queries are reported to the flight recorder.")
+    void testFlightRecorderEvents() throws IOException {
+        Path file = Files.createTempFile("events", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(BUILD_EVENT);
+            recording.enable(SLOW_QUERY_EVENT).withThreshold(Duration.ZERO);
+            recording.start();
+            InstrumentedDictionary dictionary = InstrumentedDictionary.build("Tree", combinations, ParallelPrefixTree::new);
+            dictionary.findMatchingWords(TEST_PREFIX);
+            dictionary.countMatchingWords(TEST_PREFIX);
+            recording.stop();
+            recording.dump(file);
+        }
+        Map<String, List<RecordedEvent>> events = RecordingFile.readAllEvents(file).stream()
+                .collect(Collectors.groupingBy(it -> it.getEventType().getName()));
+        Files.delete(file);
+        RecordedEvent build = events.get(BUILD_EVENT).get(0);
+        assertEquals("Tree", build.getString("dictionary"));
+        assertEquals(combinations.size(), build.getInt("words"));
+        assertTrue(build.getLong("memoryFootprint") > 0);
+        List<RecordedEvent> queries = events.get(SLOW_QUERY_EVENT);
+        assertEquals(2, queries.size());
+        assertEquals(TEST_PREFIX, queries.get(0).getString("pattern"));
+        assertTrue(queries.stream().allMatch(it -> it.getInt("results") == queries.get(0).getInt("results")));
+    }
+
+    @Test
+    @DisplayName("Test that the memory estimates reflect the layouts of the dictionaries.")
+    void testMemoryFootprint() {
+        long sortedArray = new SortedArrayWordSearch(combinations).memoryFootprint();
+        long prefixTree = new ParallelPrefixTree(combinations).memoryFootprint();
+        long compactTree = new CompactPrefixTree(combinations).memoryFootprint();
+        assertEquals(MemoryEstimate.ofList(combinations), sortedArray + MemoryEstimate.ofObject(2 * Integer.BYTES + MemoryEstimate.REFERENCE));
+        assertTrue(compactTree < prefixTree, compactTree + " < " + prefixTree);
+        List<String> longWords = TestUtils.createLongWordData(); // the radix tree keeps the words, but merges their unique tails
+        long longPrefixTree = new ParallelPrefixTree(longWords).memoryFootprint();
+        long longRadixTree = new ParallelRadixTree(longWords).memoryFootprint();
+        assertTrue(longRadixTree < longPrefixTree, longRadixTree + " < " + longPrefixTree);
+        TestUtils.provideAllDictionaryConstructors().forEach(it -> {
+            SearchableDictionary dictionary = ((DictionarySupplier) it.get()[1]).create(combinations);
+            assertTrue(dictionary.memoryFootprint() > 0, it.get()[0].toString());
+        });
+    }
+}
@@ -1,5 +1,6 @@
 package io.github.tsaglam.wordsearch;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 
 import java.util.Collections;
@@ -11,12 +12,14 @@ import org.junit.jupiter.api.Test;
 
 import io.github.tsaglam.wordsearch.tree.IterativeTreeSearch;
 import io.github.tsaglam.wordsearch.tree.ParallelPrefixTree;
+import io.github.tsaglam.wordsearch.tree.TypeaheadSession;
 
 /**
- * Test class for the {@link IterativeTreeSearch}.
+ * Test class for the {@link IterativeTreeSearch} and the {@link TypeaheadSession}.
  */
 class IterativeSearchTest {
     private static final String TEST_PATTERN = "TEST";
+    private static final int LIMIT = 10;
     private List<String> combinations;
     private ParallelPrefixTree searchTree;
 
@@ -24,7 +27,7 @@ class IterativeSearchTest {
     void setUp() {
         combinations = TestUtils.createTestData();
         Collections.shuffle(combinations);
-        searchTree = new ParallelPrefixTree();
+        searchTree = new ParallelPrefixTree(combinations);
     }
 
     @Test
@@ -44,4 +47,34 @@ class IterativeSearchTest {
         }
     }
 
+    @Test
+    @DisplayName("Test that backspace restores the results of the shorter prefix, also after unmatched characters.")
+    void testBackspace() {
+        TypeaheadSession session = new TypeaheadSession(searchTree);
+        session.type("TE");
+        assertIterableEquals(List.of(), session.type("S?!"));
+        assertEquals("TES?!", session.getPrefix());
+        session.backspace();
+        assertIterableEquals(searchTree.findMatchingWords("TES"), session.backspace());
+        assertIterableEquals(searchTree.findMatchingWords("TEST"), session.type('T'));
+        session.type("XX");
+        session.clear();
+        assertEquals("", session.getPrefix());
+        assertIterableEquals(searchTree.findMatchingWords("A"), session.type('A'));
+        assertIterableEquals(searchTree.findMatchingWords(""), session.backspace());
+        assertIterableEquals(searchTree.findMatchingWords(""), session.backspace());
+    }
+
+    @Test
+    @DisplayName("Test that a session with a limit returns the lexicographically first words of each prefix.")
+    void testLimit() {
+        TypeaheadSession session = new TypeaheadSession(searchTree, LIMIT);
+        List<String> sortedWords = combinations.stream().sorted().toList();
+        for (String pattern : List.of("T", "TE", "TES", "TEST", "TESTS", "TEST", "TES", "TE", "TEZ", "TEZZ", "TEZ", "TE", "T", "TZ", "TZZ")) {
+            List<String> results = pattern.length() > session.getPrefix().length() ? session.type(pattern.charAt(pattern.length() - 1))
+                    : pattern.length() < session.getPrefix().length() ? session.backspace() : session.getResults();
+            assertEquals(pattern, session.getPrefix());
+            assertIterableEquals(sortedWords.stream().filter(it -> it.startsWith(pattern)).limit(LIMIT).toList(), results);
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package io.github.tsaglam.wordsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.tsaglam.wordsearch.impl.MultiTreeSetWordSearch;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixForest;
+
+/**
+ * Tests for the {@link KeyRangeSharding} and the routing of the forests.
+ */
+class KeyRangeShardingTest {
+    private static final int SHARDS = 8;
+    private List<String> combinations;
+
+    @BeforeEach
+    void setUp() {
+        combinations = TestUtils.createTestData();
+        Collections.shuffle(combinations);
+    }
+
+    @Test
+    @DisplayName("Test that sampled splitters balance the shards of skewed data.")
+    void testBalancedShards() {
+        List<String> words = TestUtils.createLongWordData(); // two families of words with long common prefixes
+        KeyRangeSharding sharding = KeyRangeSharding.sample(words, SHARDS);
+        assertEquals(SHARDS, sharding.getNumberOfShards());
+        List<List<String>> shards = sharding.partition(words);
+        assertEquals(words.size(), shards.stream().mapToInt(List::size).sum());
+        int expected = words.size() / SHARDS;
+        shards.forEach(it -> assertTrue(it.size() > expected * 0.75 && it.size() < expected * 1.25, () -> "Shard size " + it.size()));
+        for (int shard = 1; shard < SHARDS; shard++) {
+            String last = Collections.max(shards.get(shard - 1));
+            String first = Collections.min(shards.get(shard));
+            assertTrue(last.compareTo(first) < 0, last + " >= " + first);
+        }
+    }
+
+    @Test
+    @DisplayName("Test that sorted and unsorted words are partitioned into the same shards in the same order.")
+    void testSortedPartition() {
+        List<String> sorted = combinations.stream().sorted().toList();
+        KeyRangeSharding sharding = KeyRangeSharding.sample(combinations, SHARDS);
+        List<List<String>> sortedShards = sharding.partition(sorted);
+        List<List<String>> unsortedShards = sharding.partition(combinations);
+        assertEquals(SHARDS, sortedShards.size());
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertIterableEquals(sortedShards.get(shard), unsortedShards.get(shard).stream().sorted().toList());
+            int index = shard;
+            assertTrue(sortedShards.get(shard).stream().allMatch(it -> sharding.shardOf(it) == index));
+        }
+        List<String> filtered = combinations.stream().filter(it -> sharding.shardOf(it) == 0).toList();
+        assertIterableEquals(filtered, unsortedShards.get(0)); // keeps the order of unsorted words
+        List<String> duplicates = List.of("A", "B", "B", "B", "C");
+        KeyRangeSharding few = KeyRangeSharding.sample(duplicates, 3);
+        assertEquals(duplicates, few.partition(duplicates).stream().flatMap(List::stream).toList());
+        assertEquals(1, few.partition(duplicates).stream().filter(it -> it.contains("B")).count());
+    }
+
+    @Test
+    @DisplayName("Test that prefixes are routed exactly to the shards that contain their words.")
+    void testRouting() {
+        KeyRangeSharding sharding = KeyRangeSharding.sample(combinations, SHARDS);
+        List<List<String>> shards = sharding.partition(combinations);
+        List<Integer> indices = IntStream.range(0, SHARDS).boxed().toList();
+        assertEquals(indices, sharding.route(indices, ""));
+        for (String word : combinations) {
+            for (int length = 1; length <= word.length(); length++) {
+                List<Integer> routed = sharding.route(indices, word.substring(0, length));
+                assertTrue(routed.contains(sharding.shardOf(word)), word);
+                assertTrue(length == 1 || routed.size() <= 2, word); // a shard spans several first letters
+            }
+        }
+        assertEquals(1, sharding.route(shards, "ZZZZZ").size());
+        String cursor = Collections.min(shards.get(SHARDS - 1));
+        assertEquals(List.of(shards.get(SHARDS - 1)), sharding.routeAfter(shards, "", cursor));
+        assertEquals(List.of(), sharding.routeAfter(shards, "A", cursor));
+    }
+
+    @Test
+    @DisplayName("Test that equal words are in one shard and that there are fewer shards than requested for few distinct words.")
+    void testDuplicates() {
+        List<String> words = new ArrayList<>(Collections.nCopies(1000, "SAME"));
+        words.addAll(List.of("A", "Z"));
+        KeyRangeSharding sharding = KeyRangeSharding.sample(words, SHARDS);
+        assertTrue(sharding.getNumberOfShards() <= 3);
+        assertEquals(1, sharding.partition(words).stream().filter(it -> it.contains("SAME")).count());
+        assertEquals(1, KeyRangeSharding.sample(List.of(), SHARDS).getNumberOfShards());
+        assertThrows(IllegalArgumentException.class, () -> KeyRangeSharding.sample(words, 0));
+        assertThrows(IllegalArgumentException.class, () -> new MultiTreeSetWordSearch(null, SHARDS));
+    }
+
+    @Test
+    @DisplayName("Test that the results of the forests are ordered by shard, which is the lexicographic order for tree sets.")
+    void testOrderedResults() {
+        List<String> sorted = combinations.stream().sorted().toList();
+        MultiTreeSetWordSearch treeSets = new MultiTreeSetWordSearch(combinations, SHARDS);
+        ParallelPrefixForest forest = new ParallelPrefixForest(combinations, SHARDS);
+        assertIterableEquals(sorted, treeSets.findMatchingWords(""));
+        assertIterableEquals(sorted, treeSets.streamMatchingWords("").toList());
+        assertIterableEquals(sorted, forest.findSortedMatchingWords(""));
+        String cursor = sorted.get(sorted.size() / SHARDS - 5); // pages across a shard boundary
+        int start = sorted.size() / SHARDS - 4;
+        assertIterableEquals(sorted.subList(start, start + 5000), treeSets.findMatchingWordsAfter("", cursor, 5000));
+        assertIterableEquals(sorted.subList(start, start + 5000), forest.findMatchingWordsAfter("", cursor, 5000));
+        List<String> expected = sorted.stream().filter(it -> it.startsWith("TE")).toList();
+        assertIterableEquals(expected, treeSets.findMatchingWords("TE"));
+        assertIterableEquals(expected, forest.findMatchingWords("TE").stream().sorted().toList());
+        assertEquals(expected.size(), forest.countMatchingWords("TE"));
+        assertIterableEquals(expected, treeSets.findMatchingWordsForAll(List.of("TE", "TA")).get("TE"));
+        assertIterableEquals(expected, forest.findMatchingWordsForAll(List.of("TE", "TA")).get("TE").stream().sorted().toList());
+    }
+}
@@ -0,0 +1,163 @@
+package io.github.tsaglam.wordsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.tsaglam.wordsearch.impl.SortedArrayWordSearch;
+import io.github.tsaglam.wordsearch.mapped.DictionaryFile;
+import io.github.tsaglam.wordsearch.mapped.MappedWordSearch;
+import io.github.tsaglam.wordsearch.mapped.OffHeapWordSearch;
+
+/**
+ * Tests for the dictionary file format and the {@link MappedWordSearch}.
+ */
+class MappedWordSearchTest {
+    private static final String TEST_PREFIX = "TES";
+    private List<String> combinations;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() {
+        combinations = TestUtils.createTestData();
+        Collections.shuffle(combinations);
+    }
+
+    @Test
+    @DisplayName("Test that a written file can be reopened and searched.")
+    void testReopen() throws IOException {
+        Path file = DictionaryFile.write(combinations, directory.resolve("words.pwsd"));
+        MappedWordSearch dictionary = MappedWordSearch.open(file);
+        MappedWordSearch reopened = MappedWordSearch.open(file);
+        assertEquals(combinations.size(), reopened.size());
+        assertIterableEquals(dictionary.findMatchingWords(TEST_PREFIX), reopened.findMatchingWords(TEST_PREFIX));
+        assertIterableEquals(combinations.stream().filter(it -> it.startsWith(TEST_PREFIX)).sorted().toList(),
+                reopened.findMatchingWords(TEST_PREFIX));
+    }
+
+    @Test
+    @DisplayName("Test that replacing a file does not affect dictionaries that are still open.")
+    void testReplace() throws IOException {
+        Path file = DictionaryFile.write(combinations, directory.resolve("words.pwsd"));
+        MappedWordSearch dictionary = MappedWordSearch.open(file);
+        DictionaryFile.write(List.of(TEST_PREFIX), file);
+        assertEquals(26, dictionary.countMatchingWords(TEST_PREFIX));
+        assertEquals(1, MappedWordSearch.open(file).size());
+    }
+
+    @Test
+    @DisplayName("Test words with multi-byte characters.")
+    void testUnicode() throws IOException {
+        List<String> words = List.of("straße", "strasse", "straßen", "stra", "日本", "日本語", "😀", "");
+        MappedWordSearch dictionary = MappedWordSearch.open(DictionaryFile.write(words, directory.resolve("words.pwsd")));
+        assertIterableEquals(List.of("straße", "straßen"), dictionary.findMatchingWords("straß"));
+        assertIterableEquals(List.of("日本", "日本語"), dictionary.findMatchingWords("日"));
+        assertIterableEquals(List.of("😀"), dictionary.findMatchingWords("😀"));
+        assertEquals(words.size(), dictionary.countMatchingWords(""));
+        assertIterableEquals(List.of("straßen"), dictionary.findMatchingWordsAfter("str", "straße", 10));
+    }
+
+    @Test
+    @DisplayName("Test that words with unpaired surrogates are rejected instead of being stored as question marks.")
+    void testUnpairedSurrogates() throws IOException {
+        Path file = directory.resolve("words.pwsd");
+        for (String word : List.of("A\uD800", "\uDC00A", "\uD800\uD800\uDC00")) {
+            assertThrowsExactly(IllegalArgumentException.class, () -> DictionaryFile.write(List.of("A", word), file));
+            assertThrowsExactly(IllegalArgumentException.class, () -> new OffHeapWordSearch(List.of("A", word)));
+        }
+        assertEquals(List.of(), listFiles());
+    }
+
+    @Test
+    @DisplayName("Test that patterns with unpaired surrogates match the same words as in a sorted array.")
+    void testPatternsWithUnpairedSurrogates() throws IOException {
+        List<String> words = List.of("A\uD83D\uDE00x", "A?b", "B", "A\uD83C\uDFFF", "A\uD83D\uDC00", "A\uD83D\uDFFF", "A\uD83E\uDC00",
+                "\uD83D\uDE00");
+        SearchableDictionary expected = new SortedArrayWordSearch(words);
+        Path file = DictionaryFile.write(words, directory.resolve("words.pwsd"));
+        List<String> patterns = List.of("A\uD83D", "\uD83D", "A\uD83C", "A\uD83Dx", "A\uDE00", "A\uD83D\uDE00", "A?", "");
+        for (SearchableDictionary dictionary : List.of(new OffHeapWordSearch(words), MappedWordSearch.open(file))) {
+            for (String pattern : patterns) {
+                assertIterableEquals(expected.findMatchingWords(pattern), dictionary.findMatchingWords(pattern), pattern);
+                assertEquals(expected.countMatchingWords(pattern), dictionary.countMatchingWords(pattern), pattern);
+                assertIterableEquals(expected.streamMatchingWords(pattern).toList(), dictionary.streamMatchingWords(pattern).toList());
+                assertIterableEquals(expected.findMatchingWords(pattern, 1, 2), dictionary.findMatchingWords(pattern, 1, 2), pattern);
+                assertIterableEquals(expected.findMatchingWordsAfter(pattern, "A", 10), dictionary.findMatchingWordsAfter(pattern, "A", 10));
+            }
+            assertEquals(expected.findMatchingWordsForAll(patterns), dictionary.findMatchingWordsForAll(patterns));
+            assertThrowsExactly(IllegalArgumentException.class, () -> dictionary.findMatchingWordsAfter("A", "A\uD83D", 10));
+        }
+    }
+
+    @Test
+    @DisplayName("Test that concurrent writers to the same file do not interfere and that failed writes leave no files behind.")
+    void testConcurrentWrites() throws IOException {
+        Path file = directory.resolve("words.pwsd");
+        IntStream.range(1, 17).parallel().forEach(size -> {
+            try {
+                DictionaryFile.write(combinations.subList(0, size * 1000), file);
+            } catch (IOException exception) {
+                throw new AssertionError(exception);
+            }
+        });
+        int size = MappedWordSearch.open(file).size();
+        assertTrue(size % 1000 == 0 && size > 0, () -> "Size " + size);
+        assertEquals(List.of(file), listFiles());
+
+        Path occupied = Files.createDirectories(directory.resolve("occupied.pwsd").resolve("child"));
+        assertThrows(IOException.class, () -> DictionaryFile.write(combinations, occupied.getParent()));
+        assertEquals(List.of(occupied.getParent(), file), listFiles());
+    }
+
+    @Test
+    @DisplayName("Test that invalid files are rejected.")
+    void testInvalidFiles() throws IOException {
+        Path file = DictionaryFile.write(combinations, directory.resolve("words.pwsd"));
+        byte[] content = Files.readAllBytes(file);
+
+        ByteBuffer.wrap(content).putInt(Integer.BYTES, Integer.MAX_VALUE); // unknown version
+        Path unknownVersion = Files.write(directory.resolve("version.pwsd"), content);
+        assertThrowsExactly(IOException.class, () -> MappedWordSearch.open(unknownVersion));
+
+        Path truncated = Files.write(directory.resolve("truncated.pwsd"), List.of(TEST_PREFIX));
+        assertThrowsExactly(IOException.class, () -> MappedWordSearch.open(truncated));
+    }
+
+    private List<Path> listFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Test that opening a file is much faster than building a dictionary.")
+    void testTimeToFirstQuery() throws IOException {
+        Path file = DictionaryFile.write(combinations, directory.resolve("words.pwsd"));
+        long start = System.nanoTime();
+        List<String> results = MappedWordSearch.open(file).findMatchingWords(TEST_PREFIX);
+        double duration = (System.nanoTime() - start) / 1e9;
+        System.out.println("first query in mapped file: " + String.format("%.6f", duration) + "s");
+        assertEquals(26, results.size());
+        assertTrue(duration < 0.1);
+    }
+}
@@ -0,0 +1,275 @@
+package io.github.tsaglam.wordsearch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.tsaglam.wordsearch.tree.CompactPrefixTree;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixForest;
+import io.github.tsaglam.wordsearch.tree.ParallelPrefixTree;
+import io.github.tsaglam.wordsearch.tree.ParallelRadixTree;
+import io.github.tsaglam.wordsearch.tree.PersistentPrefixTree;
+
+/**
+ * Tests for the features specific to the {@link ParallelPrefixTree}.
+ */
+class ParallelPrefixTreeTest {
+    private static final String TEST_PREFIX = "TES";
+    private List<String> combinations;
+
+    @BeforeEach
+    void setUp() {
+        combinations = TestUtils.createTestData();
+        Collections.shuffle(combinations);
+    }
+
+    @Test
+    @DisplayName("Test that subtree counts are correct after concurrent insertion.")
+    void testConcurrentCounts() {
+        ParallelPrefixTree tree = new ParallelPrefixTree();
+        combinations.parallelStream().forEach(tree::addWord);
+        combinations.parallelStream().filter(it -> it.startsWith(TEST_PREFIX)).forEach(tree::addWord);
+        assertEquals(combinations.size() + 26, tree.size());
+        assertEquals(combinations.size() + 26, tree.countMatchingWords(""));
+        assertEquals(2 * 26, tree.countMatchingWords(TEST_PREFIX));
+        assertEquals(26 * 26 + 26, tree.countMatchingWords(TEST_PREFIX.substring(0, 2)));
+        assertEquals(tree.findMatchingWords(TEST_PREFIX).size(), tree.countMatchingWords(TEST_PREFIX));
+    }
+
+    @Test
+    @DisplayName("Test that ordered results of the tree and the forest are sorted without post-processing.")
+    void testSortedResults() {
+        List<String> expected = new ArrayList<>(combinations);
+        Collections.sort(expected);
+        ParallelPrefixTree tree = new ParallelPrefixTree(combinations);
+        ParallelPrefixForest forest = new ParallelPrefixForest(combinations, 7);
+        assertIterableEquals(expected, tree.findSortedMatchingWords(""));
+        assertIterableEquals(expected, forest.findSortedMatchingWords(""));
+        List<String> expectedPrefix = expected.stream().filter(it -> it.startsWith(TEST_PREFIX)).toList();
+        assertIterableEquals(expectedPrefix, tree.findSortedMatchingWords(TEST_PREFIX));
+        assertIterableEquals(expectedPrefix, forest.findSortedMatchingWords(TEST_PREFIX));
+        assertIterableEquals(List.of(), forest.findSortedMatchingWords(TEST_PREFIX + TEST_PREFIX));
+    }
+
+    @Test
+    @DisplayName("Test that nodes with many and widely spread children grow correctly under concurrent insertion.")
+    void testWideFanOut() {
+        List<String> dense = IntStream.range(0, 100).mapToObj(it -> "D" + (char) ('0' + it)).toList();
+        List<String> sparse = IntStream.range(0, 100).mapToObj(it -> "S" + (char) ('0' + 600 * it)).toList();
+        List<String> words = new ArrayList<>(dense);
+        words.addAll(sparse);
+        Collections.shuffle(words);
+        ParallelPrefixTree tree = new ParallelPrefixTree();
+        words.parallelStream().forEach(tree::addWord);
+        assertEquals(words.size(), tree.size());
+        assertIterableEquals(dense, tree.findSortedMatchingWords("D"));
+        assertIterableEquals(sparse, tree.findSortedMatchingWords("S"));
+        words.forEach(it -> assertIterableEquals(List.of(it), tree.findMatchingWords(it)));
+    }
+
+    @Test
+    @DisplayName("Test concurrent removal and insertion, which prunes and revives nodes.")
+    void testConcurrentRemoval() {
+        ParallelPrefixTree tree = new ParallelPrefixTree(combinations);
+        List<String> removed = combinations.stream().filter(it -> it.charAt(0) < 'N').toList();
+        List<String> churned = combinations.stream().filter(it -> it.startsWith(TEST_PREFIX)).sorted().toList();
+        CompletableFuture<Void> churn = CompletableFuture.runAsync(() -> churned.parallelStream().forEach(it -> {
+            for (int i = 0; i < 100; i++) {
+                assertTrue(tree.removeWord(it));
+                tree.addWord(it);
+            }
+        }));
+        removed.parallelStream().forEach(it -> assertTrue(tree.removeWord(it)));
+        churn.join();
+        assertEquals(combinations.size() - removed.size(), tree.size());
+        assertEquals(0, tree.countMatchingWords("A"));
+        assertIterableEquals(List.of(), tree.findMatchingWords("M"));
+        assertIterableEquals(churned, tree.findSortedMatchingWords(TEST_PREFIX));
+        assertFalse(tree.removeWord(removed.get(0)));
+        assertFalse(tree.removeWord(TEST_PREFIX));
+        assertThrows(IllegalArgumentException.class, () -> tree.removeWord(null));
+        assertThrows(IllegalArgumentException.class, () -> tree.addWord(null));
+
+        tree.addWord(removed.get(0));
+        assertIterableEquals(List.of(removed.get(0)), tree.findMatchingWords(removed.get(0).substring(0, 1)));
+    }
+
+    @Test
+    @DisplayName("Test that each query of the persistent tree sees a single version under concurrent modifications.")
+    void testSnapshotConsistency() {
+        PersistentPrefixTree tree = new PersistentPrefixTree(combinations);
+        PersistentPrefixTree initial = tree.snapshot();
+        List<String> moved = combinations.stream().filter(it -> it.startsWith("T")).toList();
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> moved.forEach(it -> {
+            assertTrue(tree.removeWord(it));
+            tree.addWord(it.toLowerCase());
+        }));
+        while (!writer.isDone()) {
+            PersistentPrefixTree snapshot = tree.snapshot();
+            int size = snapshot.size();
+            assertEquals(size, snapshot.findMatchingWords("").size());
+            assertEquals(snapshot.countMatchingWords("T"), snapshot.findMatchingWords("T").size());
+        }
+        writer.join();
+        assertEquals(combinations.size(), tree.size());
+        assertEquals(0, tree.countMatchingWords("T"));
+        assertEquals(moved.size(), tree.countMatchingWords("t"));
+        assertEquals(moved.size(), initial.countMatchingWords("T"));
+        assertEquals(0, initial.countMatchingWords("t"));
+    }
+
+    @Test
+    @DisplayName("Test that the best-first top-k search returns the same words as ranking all matching words.")
+    void testTopMatchingWords() {
+        Random random = new Random(0);
+        ParallelPrefixTree tree = new ParallelPrefixTree();
+        PersistentPrefixTree persistentTree = new PersistentPrefixTree();
+        for (String word : combinations.subList(0, 50000)) {
+            long weight = random.nextInt(1000);
+            tree.addWord(word, weight);
+            persistentTree.addWord(word, weight);
+        }
+        combinations.subList(0, 1000).parallelStream().forEach(it -> tree.addWord(it, 500)); // raises weights concurrently
+        combinations.subList(0, 1000).forEach(it -> persistentTree.addWord(it, 500));
+        for (String prefix : List.of("", "T", "TE", TEST_PREFIX, "ZZZ", "TEST", "#")) {
+            for (int limit : List.of(0, 1, 10, 100)) {
+                assertIterableEquals(rankedWords(tree, prefix, tree::getWeight, limit), tree.findTopMatchingWords(prefix, limit));
+                assertIterableEquals(rankedWords(persistentTree, prefix, persistentTree::getWeight, limit),
+                        persistentTree.findTopMatchingWords(prefix, limit));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test that words added without weights are ranked by frequency and removals take their share of the weight.")
+    void testFrequencyWeights() {
+        ParallelPrefixTree tree = new ParallelPrefixTree(combinations);
+        PersistentPrefixTree persistentTree = new PersistentPrefixTree(combinations);
+        for (int i = 0; i < 3; i++) {
+            tree.addWord("TEST");
+            persistentTree.addWord("TEST");
+        }
+        tree.addWord("TESZ", 2);
+        persistentTree.addWord("TESZ", 2);
+        assertIterableEquals(List.of("TEST", "TESZ", "TESA"), tree.findTopMatchingWords(TEST_PREFIX, 3));
+        assertIterableEquals(List.of("TEST", "TESZ", "TESA"), persistentTree.findTopMatchingWords(TEST_PREFIX, 3));
+        assertTrue(tree.removeWord("TESZ"));
+        assertTrue(persistentTree.removeWord("TESZ"));
+        assertEquals(4, tree.getWeight("TEST"));
+        assertEquals(2, tree.getWeight("TESZ"));
+        assertEquals(2, persistentTree.getWeight("TESZ"));
+        assertTrue(tree.removeWord("TESZ"));
+        assertTrue(persistentTree.removeWord("TESZ"));
+        assertEquals(0, tree.getWeight("TESZ"));
+        assertEquals(0, persistentTree.getWeight("TESZ"));
+        assertIterableEquals(List.of("TEST", "TESA"), tree.findTopMatchingWords(TEST_PREFIX, 2));
+        assertIterableEquals(List.of("TEST", "TESA"), persistentTree.findTopMatchingWords(TEST_PREFIX, 2));
+    }
+
+    @Test
+    @DisplayName("Test that trees of very long words are searched, measured, and copied into compact trees without recursion.")
+    void testCompactTreeLongWords() {
+        String longWord = "/".repeat(200_000); // one node per character, deeper than any call stack
+        List<String> words = new ArrayList<>(combinations.subList(0, 1000));
+        words.addAll(List.of(longWord, longWord + "A", longWord + "B", longWord.substring(1000)));
+        ParallelPrefixTree source = new ParallelPrefixTree(words);
+        assertTrue(source.memoryFootprint() > longWord.length());
+        CompactPrefixTree tree = source.freeze();
+        assertEquals(words.size(), tree.size());
+        assertIterableEquals(List.of(longWord, longWord + "A", longWord + "B"), tree.findMatchingWords(longWord));
+        assertEquals(4, tree.countMatchingWords("/"));
+        assertEquals(3, tree.countMatchingWords(longWord.substring(1000) + "/"));
+        assertIterableEquals(words.stream().sorted().toList(), tree.streamMatchingWords("").toList());
+        assertIterableEquals(tree.findMatchingWords("/"), source.findMatchingWords("/"));
+        assertIterableEquals(tree.findMatchingWords(""), source.findMatchingWords(""));
+    }
+
+    @Test
+    @DisplayName("Test that concurrent insertion into the radix tree splits edges without losing words.")
+    void testRadixTreeConcurrentSplits() {
+        List<String> words = new ArrayList<>(TestUtils.createLongWordData().subList(0, 20_000));
+        words.addAll(combinations.stream().map(it -> "https://" + it).toList()); // splits the edges of the URLs
+        words.addAll(words.stream().filter(it -> it.endsWith("T")).toList()); // duplicates
+        Collections.shuffle(words);
+        ParallelRadixTree tree = new ParallelRadixTree();
+        words.parallelStream().forEach(tree::addWord);
+        List<String> expected = words.stream().sorted().toList();
+        assertEquals(words.size(), tree.size());
+        assertIterableEquals(expected, tree.findMatchingWords(""));
+        for (String prefix : List.of("https://", "https://www.host1", "https://www.host12.example.org/", "/home/user7/", "https://TES")) {
+            List<String> expectedPrefix = expected.stream().filter(it -> it.startsWith(prefix)).toList();
+            assertIterableEquals(expectedPrefix, tree.findMatchingWords(prefix));
+            assertEquals(expectedPrefix.size(), tree.countMatchingWords(prefix));
+        }
+        assertIterableEquals(List.of(), tree.findMatchingWords("https://www.host1x"));
+    }
+
+    @Test
+    @DisplayName("Test concurrent removal and insertion in the radix tree.")
+    void testRadixTreeConcurrentRemoval() {
+        ParallelRadixTree tree = new ParallelRadixTree(combinations);
+        List<String> removed = combinations.stream().filter(it -> it.charAt(0) < 'N').toList();
+        removed.parallelStream().forEach(it -> assertTrue(tree.removeWord(it)));
+        combinations.parallelStream().filter(it -> it.startsWith(TEST_PREFIX)).forEach(it -> tree.addWord(it + it));
+        assertEquals(combinations.size() - removed.size() + 26, tree.size());
+        assertEquals(0, tree.countMatchingWords("A"));
+        assertIterableEquals(List.of("TESTTEST"), tree.findMatchingWords("TESTT"));
+        assertFalse(tree.removeWord(removed.get(0)));
+        assertFalse(tree.removeWord(TEST_PREFIX));
+        assertFalse(tree.removeWord("TESTTES"));
+        for (String prefix : List.of("", "N", TEST_PREFIX, "TESTT")) {
+            assertEquals(tree.findMatchingWords(prefix).size(), tree.countMatchingWords(prefix), prefix);
+        }
+    }
+
+    @Test
+    @DisplayName("Test that removals from the radix tree prune and merge nodes while words are added concurrently.")
+    void testRadixTreeCompaction() {
+        List<String> words = TestUtils.createLongWordData().subList(0, 20_000);
+        ParallelRadixTree tree = new ParallelRadixTree(words);
+        long footprint = tree.memoryFootprint();
+        List<String> extensions = words.stream().map(it -> it + "/index").toList(); // adds leaves below the words
+        List<String> splits = words.stream().map(it -> it.substring(0, it.length() / 2) + "#").toList(); // splits the edges
+        List<String> prefixes = words.stream().map(it -> it.substring(0, it.length() - 3)).toList(); // ends within the edges
+        extensions.parallelStream().forEach(tree::addWord);
+        List<Runnable> operations = new ArrayList<>();
+        extensions.forEach(it -> operations.add(() -> assertTrue(tree.removeWord(it))));
+        splits.forEach(it -> operations.add(() -> tree.addWord(it)));
+        prefixes.forEach(it -> operations.add(() -> tree.addWord(it)));
+        Collections.shuffle(operations);
+        operations.parallelStream().forEach(Runnable::run);
+        assertEquals(words.size() + splits.size() + prefixes.size(), tree.countMatchingWords(""));
+        for (String prefix : List.of("https://www.host1", "/home/user7/", words.get(0).substring(0, 30), splits.get(0))) {
+            assertEquals(tree.findMatchingWords(prefix).size(), tree.countMatchingWords(prefix), prefix);
+        }
+        splits.parallelStream().forEach(it -> assertTrue(tree.removeWord(it)));
+        prefixes.parallelStream().forEach(it -> assertTrue(tree.removeWord(it)));
+        assertEquals(words.size(), tree.countMatchingWords(""));
+        assertIterableEquals(words.stream().sorted().toList(), tree.findMatchingWords(""));
+        assertEquals(footprint, tree.memoryFootprint()); // the same nodes and edges as before
+        words.parallelStream().forEach(it -> assertTrue(tree.removeWord(it)));
+        assertEquals(new ParallelRadixTree().memoryFootprint(), tree.memoryFootprint());
+        assertEquals(0, tree.countMatchingWords(""));
+    }
+
+    private static List<String> rankedWords(SearchableDictionary dictionary, String prefix, ToLongFunction<String> weight, int limit) {
+        Comparator<String> byWeight = Comparator.comparingLong(weight);
+        return dictionary.findMatchingWords(prefix).stream().distinct().sorted(byWeight.reversed().thenComparing(Comparator.naturalOrder()))
+                .limit(limit).toList();
+    }
+}
@@ -4,6 +4,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -14,15 +17,22 @@ import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 /**
- * Performance benchmark for the parallel word search. Does not contain classical unit tests.
+ * Performance benchmark for the parallel word search. Does not contain classical unit tests. The measurements are
+ * wall-clock times without warmup, so they are excluded from the default build and only run with the benchmark profile,
+ * see {@code mvn test -Pbenchmark}. Reliable numbers are measured by the JMH benchmarks.
  */
+@Tag("benchmark")
 class PerformanceBenchmarkTest {
     private static final String METHOD_SOURCE = "io.github.tsaglam.wordsearch.TestUtils#provideDictionaryConstructors";
     private static final int BENCHMARK_REPETITIONS = 10;
+    private static final int COLLECTION_REPETITIONS = 5;
+    private static final int BATCH_SIZE = 1000;
+    private static final int FUZZY_QUERIES = 5;
     private static final String CSV_HEADER = "name;time;size";
     private static List<String> combinations;
     private static List<String> testPrefixes;
@@ -49,6 +59,93 @@ class PerformanceBenchmarkTest {
         assertTrue(durationInSeconds < 0.02);
     }
 
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Broad prefix search performance.")
+    @MethodSource(METHOD_SOURCE)
+    void testBroadPrefixSearch(String name, DictionarySupplier supplier) {
+        SearchableDictionary testDictionary = supplier.create(combinations);
+        List<String> broadPrefixes = List.of("", "A", "M", "Z");
+        double durationInSeconds = measure(() -> {
+            for (String prefix : broadPrefixes) {
+                testDictionary.findMatchingWords(prefix);
+            }
+        });
+        durationInSeconds /= broadPrefixes.size();
+        System.out.println("broad search in " + name + ": " + String.format("%.6f", durationInSeconds) + "s");
+        assertTrue(durationInSeconds < 0.5);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Batched prefix search performance.")
+    @MethodSource(METHOD_SOURCE)
+    void testBatchedPrefixSearch(String name, DictionarySupplier supplier) {
+        SearchableDictionary testDictionary = supplier.create(combinations);
+        List<String> batch = combinations.stream().limit(BATCH_SIZE).map(it -> it.substring(0, 3)).toList();
+        double separateDurationInSeconds = measure(() -> batch.forEach(testDictionary::findMatchingWords));
+        double durationInSeconds = measure(() -> testDictionary.findMatchingWordsForAll(batch));
+        System.out.println("batch search in " + name + ": " + String.format("%.6f", durationInSeconds) + "s (separately "
+                + String.format("%.6f", separateDurationInSeconds) + "s)");
+        assertTrue(durationInSeconds < 0.5);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Fuzzy search performance with one and two edits.")
+    @MethodSource(METHOD_SOURCE)
+    void testFuzzySearch(String name, DictionarySupplier supplier) {
+        SearchableDictionary testDictionary = supplier.create(combinations);
+        List<String> patterns = combinations.subList(0, FUZZY_QUERIES);
+        for (int maxEdits = 1; maxEdits <= 2; maxEdits++) {
+            int edits = maxEdits;
+            double durationInSeconds = measure(() -> patterns.forEach(it -> testDictionary.findFuzzyMatches(it, edits)));
+            durationInSeconds /= patterns.size();
+            System.out.println("fuzzy search (k=" + edits + ") in " + name + ": " + String.format("%.6f", durationInSeconds) + "s");
+            assertTrue(durationInSeconds < 0.5);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Wildcard search performance.")
+    @MethodSource(METHOD_SOURCE)
+    void testWildcardSearch(String name, DictionarySupplier supplier) {
+        SearchableDictionary testDictionary = supplier.create(combinations);
+        List<String> patterns = List.of("TE?T", "T*ST", "?EST", "A?C*", "*ZZ");
+        double scanDurationInSeconds = measure(() -> patterns.forEach(it -> {
+            WildcardPattern pattern = WildcardPattern.compile(it);
+            testDictionary.findMatchingWords("").parallelStream().filter(pattern::matches).toList();
+        })) / patterns.size();
+        double durationInSeconds = measure(() -> patterns.forEach(testDictionary::findWildcardMatches)) / patterns.size();
+        System.out.println("wildcard search in " + name + ": " + String.format("%.6f", durationInSeconds) + "s (full scan "
+                + String.format("%.6f", scanDurationInSeconds) + "s)");
+        assertTrue(durationInSeconds < 0.5);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Infix search performance.")
+    @MethodSource(METHOD_SOURCE)
+    void testInfixSearch(String name, DictionarySupplier supplier) {
+        SearchableDictionary testDictionary = supplier.create(combinations);
+        List<String> fragments = testPrefixes.stream().map(it -> it.substring(1)).toList(); // two letters anywhere in a word
+        double durationInSeconds = measure(() -> fragments.forEach(testDictionary::findWordsContaining)) / fragments.size();
+        System.out.println("infix search in " + name + ": " + String.format("%.6f", durationInSeconds) + "s");
+        assertTrue(durationInSeconds < 0.5);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Heap footprint and search performance for long words.")
+    @MethodSource(METHOD_SOURCE)
+    void testLongWordSearch(String name, DictionarySupplier supplier) {
+        List<String> words = TestUtils.createLongWordData();
+        List<String> prefixes = IntStream.range(0, 100).mapToObj(it -> "https://www.host" + it + ".example.org/articles/" + it % 7 + "/")
+                .toList();
+        long heapBefore = usedHeap();
+        SearchableDictionary testDictionary = supplier.create(words);
+        double heapInMegabytes = (usedHeap() - heapBefore) / 1e6; // without the words, which the caller holds as well
+        double durationInSeconds = measure(() -> prefixes.forEach(testDictionary::findMatchingWords)) / prefixes.size();
+        System.out.println("long word search in " + name + ": " + String.format("%.6f", durationInSeconds) + "s, "
+                + String.format("%.1f", heapInMegabytes) + "MB heap");
+        assertTrue(durationInSeconds < 0.5);
+    }
+
     @ParameterizedTest(name = "{0}")
     @DisplayName("Data structure creation performance.")
     @MethodSource(METHOD_SOURCE)
@@ -58,6 +155,25 @@ class PerformanceBenchmarkTest {
         assertTrue(durationInSeconds < 0.5);
     }
 
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Heap footprint and garbage collection impact.")
+    @MethodSource(METHOD_SOURCE)
+    void testMemoryFootprint(String name, DictionarySupplier supplier) {
+        double baselineInSeconds = measure(this::collectGarbage);
+        long heapBefore = usedHeap();
+        long directMemoryBefore = usedDirectMemory();
+        SearchableDictionary dictionary = supplier.create(combinations.stream().map(String::new).toList()); // own words
+        double durationInSeconds = measure(this::collectGarbage) - baselineInSeconds;
+        double heapInMegabytes = (usedHeap() - heapBefore) / 1e6;
+        double directMemoryInMegabytes = (usedDirectMemory() - directMemoryBefore) / 1e6;
+        Reference.reachabilityFence(dictionary);
+        durationInSeconds /= COLLECTION_REPETITIONS;
+        System.out.println("footprint of " + name + ": " + String.format("%.1f", heapInMegabytes) + "MB heap, "
+                + String.format("%.1f", directMemoryInMegabytes) + "MB direct, " + String.format("%.6f", durationInSeconds)
+                + "s additional full collection time");
+        assertTrue(durationInSeconds < 0.5);
+    }
+
     @ParameterizedTest(name = "{0}")
     @DisplayName("Datastructure creation + search performance.")
     @MethodSource(METHOD_SOURCE)
@@ -90,6 +206,31 @@ class PerformanceBenchmarkTest {
         return (endTime - startTime) / 1000.0;
     }
 
+    /**
+     * Triggers multiple full garbage collections, whose duration depends on the number of reachable objects.
+     */
+    private void collectGarbage() {
+        for (int i = 0; i < COLLECTION_REPETITIONS; i++) {
+            System.gc();
+        }
+    }
+
+    /**
+     * Returns the used heap memory after a full garbage collection.
+     */
+    private long usedHeap() {
+        collectGarbage();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Returns the memory used by direct and mapped buffers.
+     */
+    private static long usedDirectMemory() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream().mapToLong(BufferPoolMXBean::getMemoryUsed).sum();
+    }
+
     /**
      * Creates n search inputs based on {@link PerformanceBenchmarkTest#createTestPrefixes()}.
      */
@@ -1,12 +1,18 @@
 package io.github.tsaglam.wordsearch;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
@@ -23,6 +29,7 @@ class SearchableDictionaryTest {
     private static final String TEST_PATTERN = "TEST";
     private static final String TEST_PREFIX = "TES";
     private static final String EMPTY_WORD = "";
+    private static final int PAGE_SIZE = 20;
     private List<String> combinationsUnsorted;
     private List<String> combinations;
 
@@ -98,6 +105,135 @@ class SearchableDictionaryTest {
         assertThrowsExactly(IllegalArgumentException.class, () -> supplier.create(null));
     }
 
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test counting the matches of different patterns.")
+    @MethodSource(METHOD_SOURCE)
+    void testCount(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        assertEquals(1, search.countMatchingWords(TEST_PATTERN));
+        assertEquals(26, search.countMatchingWords(TEST_PREFIX));
+        assertEquals(combinations.size(), search.countMatchingWords(EMPTY_WORD));
+        assertEquals(0, search.countMatchingWords(TEST_PATTERN + TEST_PATTERN));
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.countMatchingWords(null));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test streaming the matches of a three-letter prefix.")
+    @MethodSource(METHOD_SOURCE)
+    void testStream(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        assertFalse(search.streamMatchingWords(TEST_PREFIX).isParallel());
+        List<String> results = search.streamMatchingWords(TEST_PREFIX).sorted().toList();
+        List<String> expected = search.findMatchingWords(TEST_PREFIX).stream().sorted().toList();
+        assertIterableEquals(expected, results);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test searching with a limit.")
+    @MethodSource(METHOD_SOURCE)
+    void testLimit(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        List<String> results = search.findMatchingWords(TEST_PREFIX.substring(0, 1), PAGE_SIZE);
+        assertEquals(PAGE_SIZE, results.size());
+        results.forEach(it -> assertTrue(it.startsWith(TEST_PREFIX.substring(0, 1))));
+        assertEquals(26, search.findMatchingWords(TEST_PREFIX, 2 * PAGE_SIZE).size());
+        assertIterableEquals(List.of(), search.findMatchingWords(TEST_PREFIX, 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findMatchingWords(TEST_PREFIX, -1));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test paging with offsets.")
+    @MethodSource(METHOD_SOURCE)
+    void testOffsetPaging(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        String prefix = TEST_PREFIX.substring(0, 2);
+        List<String> results = new ArrayList<>();
+        List<String> page;
+        do {
+            page = search.findMatchingWords(prefix, results.size(), PAGE_SIZE);
+            results.addAll(page);
+        } while (!page.isEmpty());
+        Collections.sort(results);
+        assertIterableEquals(search.findMatchingWords(prefix).stream().sorted().toList(), results);
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findMatchingWords(prefix, -1, PAGE_SIZE));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test paging with cursors.")
+    @MethodSource(METHOD_SOURCE)
+    void testCursorPaging(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        String prefix = TEST_PREFIX.substring(0, 2);
+        List<String> results = new ArrayList<>();
+        List<String> page = search.findMatchingWordsAfter(prefix, EMPTY_WORD, PAGE_SIZE);
+        while (!page.isEmpty()) {
+            results.addAll(page);
+            page = search.findMatchingWordsAfter(prefix, page.get(page.size() - 1), PAGE_SIZE);
+        }
+        assertIterableEquals(search.findMatchingWords(prefix).stream().sorted().toList(), results);
+        assertIterableEquals(List.of(TEST_PATTERN), search.findMatchingWordsAfter(TEST_PREFIX, "TESS", 1));
+        assertIterableEquals(List.of(), search.findMatchingWordsAfter(TEST_PREFIX, "TEZ", PAGE_SIZE));
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findMatchingWordsAfter(prefix, null, PAGE_SIZE));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test searching for a batch of patterns.")
+    @MethodSource(METHOD_SOURCE)
+    void testBatch(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        List<String> patterns = List.of(TEST_PREFIX, "A", EMPTY_WORD, "ZZ", TEST_PATTERN, "T", TEST_PREFIX, "TESTX", "TE", "AB", "1");
+        Map<String, List<String>> results = search.findMatchingWordsForAll(patterns);
+        assertEquals(Set.copyOf(patterns), results.keySet());
+        for (String pattern : patterns) {
+            assertIterableEquals(search.findMatchingWords(pattern).stream().sorted().toList(), results.get(pattern).stream().sorted().toList());
+        }
+        assertTrue(search.findMatchingWordsForAll(List.of()).isEmpty());
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findMatchingWordsForAll(null));
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findMatchingWordsForAll(Arrays.asList(TEST_PREFIX, null)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test searching for words with prefixes within an edit distance.")
+    @MethodSource(METHOD_SOURCE)
+    void testFuzzyMatches(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        Map<String, Integer> queries = Map.of(TEST_PATTERN, 1, "TXST", 1, "TSET", 2, "QQ", 0, "ZZZZZ", 1, "AB", 2);
+        queries.forEach((pattern, maxEdits) -> {
+            List<String> expected = combinationsUnsorted.stream().filter(it -> prefixDistance(pattern, it) <= maxEdits).toList();
+            assertIterableEquals(expected, search.findFuzzyMatches(pattern, maxEdits).stream().sorted().toList());
+        });
+        assertIterableEquals(search.findMatchingWords(TEST_PREFIX).stream().sorted().toList(),
+                search.findFuzzyMatches(TEST_PREFIX, 0).stream().sorted().toList());
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findFuzzyMatches(null, 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findFuzzyMatches(TEST_PATTERN, -1));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test searching for words that match a wildcard pattern.")
+    @MethodSource(METHOD_SOURCE)
+    void testWildcardMatches(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        for (String pattern : List.of(TEST_PATTERN, "TE?T", "T*ST", "?EST", "*Z", "A?C*", "*A*A*", "T**T", "????", "???", "*", "TEST*", "TEST?")) {
+            Pattern regex = Pattern.compile(pattern.replace("?", ".").replace("*", ".*"));
+            List<String> expected = combinationsUnsorted.stream().filter(it -> regex.matcher(it).matches()).toList();
+            assertIterableEquals(expected, search.findWildcardMatches(pattern).stream().sorted().toList());
+        }
+        assertIterableEquals(List.of(), search.findWildcardMatches(EMPTY_WORD));
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findWildcardMatches(null));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @DisplayName("Test searching for words that contain a fragment anywhere.")
+    @MethodSource(METHOD_SOURCE)
+    void testWordsContaining(String name, DictionarySupplier supplier) {
+        SearchableDictionary search = supplier.create(combinations);
+        for (String fragment : List.of(TEST_PATTERN, TEST_PREFIX, "EST", "ZZ", "Q", "STA", "TESTS", "1", EMPTY_WORD)) {
+            List<String> expected = combinationsUnsorted.stream().filter(it -> it.contains(fragment)).toList();
+            assertIterableEquals(expected, search.findWordsContaining(fragment).stream().sorted().toList());
+        }
+        assertThrowsExactly(IllegalArgumentException.class, () -> search.findWordsContaining(null));
+    }
+
     @Disabled("Not part of the specified behavior.")
     @ParameterizedTest(name = "{0}")
     @DisplayName("Test searching for a word that occurs more than once.")
@@ -109,4 +245,22 @@ class SearchableDictionaryTest {
         List<String> results = search.findMatchingWords(TEST_PATTERN);
         assertIterableEquals(List.of(TEST_PATTERN, TEST_PATTERN, TEST_PATTERN), results);
     }
+
+    /**
+     * Computes the minimal Levenshtein distance between the pattern and all prefixes of the word with the full matrix.
+     */
+    private static int prefixDistance(String pattern, String word) {
+        int[][] distances = new int[pattern.length() + 1][word.length() + 1];
+        for (int i = 0; i <= pattern.length(); i++) {
+            for (int j = 0; j <= word.length(); j++) {
+                if (i == 0 || j == 0) {
+                    distances[i][j] = i + j;
+                } else {
+                    int substitution = distances[i - 1][j - 1] + (pattern.charAt(i - 1) == word.charAt(j - 1) ? 0 : 1);
+                    distances[i][j] = Math.min(substitution, Math.min(distances[i - 1][j], distances[i][j - 1]) + 1);
+                }
+            }
+        }
+        return Arrays.stream(distances[pattern.length()]).min().getAsInt();
+    }
 }
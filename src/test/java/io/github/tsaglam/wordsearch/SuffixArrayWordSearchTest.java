@@ -0,0 +1,60 @@
+package io.github.tsaglam.wordsearch;
+
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.tsaglam.wordsearch.impl.SuffixArrayWordSearch;
+
+/**
+ * Tests for the infix search of the {@link SuffixArrayWordSearch}.
+ */
+class SuffixArrayWordSearchTest {
+    private static final String TEST_FRAGMENT = "EST";
+    private List<String> combinations;
+
+    @BeforeEach
+    void setUp() {
+        combinations = TestUtils.createTestData();
+        Collections.shuffle(combinations);
+    }
+
+    @Test
+    @DisplayName("Test that infix results are sorted and contain each word once per occurrence in the input.")
+    void testSortedAndDeduplicated() {
+        SuffixArrayWordSearch dictionary = new SuffixArrayWordSearch(List.of("BANANA", "ANANAS", "NAN", "BANANA", "CAN"));
+        assertIterableEquals(List.of("ANANAS", "BANANA", "BANANA", "CAN", "NAN"), dictionary.findWordsContaining("AN"));
+        assertIterableEquals(List.of("ANANAS", "BANANA", "BANANA"), dictionary.findWordsContaining("ANANA"));
+        assertIterableEquals(List.of("ANANAS"), dictionary.findWordsContaining("NAS"));
+        assertIterableEquals(List.of(), dictionary.findWordsContaining("BANANAS"));
+        assertIterableEquals(combinations.stream().filter(it -> it.contains(TEST_FRAGMENT)).sorted().toList(),
+                new SuffixArrayWordSearch(combinations).findWordsContaining(TEST_FRAGMENT));
+    }
+
+    @Test
+    @DisplayName("Test that fragments do not match across the boundaries of adjacent words.")
+    void testWordBoundaries() {
+        SuffixArrayWordSearch dictionary = new SuffixArrayWordSearch(List.of("AB", "CD", "", "D", "ABC"));
+        assertIterableEquals(List.of("ABC"), dictionary.findWordsContaining("BC"));
+        assertIterableEquals(List.of(), dictionary.findWordsContaining("CDD"));
+        assertIterableEquals(List.of(), dictionary.findWordsContaining("BCD"));
+        assertIterableEquals(List.of("", "AB", "ABC", "CD", "D"), dictionary.findWordsContaining(""));
+        assertIterableEquals(List.of("CD", "D"), dictionary.findWordsContaining("D"));
+    }
+
+    @Test
+    @DisplayName("Test infix search with characters beyond ASCII and the first key characters.")
+    void testUnicode() {
+        List<String> words = List.of("Straße", "Maßstab", "😀smile", "smile😀", "\uffff\uffff\uffffa", "\uffff\uffff\uffff");
+        SuffixArrayWordSearch dictionary = new SuffixArrayWordSearch(words);
+        assertIterableEquals(List.of("Maßstab", "Straße"), dictionary.findWordsContaining("ß"));
+        assertIterableEquals(List.of("smile😀", "😀smile"), dictionary.findWordsContaining("😀"));
+        assertIterableEquals(List.of("\uffff\uffff\uffff", "\uffff\uffff\uffffa"), dictionary.findWordsContaining("\uffff\uffff\uffff"));
+        assertIterableEquals(List.of("\uffff\uffff\uffffa"), dictionary.findWordsContaining("\uffffa"));
+    }
+}
@@ -1,18 +1,36 @@
 package io.github.tsaglam.wordsearch;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.params.provider.Arguments;
 
+import io.github.tsaglam.wordsearch.cache.CachingDictionary;
+import io.github.tsaglam.wordsearch.impl.AdaptiveDictionary;
 import io.github.tsaglam.wordsearch.impl.MultiTreeSetWordSearch;
 import io.github.tsaglam.wordsearch.impl.NaiveWordSearch;
 import io.github.tsaglam.wordsearch.impl.ParallelHashingTreeSearch;
+import io.github.tsaglam.wordsearch.impl.ParallelRangeHashingSearch;
 import io.github.tsaglam.wordsearch.impl.ParallelStreamWordSearch;
+import io.github.tsaglam.wordsearch.impl.SortedArrayWordSearch;
+import io.github.tsaglam.wordsearch.impl.SuffixArrayWordSearch;
 import io.github.tsaglam.wordsearch.impl.TreeSetWordSearch;
+import io.github.tsaglam.wordsearch.mapped.DictionaryFile;
+import io.github.tsaglam.wordsearch.mapped.MappedWordSearch;
+import io.github.tsaglam.wordsearch.mapped.OffHeapWordSearch;
+import io.github.tsaglam.wordsearch.metrics.InstrumentedDictionary;
+import io.github.tsaglam.wordsearch.tree.CompactPrefixTree;
 import io.github.tsaglam.wordsearch.tree.ParallelPrefixForest;
 import io.github.tsaglam.wordsearch.tree.ParallelPrefixTree;
+import io.github.tsaglam.wordsearch.tree.ParallelRadixTree;
+import io.github.tsaglam.wordsearch.tree.PersistentPrefixTree;
 
 /**
  * Utility class to provide inputs for the parameterized testing of multiple search implementations.
@@ -31,10 +49,21 @@ public final class TestUtils {
         return Stream.of( //
                 Arguments.of("ParallelStream", (DictionarySupplier) ParallelStreamWordSearch::new),
                 Arguments.of("TreeSet", (DictionarySupplier) TreeSetWordSearch::new),
+                Arguments.of("SortedArray", (DictionarySupplier) SortedArrayWordSearch::new),
+                Arguments.of("SuffixArray", (DictionarySupplier) SuffixArrayWordSearch::new),
+                Arguments.of("Adaptive", (DictionarySupplier) AdaptiveDictionary::new),
                 Arguments.of("MultiTreeSet", (DictionarySupplier) MultiTreeSetWordSearch::new),
                 Arguments.of("PrefixHashing", (DictionarySupplier) ParallelHashingTreeSearch::new),
+                Arguments.of("PrefixRangeHashing", (DictionarySupplier) ParallelRangeHashingSearch::new),
                 Arguments.of("ParallelPrefixTree", (DictionarySupplier) ParallelPrefixTree::new),
-                Arguments.of("ParallelPrefixForest", (DictionarySupplier) ParallelPrefixForest::new));
+                Arguments.of("ParallelRadixTree", (DictionarySupplier) ParallelRadixTree::new),
+                Arguments.of("ParallelPrefixForest", (DictionarySupplier) ParallelPrefixForest::new),
+                Arguments.of("PersistentPrefixTree", (DictionarySupplier) PersistentPrefixTree::new),
+                Arguments.of("CompactPrefixTree", (DictionarySupplier) CompactPrefixTree::new),
+                Arguments.of("MappedFile", (DictionarySupplier) TestUtils::createMappedDictionary),
+                Arguments.of("OffHeapArena", (DictionarySupplier) OffHeapWordSearch::new),
+                Arguments.of("Instrumented", (DictionarySupplier) words -> InstrumentedDictionary.build("Instrumented", words, ParallelPrefixTree::new)),
+                Arguments.of("Caching", (DictionarySupplier) words -> new CachingDictionary(new ParallelPrefixTree(words), 100_000)));
     }
 
     /**
@@ -44,6 +73,27 @@ public final class TestUtils {
         return Stream.concat(Stream.of(Arguments.of("Naive", (DictionarySupplier) NaiveWordSearch::new)), provideDictionaryConstructors());
     }
 
+    /**
+     * Creates a memory-mapped dictionary by writing the words to a temporary file. The file is deleted right away, which
+     * keeps the mapping valid on POSIX systems, or on exit otherwise.
+     * @param words is the word list.
+     * @return the dictionary backed by the file.
+     */
+    public static SearchableDictionary createMappedDictionary(List<String> words) {
+        try {
+            Path file = Files.createTempFile("dictionary", ".pwsd");
+            SearchableDictionary dictionary = MappedWordSearch.open(DictionaryFile.write(words, file));
+            try {
+                Files.delete(file);
+            } catch (IOException exception) {
+                file.toFile().deleteOnExit();
+            }
+            return dictionary;
+        } catch (IOException exception) {
+            throw new UncheckedIOException(exception);
+        }
+    }
+
     /**
      * Creates the test data.
      * @return the list of all words consisting of four upper-case letters.
@@ -61,4 +111,20 @@ public final class TestUtils {
         }
         return combinations;
     }
+
+    /**
+     * Creates test data of long words with long common prefixes and unique tails, like URLs and file paths.
+     * @return the list of 100,000 URLs and 100,000 file paths in random order.
+     */
+    public static List<String> createLongWordData() {
+        Random random = new Random(0);
+        List<String> words = new ArrayList<>();
+        for (int word = 0; word < 100_000; word++) {
+            String name = Long.toString(random.nextLong() >>> 1, Character.MAX_RADIX);
+            words.add("https://www.host" + word % 100 + ".example.org/articles/" + word % 7 + "/" + name + ".html");
+            words.add("/home/user" + word % 50 + "/projects/search/src/main/java/" + name + "/Main.java");
+        }
+        Collections.shuffle(words, random);
+        return words;
+    }
 }